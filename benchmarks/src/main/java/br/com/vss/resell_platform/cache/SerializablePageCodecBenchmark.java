@@ -0,0 +1,73 @@
+package br.com.vss.resell_platform.cache;
+
+import br.com.vss.resell_platform.controller.SerializablePage;
+import br.com.vss.resell_platform.controller.dto.FeedItemDto;
+import br.com.vss.resell_platform.util.CacheCodec;
+import br.com.vss.resell_platform.util.Category;
+import br.com.vss.resell_platform.util.Condition;
+import br.com.vss.resell_platform.util.SubCategory;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding of a cached feed page with each {@link CacheCodec}, the entry size is logged once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SerializablePageCodecBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(SerializablePageCodecBenchmark.class);
+
+    @Param({"JDK", "BINARY"})
+    private CacheCodec codec;
+
+    @Param({"20"})
+    private int rows;
+
+    private RedisSerializer<Object> serializer;
+    private SerializablePage<FeedItemDto> page;
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() {
+        serializer = switch (codec) {
+            case JDK -> new JdkSerializationRedisSerializer();
+            case BINARY -> new CompactCacheValueSerializer();
+        };
+
+        List<FeedItemDto> items = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            items.add(new FeedItemDto((long) i, "Air Max " + i, "Nike", Category.FOOTWEAR, SubCategory.SNEAKERS,
+                    Condition.NEW, new BigDecimal("799.90"), "42", "seller" + i, LocalDateTime.of(2025, 1, 10, 12, 0, 0, 123456000)));
+        }
+        page = new SerializablePage<>(new PageImpl<>(items, PageRequest.of(2, rows), 1000));
+        bytes = serializer.serialize(page);
+
+        log.info("{}: {} bytes/entry", codec, bytes.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(page);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(bytes);
+    }
+}
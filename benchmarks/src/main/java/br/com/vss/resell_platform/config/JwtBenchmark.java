@@ -0,0 +1,68 @@
+package br.com.vss.resell_platform.config;
+
+import br.com.vss.resell_platform.service.JwtService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.converter.RsaKeyConverters;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token signing with the key pair shipped in the application resources,
+ * wired through SecurityConfig the same way the running application does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class JwtBenchmark {
+
+    private JwtService jwtService;
+    private Authentication authentication;
+
+    @Setup
+    public void setUp() throws IOException {
+        jwtService = new JwtService(securityConfig(false).jwtEncoder());
+        authentication = authentication(1L);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(authentication);
+    }
+
+    static Authentication authentication(long userId) {
+        return UsernamePasswordAuthenticationToken.authenticated(new AuthenticatedUser(userId, "user" + userId), null,
+                List.of(new SimpleGrantedAuthority("USER")));
+    }
+
+    static SecurityConfig securityConfig(boolean decoderCacheEnabled) throws IOException {
+        SecurityConfig securityConfig = new SecurityConfig(null);
+        try (InputStream publicKey = new ClassPathResource("app.pub").getInputStream();
+             InputStream privateKey = new ClassPathResource("app.key").getInputStream()) {
+            setField(securityConfig, "publicKey", RsaKeyConverters.x509().convert(publicKey));
+            setField(securityConfig, "privateKey", RsaKeyConverters.pkcs8().convert(privateKey));
+        }
+        setField(securityConfig, "decoderCacheEnabled", decoderCacheEnabled);
+        setField(securityConfig, "decoderCacheMaximumSize", 100_000L);
+        setField(securityConfig, "decoderCacheMaximumTtl", Duration.ofHours(1));
+        return securityConfig;
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
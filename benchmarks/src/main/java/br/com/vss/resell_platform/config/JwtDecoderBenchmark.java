@@ -0,0 +1,50 @@
+package br.com.vss.resell_platform.config;
+
+import br.com.vss.resell_platform.service.JwtService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifications per second on a single thread, i.e. per core, for a client that keeps sending one of a
+ * few hundred live tokens. With the cache only the first decode of each token checks the signature.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(1)
+@Fork(2)
+public class JwtDecoderBenchmark {
+
+    private static final int TOKENS = 512;
+
+    @Param({"false", "true"})
+    private boolean cached;
+
+    private JwtDecoder jwtDecoder;
+    private String[] tokens;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        SecurityConfig securityConfig = JwtBenchmark.securityConfig(cached);
+        JwtService jwtService = new JwtService(securityConfig.jwtEncoder());
+        jwtDecoder = securityConfig.jwtDecoder();
+
+        tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            tokens[i] = jwtService.generateToken(JwtBenchmark.authentication(i));
+        }
+    }
+
+    @Benchmark
+    public Jwt decode() {
+        next = (next + 1) & (TOKENS - 1);
+        return jwtDecoder.decode(tokens[next]);
+    }
+}
@@ -0,0 +1,119 @@
+package br.com.vss.resell_platform.repository;
+
+import br.com.vss.resell_platform.model.Brand;
+import br.com.vss.resell_platform.model.Item;
+import br.com.vss.resell_platform.util.Category;
+import br.com.vss.resell_platform.util.Condition;
+import br.com.vss.resell_platform.util.ItemStatus;
+import br.com.vss.resell_platform.util.SubCategory;
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * In-memory H2 database migrated by the application's Flyway scripts and filled with a deterministic feed,
+ * so two runs of the same benchmark always query the same rows.
+ */
+public final class FeedDatabase {
+
+    public static final String[] BRANDS = {"Nike", "Adidas", "Puma", "New Balance", "Levi's", "Zara", "Uniqlo", "Carhartt"};
+    public static final LocalDateTime NEWEST = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private static final long SEED = 42;
+    private static final int SELLERS = 1000;
+    private static final int BATCH_SIZE = 10_000;
+    private static final int SIZES = 12;
+
+    private FeedDatabase() {
+    }
+
+    public static ConfigurableApplicationContext start(String name, int items) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Persistence.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run("--spring.datasource.url=jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=none",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+
+        seed(context.getBean(JdbcTemplate.class), items);
+        return context;
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate, int items) {
+        List<Object[]> sellers = new ArrayList<>();
+        for (int i = 1; i <= SELLERS; i++) {
+            sellers.add(new Object[]{i, "seller" + i, "password", "seller" + i + "@email.com", BigDecimal.ZERO,
+                    Timestamp.valueOf(NEWEST)});
+        }
+        jdbcTemplate.batchUpdate("insert into tb_users (id, username, password, email, balance, created_at) " +
+                "values (?, ?, ?, ?, ?, ?)", sellers);
+
+        // dictionary ids follow the array order, sizes are shoe sizes 34 to 45
+        List<Object[]> brands = new ArrayList<>();
+        for (int i = 0; i < BRANDS.length; i++) {
+            brands.add(new Object[]{i + 1, BRANDS[i], Brand.normalize(BRANDS[i])});
+        }
+        jdbcTemplate.batchUpdate("insert into tb_brands (id, name, normalized) values (?, ?, ?)", brands);
+        List<Object[]> sizes = new ArrayList<>();
+        for (int i = 0; i < SIZES; i++) {
+            sizes.add(new Object[]{i + 1, String.valueOf(34 + i)});
+        }
+        jdbcTemplate.batchUpdate("insert into tb_sizes (id, label) values (?, ?)", sizes);
+
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 1; i <= items; i++) {
+            int brand = random.nextInt(BRANDS.length);
+            batch.add(new Object[]{i, BRANDS[brand] + " item " + i, brand + 1,
+                    random.nextInt(Category.values().length),
+                    random.nextInt(SubCategory.values().length),
+                    random.nextInt(Condition.values().length),
+                    BigDecimal.valueOf(random.nextInt(100, 500_000), 2),
+                    1 + random.nextInt(SIZES),
+                    1 + random.nextInt(SELLERS),
+                    random.nextInt(10) == 0 ? ItemStatus.SOLD.ordinal() : ItemStatus.AVAILABLE.ordinal(),
+                    Timestamp.valueOf(NEWEST.minusSeconds(i))});
+
+            if (batch.size() == BATCH_SIZE || i == items) {
+                jdbcTemplate.batchUpdate("insert into tb_items (id, name, brand_id, category, sub_category, condition, " +
+                        "price, size_id, user_id, status, listed_at) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        jdbcTemplate.execute("analyze");
+    }
+
+    @SpringBootConfiguration
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, DataSourceTransactionManagerAutoConfiguration.class,
+            JdbcTemplateAutoConfiguration.class, FlywayAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+            TransactionAutoConfiguration.class})
+    @EntityScan(basePackageClasses = Item.class)
+    @EnableJpaRepositories(basePackageClasses = ItemRepository.class)
+    static class Persistence {
+    }
+}
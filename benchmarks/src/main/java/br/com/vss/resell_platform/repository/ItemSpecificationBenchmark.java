@@ -0,0 +1,72 @@
+package br.com.vss.resell_platform.repository;
+
+import br.com.vss.resell_platform.model.Item;
+import br.com.vss.resell_platform.util.Category;
+import br.com.vss.resell_platform.util.Condition;
+import br.com.vss.resell_platform.util.FeedCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ItemSpecificationBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private CriteriaBuilder criteriaBuilder;
+    private CriteriaQuery<Item> query;
+    private Root<Item> root;
+    private FeedCursor cursor;
+    private Integer sizeId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = FeedDatabase.start("specification", 0);
+        entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+        criteriaBuilder = entityManager.getCriteriaBuilder();
+        query = criteriaBuilder.createQuery(Item.class);
+        root = query.from(Item.class);
+        cursor = new FeedCursor(FeedDatabase.NEWEST.minusDays(1), 50_000L);
+        sizeId = context.getBean(SizeRepository.class).findByLabel("42").orElseThrow().getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManager.close();
+        context.close();
+    }
+
+    @Benchmark
+    public Predicate unfiltered() {
+        return ItemSpecification.feedFilter(null, null, null, null, null, BigDecimal.ZERO, new BigDecimal("999999"), null)
+                .toPredicate(root, query, criteriaBuilder);
+    }
+
+    @Benchmark
+    public Predicate allFilters() {
+        return ItemSpecification.feedFilter("air max", "nike", Category.FOOTWEAR, null, Condition.NEW,
+                        new BigDecimal("100"), new BigDecimal("2000"), sizeId)
+                .toPredicate(root, query, criteriaBuilder);
+    }
+
+    @Benchmark
+    public Predicate allFiltersAfterCursor() {
+        Specification<Item> specification = ItemSpecification.feedFilter("air max", "nike", Category.FOOTWEAR, null,
+                Condition.NEW, new BigDecimal("100"), new BigDecimal("2000"), sizeId);
+        return specification.and(ItemSpecification.seekAfter(cursor)).toPredicate(root, query, criteriaBuilder);
+    }
+}
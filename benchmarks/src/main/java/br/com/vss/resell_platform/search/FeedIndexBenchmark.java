@@ -0,0 +1,89 @@
+package br.com.vss.resell_platform.search;
+
+import br.com.vss.resell_platform.repository.FeedDatabase;
+import br.com.vss.resell_platform.util.Category;
+import br.com.vss.resell_platform.util.Condition;
+import br.com.vss.resell_platform.util.FeedCursor;
+import br.com.vss.resell_platform.util.SubCategory;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The feed index alone, without hydrating the page from the database. Items follow the same distribution as
+ * {@link FeedDatabase}, the footprint of each trial is logged before it starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class FeedIndexBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedIndexBenchmark.class);
+
+    private static final FeedFilter UNFILTERED = new FeedFilter(null, null, null, null, BigDecimal.ZERO, new BigDecimal("999999"));
+    // the synthetic sizes 34 to 45 use their label as dictionary id
+    private static final FeedFilter FILTERED = new FeedFilter(Category.FOOTWEAR, null, Condition.NEW, 42,
+            new BigDecimal("100"), new BigDecimal("2000"));
+
+    @Param({"1000000"})
+    private int items;
+
+    private FeedIndex feedIndex;
+    private FeedCursor deepCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        feedIndex = new FeedIndex(4096);
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = items; i >= 1; i--) {
+            feedIndex.upsert(new IndexedItem((long) i,
+                    Category.values()[random.nextInt(Category.values().length)],
+                    SubCategory.values()[random.nextInt(SubCategory.values().length)],
+                    Condition.values()[random.nextInt(Condition.values().length)],
+                    BigDecimal.valueOf(random.nextInt(100, 500_000), 2),
+                    34 + random.nextInt(12),
+                    FeedDatabase.NEWEST.minusSeconds(i)));
+        }
+        feedIndex.compact();
+        deepCursor = new FeedCursor(FeedDatabase.NEWEST.minusSeconds(items / 2), (long) items / 2);
+
+        log.info("feed index: {} items, {} MiB", feedIndex.size(), "%.1f".formatted(feedIndex.memoryBytes() / 1048576.0));
+    }
+
+    @Benchmark
+    public FeedIndex.Hits firstPage() {
+        return feedIndex.search(UNFILTERED, null, 0, 20);
+    }
+
+    @Benchmark
+    public FeedIndex.Hits firstPageFiltered() {
+        return feedIndex.search(FILTERED, null, 0, 20);
+    }
+
+    @Benchmark
+    public FeedIndex.Hits deepPageOffset() {
+        return feedIndex.search(UNFILTERED, null, items / 2, 20);
+    }
+
+    @Benchmark
+    public FeedIndex.Hits deepPageCursor() {
+        return feedIndex.search(UNFILTERED, deepCursor, 0, 20);
+    }
+
+    @Benchmark
+    public long countFiltered() {
+        return feedIndex.count(FILTERED);
+    }
+
+    @Benchmark
+    public FeedFacets facetsFiltered() {
+        return feedIndex.facets(FILTERED);
+    }
+}
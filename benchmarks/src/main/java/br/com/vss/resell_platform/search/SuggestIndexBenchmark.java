@@ -0,0 +1,77 @@
+package br.com.vss.resell_platform.search;
+
+import br.com.vss.resell_platform.controller.dto.SuggestionDto;
+import br.com.vss.resell_platform.repository.FeedDatabase;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prefix lookups and item updates against the suggest index. Names repeat a few garments and colours per brand, with
+ * a quarter of them carrying a unique model number so the phrase cap is reached.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SuggestIndexBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(SuggestIndexBenchmark.class);
+
+    private static final String[] GARMENTS = {"Camiseta", "Tênis", "Jaqueta", "Calça", "Moletom", "Boné", "Bermuda",
+            "Camisa", "Vestido", "Meia", "Regata", "Saia"};
+    private static final String[] COLOURS = {"Preto", "Branco", "Azul", "Vermelho", "Verde", "Cinza", "Bege", "Rosa"};
+
+    @Param({"1000000"})
+    private int items;
+
+    private SuggestIndex suggestIndex;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        suggestIndex = new SuggestIndex(200_000);
+        random = new SplittableRandom(42);
+        for (int i = 1; i <= items; i++) {
+            suggestIndex.upsert(item(i));
+        }
+        suggestIndex.compact();
+
+        log.info("suggest index: {} phrases, {} MiB", suggestIndex.size(), "%.1f".formatted(suggestIndex.memoryBytes() / 1048576.0));
+    }
+
+    @Benchmark
+    public List<SuggestionDto> oneLetter() {
+        return suggestIndex.suggest("c", 10);
+    }
+
+    @Benchmark
+    public List<SuggestionDto> brandAndWord() {
+        return suggestIndex.suggest("nike cam", 10);
+    }
+
+    @Benchmark
+    public List<SuggestionDto> noMatch() {
+        return suggestIndex.suggest("xyz", 10);
+    }
+
+    @Benchmark
+    public void update() {
+        suggestIndex.upsert(item(1 + random.nextInt(items)));
+    }
+
+    private IndexedText item(int id) {
+        // the garment is skewed towards the first ones, like real listings
+        String brand = FeedDatabase.BRANDS[random.nextInt(FeedDatabase.BRANDS.length)];
+        String garment = GARMENTS[Math.min(random.nextInt(GARMENTS.length), random.nextInt(GARMENTS.length))];
+        String name = brand + " " + garment + " " + COLOURS[random.nextInt(COLOURS.length)]
+                + (random.nextInt(4) == 0 ? " " + id : "");
+        return new IndexedText((long) id, 0L, name, brand, FeedDatabase.NEWEST.minusSeconds(id));
+    }
+}
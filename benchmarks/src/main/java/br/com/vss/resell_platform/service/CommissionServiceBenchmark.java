@@ -0,0 +1,36 @@
+package br.com.vss.resell_platform.service;
+
+import br.com.vss.resell_platform.model.Brand;
+import br.com.vss.resell_platform.model.Item;
+import br.com.vss.resell_platform.model.Size;
+import br.com.vss.resell_platform.model.User;
+import br.com.vss.resell_platform.util.Category;
+import br.com.vss.resell_platform.util.Condition;
+import br.com.vss.resell_platform.util.SubCategory;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CommissionServiceBenchmark {
+
+    private final CommissionService commissionService = new CommissionService();
+    private Item item;
+
+    @Setup
+    public void setUp() {
+        item = new Item("Air Max 90", new Brand("Nike"), Category.FOOTWEAR, SubCategory.SNEAKERS, Condition.NEW,
+                new BigDecimal("799.90"), new Size("42"), new User("seller", "password", "seller@email.com"));
+    }
+
+    @Benchmark
+    public BigDecimal calculateCommission() {
+        return commissionService.calculateCommission(item);
+    }
+}
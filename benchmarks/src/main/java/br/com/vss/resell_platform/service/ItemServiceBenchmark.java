@@ -0,0 +1,131 @@
+package br.com.vss.resell_platform.service;
+
+import br.com.vss.resell_platform.controller.SerializablePage;
+import br.com.vss.resell_platform.controller.dto.FeedFacetsDto;
+import br.com.vss.resell_platform.controller.dto.FeedItemDto;
+import br.com.vss.resell_platform.repository.BrandRepository;
+import br.com.vss.resell_platform.repository.FeedDatabase;
+import br.com.vss.resell_platform.repository.ItemRepository;
+import br.com.vss.resell_platform.repository.SizeRepository;
+import br.com.vss.resell_platform.search.FeedIndex;
+import br.com.vss.resell_platform.search.TextIndex;
+import br.com.vss.resell_platform.util.Category;
+import br.com.vss.resell_platform.util.Condition;
+import br.com.vss.resell_platform.util.FeedCursor;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feed queries straight against the database or answered by the feed and text indexes, the Redis caches in front of
+ * ItemService are left out on purpose.
+ * 10^7 items needs roughly 8 GB of heap: {@code -Djmh.args="ItemServiceBenchmark -p items=10000000 -jvmArgs -Xmx8g"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ItemServiceBenchmark {
+
+    private static final BigDecimal LOWEST = BigDecimal.ZERO;
+    private static final BigDecimal HIGHEST = new BigDecimal("999999");
+
+    @Param({"100000", "1000000"})
+    private int items;
+
+    @Param({"database", "index"})
+    private String source;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private Pageable firstPage;
+    private Pageable deepPage;
+    private FeedCursor deepCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = FeedDatabase.start("feed", items);
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        FeedIndex feedIndex = new FeedIndex(4096);
+        TextIndex textIndex = new TextIndex(4096);
+        TextIndexService textIndexService = new TextIndexService(textIndex, feedIndex, itemRepository, transactionManager,
+                "index".equals(source), snapshotDirectory());
+        FeedIndexService feedIndexService = new FeedIndexService(feedIndex, itemRepository, transactionManager,
+                "index".equals(source));
+        IndexSyncService indexSyncService = new IndexSyncService(List.of(feedIndexService, textIndexService), null,
+                null, "feed-index");
+        indexSyncService.load();
+        DictionaryService dictionaryService = new DictionaryService(context.getBean(BrandRepository.class),
+                context.getBean(SizeRepository.class), transactionManager);
+        dictionaryService.load();
+        itemService = new ItemService(itemRepository, new FeedCountService(itemRepository, dictionaryService), null, null,
+                indexSyncService, feedIndexService,
+                new FeedFacetService(itemRepository, feedIndexService, textIndexService, dictionaryService),
+                textIndexService, dictionaryService);
+
+        firstPage = PageRequest.of(0, 20, ItemService.FEED_SORT);
+        deepPage = PageRequest.of(items / 2 / 20, 20, ItemService.FEED_SORT);
+        deepCursor = new FeedCursor(FeedDatabase.NEWEST.minusSeconds(items / 2), (long) items / 2);
+    }
+
+    // a fresh directory per trial, so the text index is always rebuilt from the table
+    private static String snapshotDirectory() {
+        try {
+            return Files.createTempDirectory("text-index").toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public SerializablePage<FeedItemDto> firstPageCounted() {
+        return itemService.findFiltered(firstPage, null, null, null, null, null, LOWEST, HIGHEST, null);
+    }
+
+    @Benchmark
+    public SerializablePage<FeedItemDto> firstPageFilteredCounted() {
+        return itemService.findFiltered(firstPage, null, "nike", Category.FOOTWEAR, null, null, LOWEST, HIGHEST, null);
+    }
+
+    @Benchmark
+    public SerializablePage<FeedItemDto> firstPageSlice() {
+        return itemService.findFilteredSlice(firstPage, null, null, null, null, null, LOWEST, HIGHEST, null);
+    }
+
+    @Benchmark
+    public SerializablePage<FeedItemDto> nameSearchSlice() {
+        return itemService.findFilteredSlice(firstPage, "item 12", null, null, null, null, LOWEST, HIGHEST, null);
+    }
+
+    @Benchmark
+    public SerializablePage<FeedItemDto> deepPageOffset() {
+        return itemService.findFilteredSlice(deepPage, null, null, null, null, null, LOWEST, HIGHEST, null);
+    }
+
+    @Benchmark
+    public SerializablePage<FeedItemDto> deepPageKeyset() {
+        return itemService.findFilteredAfter(deepCursor, 20, null, null, null, null, null, LOWEST, HIGHEST, null);
+    }
+
+    @Benchmark
+    public FeedFacetsDto facets() {
+        return itemService.findFacets(null, null, Category.FOOTWEAR, null, Condition.NEW, LOWEST, HIGHEST, null);
+    }
+}
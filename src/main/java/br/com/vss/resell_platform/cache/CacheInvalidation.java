@@ -0,0 +1,19 @@
+package br.com.vss.resell_platform.cache;
+
+public record CacheInvalidation(String origin, String cacheName, String key) {
+
+    private static final String SEPARATOR = "|";
+
+    public static CacheInvalidation decode(String message) {
+        String[] parts = message.split("\\|", 3);
+        return new CacheInvalidation(parts[0], parts[1], parts[2].isEmpty() ? null : parts[2]);
+    }
+
+    public boolean isClear() {
+        return key == null;
+    }
+
+    public String encode() {
+        return origin + SEPARATOR + cacheName + SEPARATOR + (key == null ? "" : key);
+    }
+}
@@ -0,0 +1,33 @@
+package br.com.vss.resell_platform.cache;
+
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.UUID;
+
+public class CacheInvalidationPublisher {
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final String channel;
+
+    public CacheInvalidationPublisher(RedisTemplate<String, Object> redisTemplate, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public void evicted(String cacheName, String key) {
+        redisTemplate.convertAndSend(channel, new CacheInvalidation(nodeId, cacheName, key).encode());
+    }
+
+    public void cleared(String cacheName) {
+        redisTemplate.convertAndSend(channel, new CacheInvalidation(nodeId, cacheName, null).encode());
+    }
+}
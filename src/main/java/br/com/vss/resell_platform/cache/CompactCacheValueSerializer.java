@@ -0,0 +1,327 @@
+package br.com.vss.resell_platform.cache;
+
+import br.com.vss.resell_platform.controller.SerializablePage;
+import br.com.vss.resell_platform.controller.dto.FeedItemDto;
+import br.com.vss.resell_platform.model.Brand;
+import br.com.vss.resell_platform.model.Size;
+import br.com.vss.resell_platform.service.DictionaryService;
+import br.com.vss.resell_platform.util.Category;
+import br.com.vss.resell_platform.util.Condition;
+import br.com.vss.resell_platform.util.SubCategory;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Schema-based encoding for the values the feed caches: counts, {@link FeedItemDto} rows and pages of them.
+ * Anything else is written with JDK serialization, whose stream magic (0xACED) never collides with the tags
+ * below, so entries written by the previous serializer stay readable. Brands and sizes the dictionary knows are
+ * written as their ids and read back as the dictionary's own strings; version 1 values, which spelled them out,
+ * are still read.
+ */
+public class CompactCacheValueSerializer implements RedisSerializer<Object> {
+
+    private static final byte LONG = 1;
+    private static final byte FEED_ITEM = 2;
+    private static final byte FEED_PAGE = 3;
+    private static final byte VERSION = 2;
+    private static final byte SPELLED_OUT = 1;
+    // an id of zero is followed by the text, for names the dictionary has not seen yet
+    private static final int INLINE = 0;
+
+    private static final Category[] CATEGORIES = Category.values();
+    private static final SubCategory[] SUB_CATEGORIES = SubCategory.values();
+    private static final Condition[] CONDITIONS = Condition.values();
+
+    private final JdkSerializationRedisSerializer fallback = new JdkSerializationRedisSerializer();
+    private final DictionaryService dictionaryService;
+
+    public CompactCacheValueSerializer(DictionaryService dictionaryService) {
+        this.dictionaryService = dictionaryService;
+    }
+
+    // without a dictionary brands and sizes are always spelled out
+    public CompactCacheValueSerializer() {
+        this(null);
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        if (!isCompact(value)) {
+            return fallback.serialize(value);
+        }
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+
+            if (value instanceof Long number) {
+                out.writeByte(LONG);
+                out.writeByte(VERSION);
+                writeVarLong(out, zigZag(number));
+            } else if (value instanceof FeedItemDto item) {
+                out.writeByte(FEED_ITEM);
+                out.writeByte(VERSION);
+                writeItem(out, item);
+            } else {
+                out.writeByte(FEED_PAGE);
+                out.writeByte(VERSION);
+                writePage(out, (SerializablePage<?>) value);
+            }
+
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new SerializationException("Cannot encode cache value", e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != LONG && bytes[0] != FEED_ITEM && bytes[0] != FEED_PAGE) {
+            return fallback.deserialize(bytes);
+        }
+
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            byte tag = in.readByte();
+            byte version = in.readByte();
+            if (version != VERSION && version != SPELLED_OUT) {
+                throw new SerializationException("Unsupported cache value version " + version);
+            }
+
+            return switch (tag) {
+                case LONG -> unZigZag(readVarLong(in));
+                case FEED_ITEM -> readItem(in, version);
+                default -> readPage(in, version);
+            };
+        } catch (IOException e) {
+            throw new SerializationException("Cannot decode cache value", e);
+        }
+    }
+
+    private boolean isCompact(Object value) {
+        if (value instanceof Long || value instanceof FeedItemDto) {
+            return true;
+        }
+        if (value instanceof SerializablePage<?> page) {
+            return page.getContent().stream().allMatch(FeedItemDto.class::isInstance);
+        }
+        return false;
+    }
+
+    private void writePage(DataOutputStream out, SerializablePage<?> page) throws IOException {
+        writeVarLong(out, page.getNumber());
+        writeVarLong(out, page.getSize());
+        writeVarLong(out, zigZag(page.getTotalPages()));
+        writeVarLong(out, zigZag(page.getTotalElements()));
+
+        int flags = (page.isFirst() ? 1 : 0)
+                | (page.isLast() ? 1 << 1 : 0)
+                | (page.isHasNext() ? 1 << 2 : 0)
+                | (page.isHasPrevious() ? 1 << 3 : 0)
+                | (page.isCounted() ? 1 << 4 : 0)
+                | (page.isRanked() ? 1 << 5 : 0);
+        out.writeByte(flags);
+
+        writeVarLong(out, page.getContent().size());
+        for (Object item : page.getContent()) {
+            writeItem(out, (FeedItemDto) item);
+        }
+    }
+
+    private SerializablePage<FeedItemDto> readPage(DataInputStream in, byte version) throws IOException {
+        SerializablePage<FeedItemDto> page = new SerializablePage<>();
+        page.setNumber((int) readVarLong(in));
+        page.setSize((int) readVarLong(in));
+        page.setTotalPages((int) unZigZag(readVarLong(in)));
+        page.setTotalElements(unZigZag(readVarLong(in)));
+
+        int flags = in.readUnsignedByte();
+        page.setFirst((flags & 1) != 0);
+        page.setLast((flags & 1 << 1) != 0);
+        page.setHasNext((flags & 1 << 2) != 0);
+        page.setHasPrevious((flags & 1 << 3) != 0);
+        page.setCounted((flags & 1 << 4) != 0);
+        page.setRanked((flags & 1 << 5) != 0);
+
+        int count = (int) readVarLong(in);
+        List<FeedItemDto> content = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            content.add(readItem(in, version));
+        }
+        page.setContent(content);
+        return page;
+    }
+
+    private void writeItem(DataOutputStream out, FeedItemDto item) throws IOException {
+        Object[] fields = {item.id(), item.name(), item.brand(), item.category(), item.subCategory(),
+                item.condition(), item.price(), item.size(), item.sellerUsername(), item.listedAt()};
+        int present = 0;
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] != null) {
+                present |= 1 << i;
+            }
+        }
+        out.writeShort(present);
+
+        if (item.id() != null) {
+            writeVarLong(out, zigZag(item.id()));
+        }
+        if (item.name() != null) {
+            writeString(out, item.name());
+        }
+        if (item.brand() != null) {
+            Integer brandId = dictionaryService != null ? dictionaryService.brandId(item.brand()) : null;
+            writeCoded(out, brandId, item.brand());
+        }
+        if (item.category() != null) {
+            out.writeByte(item.category().ordinal());
+        }
+        if (item.subCategory() != null) {
+            out.writeByte(item.subCategory().ordinal());
+        }
+        if (item.condition() != null) {
+            out.writeByte(item.condition().ordinal());
+        }
+        if (item.price() != null) {
+            writeDecimal(out, item.price());
+        }
+        if (item.size() != null) {
+            Integer sizeId = dictionaryService != null ? dictionaryService.sizeId(item.size()) : null;
+            writeCoded(out, sizeId, item.size());
+        }
+        if (item.sellerUsername() != null) {
+            writeString(out, item.sellerUsername());
+        }
+        if (item.listedAt() != null) {
+            writeVarLong(out, zigZag(item.listedAt().toEpochSecond(ZoneOffset.UTC)));
+            writeVarLong(out, item.listedAt().getNano());
+        }
+    }
+
+    private FeedItemDto readItem(DataInputStream in, byte version) throws IOException {
+        int present = in.readUnsignedShort();
+
+        Long id = (present & 1) != 0 ? unZigZag(readVarLong(in)) : null;
+        String name = (present & 1 << 1) != 0 ? readString(in) : null;
+        String brand = null;
+        if ((present & 1 << 2) != 0) {
+            int brandId = version == SPELLED_OUT ? INLINE : (int) readVarLong(in);
+            brand = brandId == INLINE ? readString(in) : brandName(brandId);
+        }
+        Category category = (present & 1 << 3) != 0 ? CATEGORIES[in.readUnsignedByte()] : null;
+        SubCategory subCategory = (present & 1 << 4) != 0 ? SUB_CATEGORIES[in.readUnsignedByte()] : null;
+        Condition condition = (present & 1 << 5) != 0 ? CONDITIONS[in.readUnsignedByte()] : null;
+        BigDecimal price = (present & 1 << 6) != 0 ? readDecimal(in) : null;
+        String size = null;
+        if ((present & 1 << 7) != 0) {
+            int sizeId = version == SPELLED_OUT ? INLINE : (int) readVarLong(in);
+            size = sizeId == INLINE ? readString(in) : sizeLabel(sizeId);
+        }
+        String sellerUsername = (present & 1 << 8) != 0 ? readString(in) : null;
+        LocalDateTime listedAt = null;
+        if ((present & 1 << 9) != 0) {
+            long epochSecond = unZigZag(readVarLong(in));
+            listedAt = LocalDateTime.ofEpochSecond(epochSecond, (int) readVarLong(in), ZoneOffset.UTC);
+        }
+
+        return new FeedItemDto(id, name, brand, category, subCategory, condition, price, size, sellerUsername, listedAt);
+    }
+
+    private void writeCoded(DataOutputStream out, Number id, String text) throws IOException {
+        writeVarLong(out, id != null ? id.longValue() : INLINE);
+        if (id == null) {
+            writeString(out, text);
+        }
+    }
+
+    private String brandName(int id) {
+        Brand brand = dictionaryService != null ? dictionaryService.findBrand(id) : null;
+        if (brand == null) {
+            throw new SerializationException("Unknown brand " + id);
+        }
+        return brand.getName();
+    }
+
+    private String sizeLabel(int id) {
+        Size size = dictionaryService != null ? dictionaryService.findSize(id) : null;
+        if (size == null) {
+            throw new SerializationException("Unknown size " + id);
+        }
+        return size.getLabel();
+    }
+
+    private void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        writeVarLong(out, zigZag(value.scale()));
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        writeVarLong(out, unscaled.length);
+        out.write(unscaled);
+    }
+
+    private BigDecimal readDecimal(DataInputStream in) throws IOException {
+        int scale = (int) unZigZag(readVarLong(in));
+        byte[] unscaled = new byte[(int) readVarLong(in)];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, utf8.length);
+        out.write(utf8);
+    }
+
+    private String readString(DataInputStream in) throws IOException {
+        byte[] utf8 = new byte[(int) readVarLong(in)];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
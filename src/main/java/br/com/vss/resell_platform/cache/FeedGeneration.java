@@ -0,0 +1,64 @@
+package br.com.vss.resell_platform.cache;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Version number of the feed shared by every node through Redis. Feed cache keys embed it, so bumping it
+ * after an item write makes every cached page and count unreachable at once and the old entries simply expire.
+ */
+public class FeedGeneration implements MessageListener {
+
+    private static final String KEY = "feed:generation";
+
+    private final AtomicLong generation = new AtomicLong(-1);
+    private final LongAdder bumps = new LongAdder();
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final String channel;
+
+    public FeedGeneration(RedisTemplate<String, Object> redisTemplate, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public long current() {
+        long value = generation.get();
+        if (value < 0) {
+            Object stored = redisTemplate.opsForValue().get(KEY);
+            advanceTo(stored == null ? 0 : Long.parseLong(stored.toString()));
+            value = generation.get();
+        }
+        return value;
+    }
+
+    public long getBumps() {
+        return bumps.sum();
+    }
+
+    public void bump() {
+        Long value = redisTemplate.opsForValue().increment(KEY);
+        if (value != null) {
+            advanceTo(value);
+            redisTemplate.convertAndSend(channel, String.valueOf(value));
+        }
+        bumps.increment();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        advanceTo(Long.parseLong(new String(message.getBody(), StandardCharsets.UTF_8)));
+    }
+
+    private void advanceTo(long value) {
+        generation.accumulateAndGet(value, Math::max);
+    }
+}
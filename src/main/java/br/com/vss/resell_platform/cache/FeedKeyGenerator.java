@@ -0,0 +1,20 @@
+package br.com.vss.resell_platform.cache;
+
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.interceptor.SimpleKeyGenerator;
+
+import java.lang.reflect.Method;
+
+public class FeedKeyGenerator implements KeyGenerator {
+
+    private final FeedGeneration feedGeneration;
+
+    public FeedKeyGenerator(FeedGeneration feedGeneration) {
+        this.feedGeneration = feedGeneration;
+    }
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        return "g" + feedGeneration.current() + ":" + method.getName() + ":" + SimpleKeyGenerator.generateKey(params);
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.vss.resell_platform.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.Duration;
+
+/**
+ * Idempotency records shared by every node through Redis. While Redis is unreachable records are kept in
+ * memory instead, which still deduplicates retries that land on the same node.
+ */
+public class IdempotencyStore {
+
+    private static final String PREFIX = "idempotency:";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final Cache<String, String> fallback;
+
+    public IdempotencyStore(RedisTemplate<String, Object> redisTemplate, long maximumSize, Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.fallback = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Stores the value unless the key already has one, returning the existing value or null when this call won.
+     */
+    public String putIfAbsent(String key, String value, Duration ttl) {
+        try {
+            for (;;) {
+                Boolean stored = redisTemplate.opsForValue().setIfAbsent(PREFIX + key, value, ttl);
+                if (Boolean.TRUE.equals(stored)) {
+                    return null;
+                }
+                Object existing = redisTemplate.opsForValue().get(PREFIX + key);
+                if (existing != null) {
+                    return existing.toString();
+                }
+                // expired between the two calls, try to claim it again
+            }
+        } catch (DataAccessException e) {
+            return fallback.asMap().putIfAbsent(key, value);
+        }
+    }
+
+    public void put(String key, String value, Duration ttl) {
+        try {
+            redisTemplate.opsForValue().set(PREFIX + key, value, ttl);
+        } catch (DataAccessException e) {
+            fallback.put(key, value);
+        }
+    }
+
+    public void remove(String key) {
+        try {
+            redisTemplate.delete(PREFIX + key);
+        } catch (DataAccessException e) {
+            fallback.invalidate(key);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package br.com.vss.resell_platform.cache;
+
+import br.com.vss.resell_platform.controller.SerializablePage;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+    private final CacheManager remote;
+    private final CacheInvalidationPublisher publisher;
+    private final long maximumWeight;
+    private final Duration expireAfterWrite;
+
+    public TwoLevelCacheManager(CacheManager remote, CacheInvalidationPublisher publisher, long maximumWeight,
+                                Duration expireAfterWrite) {
+        this.remote = remote;
+        this.publisher = publisher;
+        this.maximumWeight = maximumWeight;
+        this.expireAfterWrite = expireAfterWrite;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, cacheName -> {
+            Cache remoteCache = remote.getCache(cacheName);
+            return remoteCache == null ? null : new TwoLevelCache(cacheName, localCache(), remoteCache, publisher);
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remote.getCacheNames();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        CacheInvalidation invalidation = CacheInvalidation.decode(new String(message.getBody(), StandardCharsets.UTF_8));
+        if (publisher.getNodeId().equals(invalidation.origin())) {
+            return;
+        }
+
+        TwoLevelCache cache = caches.get(invalidation.cacheName());
+        if (cache == null) {
+            return;
+        }
+
+        if (invalidation.isClear()) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(invalidation.key());
+        }
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<String, Cache.ValueWrapper> localCache() {
+        return Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher(TwoLevelCacheManager::weigh)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    // a cached feed page costs one unit per row so a few large pages can't crowd out single items
+    private static int weigh(String key, Cache.ValueWrapper wrapper) {
+        if (wrapper.get() instanceof SerializablePage<?> page) {
+            return 1 + page.getContent().size();
+        }
+        return 1;
+    }
+}
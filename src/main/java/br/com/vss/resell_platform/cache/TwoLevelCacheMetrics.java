@@ -0,0 +1,44 @@
+package br.com.vss.resell_platform.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+public class TwoLevelCacheMetrics implements MeterBinder {
+
+    private final TwoLevelCacheManager cacheManager;
+    private final FeedGeneration feedGeneration;
+
+    public TwoLevelCacheMetrics(TwoLevelCacheManager cacheManager, FeedGeneration feedGeneration) {
+        this.cacheManager = cacheManager;
+        this.feedGeneration = feedGeneration;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String name : cacheManager.getCacheNames()) {
+            TwoLevelCache cache = (TwoLevelCache) cacheManager.getCache(name);
+
+            FunctionCounter.builder("cache.gets", cache, TwoLevelCache::getLocalHits)
+                    .tags("cache", name, "result", "hit", "level", "local")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", cache, TwoLevelCache::getRemoteHits)
+                    .tags("cache", name, "result", "hit", "level", "remote")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", cache, TwoLevelCache::getMisses)
+                    .tags("cache", name, "result", "miss")
+                    .register(registry);
+            Gauge.builder("cache.size", cache, c -> c.getLocalCache().estimatedSize())
+                    .tags("cache", name, "level", "local")
+                    .register(registry);
+        }
+
+        Gauge.builder("cache.feed.generation", feedGeneration, FeedGeneration::current)
+                .description("Current feed cache generation, every item write or sale moves it forward")
+                .register(registry);
+        FunctionCounter.builder("cache.feed.invalidations", feedGeneration, FeedGeneration::getBumps)
+                .description("Feed cache invalidations triggered by this node")
+                .register(registry);
+    }
+}
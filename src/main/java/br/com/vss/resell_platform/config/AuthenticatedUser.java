@@ -0,0 +1,25 @@
+package br.com.vss.resell_platform.config;
+
+import org.springframework.security.core.Authentication;
+
+import java.security.Principal;
+
+/**
+ * Who is calling, as far as the controllers need to know. Built from the token claims for JWT requests
+ * and from the loaded user for HTTP Basic, so neither path has to query the user again.
+ */
+public record AuthenticatedUser(Long id, String username) implements Principal {
+
+    public static AuthenticatedUser from(Authentication authentication) {
+        return switch (authentication.getPrincipal()) {
+            case AuthenticatedUser user -> user;
+            case UserPrincipal principal -> new AuthenticatedUser(principal.getUser().getId(), principal.getUsername());
+            default -> throw new IllegalStateException("Unsupported principal: " + authentication.getPrincipal());
+        };
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
@@ -0,0 +1,113 @@
+package br.com.vss.resell_platform.config;
+
+import br.com.vss.resell_platform.cache.CacheInvalidationPublisher;
+import br.com.vss.resell_platform.cache.CompactCacheValueSerializer;
+import br.com.vss.resell_platform.cache.FeedGeneration;
+import br.com.vss.resell_platform.cache.FeedKeyGenerator;
+import br.com.vss.resell_platform.cache.IdempotencyStore;
+import br.com.vss.resell_platform.cache.TwoLevelCacheManager;
+import br.com.vss.resell_platform.cache.TwoLevelCacheMetrics;
+import br.com.vss.resell_platform.service.DictionaryService;
+import br.com.vss.resell_platform.service.IndexSyncService;
+import br.com.vss.resell_platform.util.CacheCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public CacheInvalidationPublisher cacheInvalidationPublisher(RedisTemplate<String, Object> redisTemplate,
+                                                                 @Value("${cache.invalidation.channel:cache-invalidation}") String channel) {
+        return new CacheInvalidationPublisher(redisTemplate, channel);
+    }
+
+    @Bean
+    public FeedGeneration feedGeneration(RedisTemplate<String, Object> redisTemplate,
+                                         @Value("${cache.feed-generation.channel:feed-generation}") String channel) {
+        return new FeedGeneration(redisTemplate, channel);
+    }
+
+    @Bean
+    public FeedKeyGenerator feedKeyGenerator(FeedGeneration feedGeneration) {
+        return new FeedKeyGenerator(feedGeneration);
+    }
+
+    @Bean
+    public IdempotencyStore idempotencyStore(RedisTemplate<String, Object> redisTemplate,
+                                             @Value("${idempotency.fallback.maximum-size:100000}") long maximumSize,
+                                             @Value("${idempotency.ttl:24h}") Duration ttl) {
+        return new IdempotencyStore(redisTemplate, maximumSize, ttl);
+    }
+
+    @Bean
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                             CacheInvalidationPublisher publisher,
+                                             @Value("${cache.ttl.items:10m}") Duration itemsTtl,
+                                             @Value("${cache.ttl.feed-pages:5m}") Duration feedPagesTtl,
+                                             @Value("${cache.ttl.feed-counts:60s}") Duration feedCountsTtl,
+                                             @Value("${cache.ttl.feed-facets:60s}") Duration feedFacetsTtl,
+                                             @Value("${cache.codec:binary}") CacheCodec codec,
+                                             @Value("${cache.local.maximum-weight:10000}") long maximumWeight,
+                                             @Value("${cache.local.expire-after-write:30s}") Duration expireAfterWrite,
+                                             DictionaryService dictionaryService) {
+        RedisCacheConfiguration defaults = RedisCacheConfiguration.defaultCacheConfig()
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(valueSerializer(codec, dictionaryService)));
+
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(defaults)
+                .withCacheConfiguration("Items", defaults.entryTtl(itemsTtl))
+                .withCacheConfiguration("FeedPages", defaults.entryTtl(feedPagesTtl))
+                .withCacheConfiguration("FeedCounts", defaults.entryTtl(feedCountsTtl))
+                .withCacheConfiguration("FeedFacets", defaults.entryTtl(feedFacetsTtl))
+                .build();
+        redisCacheManager.afterPropertiesSet();
+
+        return new TwoLevelCacheManager(redisCacheManager, publisher, maximumWeight, expireAfterWrite);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                           TwoLevelCacheManager cacheManager,
+                                                                           CacheInvalidationPublisher publisher,
+                                                                           FeedGeneration feedGeneration,
+                                                                           CachingAuthenticationProvider authenticationProvider,
+                                                                           IndexSyncService indexSyncService) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        // one thread in arrival order: a writer publishes its index change before it bumps the generation, so another
+        // node has applied the change by the time it keys feed pages with the new generation and caches what its
+        // index answers for everyone
+        container.setTaskExecutor(Executors.newSingleThreadExecutor(Thread.ofPlatform().name("cache-messages").daemon().factory()));
+        container.addMessageListener(cacheManager, new ChannelTopic(publisher.getChannel()));
+        container.addMessageListener(feedGeneration, new ChannelTopic(feedGeneration.getChannel()));
+        container.addMessageListener(authenticationProvider, new ChannelTopic(authenticationProvider.getChannel()));
+        container.addMessageListener(indexSyncService, new ChannelTopic(indexSyncService.getChannel()));
+        return container;
+    }
+
+    @Bean
+    public TwoLevelCacheMetrics twoLevelCacheMetrics(TwoLevelCacheManager cacheManager, FeedGeneration feedGeneration) {
+        return new TwoLevelCacheMetrics(cacheManager, feedGeneration);
+    }
+
+    private RedisSerializer<Object> valueSerializer(CacheCodec codec, DictionaryService dictionaryService) {
+        return switch (codec) {
+            case JDK -> new JdkSerializationRedisSerializer();
+            case BINARY -> new CompactCacheValueSerializer(dictionaryService);
+        };
+    }
+}
@@ -0,0 +1,127 @@
+package br.com.vss.resell_platform.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Remembers successful HTTP Basic logins for a short while so BCrypt and the user lookup only run once per TTL.
+ * Entries are keyed by an HMAC of username and password under a per-process random key, so the cache never
+ * holds anything a leaked heap dump could turn back into a password. Failed logins are never cached.
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider, MessageListener {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final AuthenticationProvider delegate;
+    private final Cache<String, Authentication> cache;
+    private final Mac mac;
+    private final Timer verifications;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final String channel;
+
+    public CachingAuthenticationProvider(AuthenticationProvider delegate, long maximumSize, Duration ttl,
+                                         MeterRegistry meterRegistry, RedisTemplate<String, Object> redisTemplate,
+                                         String channel) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.mac = newMac();
+        this.verifications = Timer.builder("auth.basic.verifications")
+                .description("Full credential checks (user lookup and BCrypt) behind the credential cache")
+                .register(meterRegistry);
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "BasicCredentials");
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String key = key(authentication.getName(), String.valueOf(authentication.getCredentials()));
+
+        Authentication cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return copy(cached);
+        }
+
+        Authentication result = verifications.record(() -> delegate.authenticate(authentication));
+        if (result != null && result.isAuthenticated()) {
+            cache.put(key, copy(result));
+        }
+        return result;
+    }
+
+    // the ProviderManager erases credentials and attaches request details to what it gets back, so no request may
+    // be handed the cached instance
+    private static Authentication copy(Authentication authentication) {
+        return UsernamePasswordAuthenticationToken.authenticated(authentication.getPrincipal(), null,
+                authentication.getAuthorities());
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication);
+    }
+
+    public void invalidate(String username) {
+        evict(username);
+        redisTemplate.convertAndSend(channel, username);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        evict(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    private void evict(String username) {
+        cache.asMap().values().removeIf(authentication -> authentication.getName().equals(username));
+    }
+
+    private String key(String username, String password) {
+        try {
+            Mac keyed = (Mac) mac.clone();
+            keyed.update(username.getBytes(StandardCharsets.UTF_8));
+            keyed.update((byte) 0);
+            return Base64.getEncoder().encodeToString(keyed.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Mac newMac() {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret, ALGORITHM));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package br.com.vss.resell_platform.config;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+import java.util.Collection;
+
+public class ClaimsAuthenticationConverter implements Converter<Jwt, AbstractAuthenticationToken> {
+
+    public static final String USER_ID_CLAIM = "uid";
+
+    private final JwtGrantedAuthoritiesConverter authoritiesConverter = new JwtGrantedAuthoritiesConverter();
+    private final UserDetailsService userDetailsService;
+
+    public ClaimsAuthenticationConverter(UserDetailsService userDetailsService) {
+        this.userDetailsService = userDetailsService;
+    }
+
+    @Override
+    public AbstractAuthenticationToken convert(Jwt jwt) {
+        Collection<GrantedAuthority> authorities = authoritiesConverter.convert(jwt);
+        return UsernamePasswordAuthenticationToken.authenticated(principal(jwt), jwt, authorities);
+    }
+
+    private AuthenticatedUser principal(Jwt jwt) {
+        Number id = jwt.getClaim(USER_ID_CLAIM);
+        if (id != null) {
+            return new AuthenticatedUser(id.longValue(), jwt.getSubject());
+        }
+
+        // tokens issued before the user id claim existed carry only the subject
+        UserPrincipal principal = (UserPrincipal) userDetailsService.loadUserByUsername(jwt.getSubject());
+        return new AuthenticatedUser(principal.getUser().getId(), principal.getUsername());
+    }
+}
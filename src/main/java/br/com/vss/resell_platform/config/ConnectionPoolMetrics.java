@@ -0,0 +1,39 @@
+package br.com.vss.resell_platform.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+// hikaricp.* already reports raw counts, these are the ratios an alert can use without knowing the pool size
+public class ConnectionPoolMetrics implements MeterBinder {
+
+    private final HikariDataSource dataSource;
+
+    public ConnectionPoolMetrics(HikariDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("hikaricp.connections.saturation", this, ConnectionPoolMetrics::saturation)
+                .description("Share of the maximum pool size currently lent out")
+                .tag("pool", dataSource.getPoolName())
+                .register(registry);
+        Gauge.builder("hikaricp.connections.queue", this, ConnectionPoolMetrics::queue)
+                .description("Threads waiting for a connection per connection in the pool")
+                .tag("pool", dataSource.getPoolName())
+                .register(registry);
+    }
+
+    double saturation() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return pool == null ? Double.NaN : (double) pool.getActiveConnections() / dataSource.getMaximumPoolSize();
+    }
+
+    double queue() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return pool == null ? Double.NaN : (double) pool.getThreadsAwaitingConnection() / dataSource.getMaximumPoolSize();
+    }
+}
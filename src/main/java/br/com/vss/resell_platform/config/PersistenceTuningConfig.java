@@ -0,0 +1,101 @@
+package br.com.vss.resell_platform.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.query.criteria.ValueHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.sql.DataSource;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+@Configuration
+public class PersistenceTuningConfig {
+
+    public static final String USERS_REGION = "users";
+    public static final String DICTIONARY_REGION = "dictionary";
+
+    // Item is left out: its inverse @OneToOne to Transaction costs a select on every load, cached or not
+    private static final List<String> REGIONS = List.of(USERS_REGION);
+
+    @Value("${persistence.second-level-cache.enabled:true}")
+    private boolean secondLevelCacheEnabled;
+    @Value("${persistence.second-level-cache.maximum-size:10000}")
+    private long secondLevelCacheMaximumSize;
+    @Value("${persistence.second-level-cache.ttl:30s}")
+    private Duration secondLevelCacheTtl;
+    @Value("${persistence.query-plan-cache.maximum-size:512}")
+    private int queryPlanCacheMaximumSize;
+    @Value("${persistence.statistics.enabled:true}")
+    private boolean statisticsEnabled;
+    @Value("${persistence.sql-log.sample-rate:0}")
+    private double sqlLogSampleRate;
+
+    @Bean
+    public HibernatePropertiesCustomizer persistenceTuningCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.QUERY_PLAN_CACHE_MAX_SIZE, queryPlanCacheMaximumSize);
+            // feed filters always bind their values, so every combination keeps one SQL text the driver can keep prepared
+            properties.put(AvailableSettings.CRITERIA_VALUE_HANDLING_MODE, ValueHandlingMode.BIND);
+            properties.put(AvailableSettings.IN_CLAUSE_PARAMETER_PADDING, true);
+            // read by the actuator's hibernate.* metrics
+            properties.put(AvailableSettings.GENERATE_STATISTICS, statisticsEnabled);
+            if (sqlLogSampleRate > 0) {
+                properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SampledSqlLogger(sqlLogSampleRate));
+            }
+
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, secondLevelCacheEnabled);
+            if (secondLevelCacheEnabled) {
+                properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+                properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager());
+                properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+                // brands and sizes are immutable, every session gets the one cached instance instead of a copy
+                properties.put(AvailableSettings.USE_DIRECT_REFERENCE_CACHE_ENTRIES, true);
+            }
+        };
+    }
+
+    // spring.jpa.show-sql can still arrive from the environment, which outranks application-prod.properties
+    @Bean
+    @Profile("prod")
+    public HibernatePropertiesCustomizer noStatementEchoCustomizer() {
+        return properties -> properties.put(AvailableSettings.SHOW_SQL, false);
+    }
+
+    @Bean
+    public MeterBinder connectionPoolMetrics(DataSource dataSource) {
+        return dataSource instanceof HikariDataSource hikari ? new ConnectionPoolMetrics(hikari) : registry -> { };
+    }
+
+    // regions are local to each node and nothing invalidates them across nodes, so they are short lived and
+    // the entities in them carry @Version: a stale copy can only fail a write, never overwrite a newer row
+    private CacheManager secondLevelCacheManager() {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>()
+                .setMaximumSize(OptionalLong.of(secondLevelCacheMaximumSize))
+                .setExpireAfterWrite(OptionalLong.of(secondLevelCacheTtl.toNanos()))
+                .setStatisticsEnabled(true);
+        REGIONS.forEach(region -> cacheManager.createCache(region, configuration));
+        // dictionary rows are never updated or deleted, they only leave to make room
+        cacheManager.createCache(DICTIONARY_REGION, new CaffeineConfiguration<>()
+                .setMaximumSize(OptionalLong.of(secondLevelCacheMaximumSize))
+                .setStatisticsEnabled(true));
+
+        return cacheManager;
+    }
+}
@@ -0,0 +1,30 @@
+package br.com.vss.resell_platform.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// logs a random share of the SQL Hibernate sends instead of every statement, show-sql stays off in production
+public class SampledSqlLogger implements StatementInspector {
+
+    private static final Logger log = LoggerFactory.getLogger("sql.sampled");
+
+    private final double sampleRate;
+
+    public SampledSqlLogger(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            log.atInfo()
+                    .addKeyValue("sql", sql)
+                    .addKeyValue("sampleRate", sampleRate)
+                    .log("sampled statement");
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,45 @@
+package br.com.vss.resell_platform.config;
+
+import br.com.vss.resell_platform.search.FeedIndex;
+import br.com.vss.resell_platform.search.FeedIndexMetrics;
+import br.com.vss.resell_platform.search.SuggestIndex;
+import br.com.vss.resell_platform.search.SuggestIndexMetrics;
+import br.com.vss.resell_platform.search.TextIndex;
+import br.com.vss.resell_platform.search.TextIndexMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SearchConfig {
+
+    @Bean
+    public FeedIndex feedIndex(@Value("${feed.index.compaction-threshold:4096}") int compactionThreshold) {
+        return new FeedIndex(compactionThreshold);
+    }
+
+    @Bean
+    public FeedIndexMetrics feedIndexMetrics(FeedIndex feedIndex) {
+        return new FeedIndexMetrics(feedIndex);
+    }
+
+    @Bean
+    public TextIndex textIndex(@Value("${search.text.compaction-threshold:4096}") int compactionThreshold) {
+        return new TextIndex(compactionThreshold);
+    }
+
+    @Bean
+    public TextIndexMetrics textIndexMetrics(TextIndex textIndex) {
+        return new TextIndexMetrics(textIndex);
+    }
+
+    @Bean
+    public SuggestIndex suggestIndex(@Value("${search.suggest.max-phrases:200000}") int maxPhrases) {
+        return new SuggestIndex(maxPhrases);
+    }
+
+    @Bean
+    public SuggestIndexMetrics suggestIndexMetrics(SuggestIndex suggestIndex) {
+        return new SuggestIndexMetrics(suggestIndex);
+    }
+}
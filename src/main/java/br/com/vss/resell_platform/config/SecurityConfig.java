@@ -4,9 +4,11 @@ import br.com.vss.resell_platform.service.UserDetailsServiceImpl;
 import com.nimbusds.jose.jwk.JWKSet;
 import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
@@ -21,6 +23,7 @@ import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
 
 @Configuration
 @EnableWebSecurity
@@ -31,6 +34,12 @@ public class SecurityConfig {
     private RSAPublicKey publicKey;
     @Value("${jwt.private.key}")
     private RSAPrivateKey privateKey;
+    @Value("${jwt.decoder.cache.enabled:true}")
+    private boolean decoderCacheEnabled;
+    @Value("${jwt.decoder.cache.maximum-size:100000}")
+    private long decoderCacheMaximumSize;
+    @Value("${jwt.decoder.cache.maximum-ttl:1h}")
+    private Duration decoderCacheMaximumTtl;
 
     private final UserDetailsServiceImpl userDetailsService;
 
@@ -43,17 +52,21 @@ public class SecurityConfig {
     SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http.csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(
-                auth -> auth.requestMatchers("/register", "/feed").permitAll()
+                auth -> auth.requestMatchers("/register", "/feed", "/suggest", "/actuator/health").permitAll()
                         .anyRequest().authenticated())
                 .httpBasic(Customizer.withDefaults())
                 .oauth2ResourceServer(
-                        conf -> conf.jwt(Customizer.withDefaults()));
+                        conf -> conf.jwt(jwt -> jwt.jwtAuthenticationConverter(new ClaimsAuthenticationConverter(userDetailsService))));
         return http.build();
     }
 
     @Bean
     JwtDecoder jwtDecoder() {
-        return NimbusJwtDecoder.withPublicKey(publicKey).build();
+        JwtDecoder decoder = NimbusJwtDecoder.withPublicKey(publicKey).build();
+        if (!decoderCacheEnabled) {
+            return decoder;
+        }
+        return new CachingJwtDecoder(decoder, decoderCacheMaximumSize, decoderCacheMaximumTtl);
     }
 
     @Bean
@@ -70,11 +83,15 @@ public class SecurityConfig {
 
 
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public CachingAuthenticationProvider authenticationProvider(MeterRegistry meterRegistry,
+                                                                RedisTemplate<String, Object> redisTemplate,
+                                                                @Value("${auth.cache.maximum-size:10000}") long maximumSize,
+                                                                @Value("${auth.cache.ttl:60s}") Duration ttl,
+                                                                @Value("${auth.cache.invalidation.channel:credential-invalidation}") String channel) {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setPasswordEncoder(passwordEncoder());
         provider.setUserDetailsService(userDetailsService);
-        return provider;
+        return new CachingAuthenticationProvider(provider, maximumSize, ttl, meterRegistry, redisTemplate, channel);
     }
 
 }
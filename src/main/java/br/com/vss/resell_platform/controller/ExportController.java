@@ -0,0 +1,50 @@
+package br.com.vss.resell_platform.controller;
+
+import br.com.vss.resell_platform.config.AuthenticatedUser;
+import br.com.vss.resell_platform.service.ExportService;
+import br.com.vss.resell_platform.util.ExportFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+public class ExportController {
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping("/export/listings")
+    public ResponseEntity<StreamingResponseBody> exportListings(Authentication authentication,
+                                                                @RequestParam(defaultValue = "CSV") ExportFormat format) {
+
+        Long sellerId = AuthenticatedUser.from(authentication).id();
+
+        return attachment("listings", format).body(out -> exportService.exportListings(sellerId, format, out));
+    }
+
+    @GetMapping("/export/sales")
+    public ResponseEntity<StreamingResponseBody> exportSales(Authentication authentication,
+                                                             @RequestParam(defaultValue = "CSV") ExportFormat format) {
+
+        Long sellerId = AuthenticatedUser.from(authentication).id();
+
+        return attachment("sales", format).body(out -> exportService.exportSales(sellerId, format, out));
+    }
+
+    private static ResponseEntity.BodyBuilder attachment(String name, ExportFormat format) {
+        String filename = name + "." + format.name().toLowerCase();
+
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString());
+    }
+}
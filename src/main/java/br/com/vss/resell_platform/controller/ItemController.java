@@ -1,17 +1,26 @@
 package br.com.vss.resell_platform.controller;
 
+import br.com.vss.resell_platform.config.AuthenticatedUser;
 import br.com.vss.resell_platform.controller.dto.FeedDto;
+import br.com.vss.resell_platform.controller.dto.FeedFacetsDto;
 import br.com.vss.resell_platform.controller.dto.FeedItemDto;
+import br.com.vss.resell_platform.controller.dto.ImportReportDto;
 import br.com.vss.resell_platform.controller.dto.ItemRequest;
+import br.com.vss.resell_platform.controller.dto.SuggestionDto;
 import br.com.vss.resell_platform.exceptions.InvalidOwnerException;
 import br.com.vss.resell_platform.mapper.ItemMapper;
 import br.com.vss.resell_platform.model.Item;
+import br.com.vss.resell_platform.model.Size;
 import br.com.vss.resell_platform.model.User;
+import br.com.vss.resell_platform.service.IdempotencyService;
+import br.com.vss.resell_platform.service.ItemImportService;
 import br.com.vss.resell_platform.service.ItemService;
+import br.com.vss.resell_platform.service.SuggestService;
 import br.com.vss.resell_platform.service.TransactionService;
 import br.com.vss.resell_platform.service.UserService;
 import br.com.vss.resell_platform.util.Category;
 import br.com.vss.resell_platform.util.Condition;
+import br.com.vss.resell_platform.util.FeedCursor;
 import br.com.vss.resell_platform.util.SubCategory;
 import jakarta.validation.Valid;
 import org.springframework.cache.annotation.Cacheable;
@@ -19,13 +28,16 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
 
 @RestController
 public class ItemController {
@@ -34,38 +46,55 @@ public class ItemController {
     private final ItemMapper itemMapper;
     private final UserService userService;
     private final TransactionService transactionService;
+    private final IdempotencyService idempotencyService;
+    private final ItemImportService itemImportService;
+    private final SuggestService suggestService;
 
-    public ItemController(ItemService itemService, ItemMapper itemMapper, UserService userService, TransactionService transactionService) {
+    public ItemController(ItemService itemService, ItemMapper itemMapper, UserService userService, TransactionService transactionService,
+                          IdempotencyService idempotencyService, ItemImportService itemImportService,
+                          SuggestService suggestService) {
         this.itemService = itemService;
         this.itemMapper = itemMapper;
         this.userService = userService;
         this.transactionService = transactionService;
+        this.idempotencyService = idempotencyService;
+        this.itemImportService = itemImportService;
+        this.suggestService = suggestService;
     }
 
     @PostMapping("/items")
     public ResponseEntity<Void> postItem(Authentication authentication, @RequestBody ItemRequest itemRequest) {
 
-        Optional<User> user = userService.findByUsername(authentication.getName());
+        User user = userService.getReference(AuthenticatedUser.from(authentication).id());
 
-        Item newItem = itemMapper.toItem(itemRequest, user.get());
+        Item newItem = itemMapper.toItem(itemRequest, user);
         itemService.save(newItem);
 
         return ResponseEntity.status(HttpStatus.OK).build();
 
     }
 
+    @PostMapping(value = "/items/bulk", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<ImportReportDto> importItems(Authentication authentication, InputStream body) throws IOException {
+
+        var report = itemImportService.importItems(body, AuthenticatedUser.from(authentication).id());
+
+        return ResponseEntity.status(HttpStatus.OK).body(report);
+    }
+
     @PutMapping("/items/{id}")
     public ResponseEntity<Void> editItem(Authentication authentication, @Valid @RequestBody ItemRequest itemRequest,
                                         @PathVariable Long id) {
 
-        var item = itemService.findById(id).get();
+        var summary = itemService.findSummary(id);
 
-        if (Objects.equals(item.getSeller().getUsername(), authentication.getName())) {
+        if (Objects.equals(summary.sellerId(), AuthenticatedUser.from(authentication).id())) {
+            var item = itemService.findById(id).get();
             item.setName(itemRequest.name());
-            item.setBrand(itemRequest.brand());
+            item.setBrand(itemMapper.toBrand(itemRequest));
             item.setCondition(itemRequest.condition());
             item.setPrice(itemRequest.price());
-            item.setSize(itemRequest.size());
+            item.setSize(itemMapper.toSize(itemRequest));
 
             itemService.save(item);
             return ResponseEntity.status(HttpStatus.OK).build();
@@ -77,9 +106,9 @@ public class ItemController {
     @DeleteMapping("/items/{id}")
     public ResponseEntity<Void> deleteItem(Authentication authentication, @PathVariable Long id) {
 
-        var item = itemService.findById(id).get();
+        var summary = itemService.findSummary(id);
 
-        if (Objects.equals(item.getSeller().getUsername(), authentication.getName())) {
+        if (Objects.equals(summary.sellerId(), AuthenticatedUser.from(authentication).id())) {
             itemService.delete(id);
             return ResponseEntity.status(HttpStatus.OK).build();
         }
@@ -88,12 +117,13 @@ public class ItemController {
     }
 
     @PostMapping("/item/{id}/buy")
-    public ResponseEntity<Void> purchaseItem(Authentication authentication, @PathVariable Long id) {
+    public ResponseEntity<Void> purchaseItem(Authentication authentication, @PathVariable Long id,
+                                             @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
 
-        var item = itemService.findById(id).get();
-        Optional<User> buyer = userService.findByUsername(authentication.getName());
+        Long buyerId = AuthenticatedUser.from(authentication).id();
+        User buyer = userService.getReference(buyerId);
 
-        transactionService.purchaseItem(buyer.get(), item.getSeller(), item);
+        idempotencyService.execute("buy:" + buyerId + ":" + id, idempotencyKey, () -> transactionService.purchaseItem(buyer, id));
 
         return ResponseEntity.status(HttpStatus.OK).build();
     }
@@ -140,26 +170,55 @@ public class ItemController {
                                           @RequestParam (required = false, defaultValue = "999999") BigDecimal highest,
                                           @RequestParam (required = false) String size,
                                           @RequestParam(value = "page", defaultValue = "0")int page,
-                                          @RequestParam(value = "pageSize", defaultValue = "10")int pageSize) {
+                                          @RequestParam(value = "pageSize", defaultValue = "10")int pageSize,
+                                          @RequestParam (required = false) String cursor,
+                                          @RequestParam(value = "count", defaultValue = "exact") String count,
+                                          @RequestParam(value = "facets", defaultValue = "false") boolean facets) {
+
+        // "m", "M" and "Medium" are one size and share their cached pages
+        size = Size.canonical(size);
+
+        FeedFacetsDto feedFacets = facets
+                ? itemService.findFacets(name, brand, category, subCategory, condition, lowest, highest, size)
+                : null;
+
+        if (cursor != null) {
+            SerializablePage<FeedItemDto> serializablePage = itemService.findFilteredAfter(FeedCursor.decode(cursor), pageSize,
+                    name, brand, category, subCategory, condition, lowest, highest, size);
+
+            return ResponseEntity.status(HttpStatus.OK).body(toFeed(serializablePage, 0, pageSize, feedFacets));
+        }
+
+        if ("none".equalsIgnoreCase(count)) {
+            SerializablePage<FeedItemDto> serializablePage = itemService.findFilteredSlice(PageRequest.of(page, pageSize, ItemService.FEED_SORT),
+                    name, brand, category, subCategory, condition, lowest, highest, size);
 
-        SerializablePage<Item> serializablePage = itemService.findFiltered(PageRequest.of(page, pageSize, Sort.Direction.DESC, "listedAt"),
+            return ResponseEntity.status(HttpStatus.OK).body(toFeed(serializablePage, page, pageSize, feedFacets));
+        }
+
+        SerializablePage<FeedItemDto> serializablePage = itemService.findFiltered(PageRequest.of(page, pageSize, ItemService.FEED_SORT),
                         name, brand, category, subCategory, condition, lowest, highest, size);
 
-        Page<Item> itemPage = serializablePage.toPage(PageRequest.of(page, pageSize, Sort.Direction.DESC, "listedAt"));
-
-        var listings = itemPage
-                .map(item ->
-                        new FeedItemDto(
-                                item.getName(),
-                                item.getBrand(),
-                                item.getCategory(),
-                                item.getSubCategory(),
-                                item.getCondition(),
-                                item.getPrice(),
-                                item.getSize(),
-                                item.getSeller().getUsername()));
-
-        return ResponseEntity.status(HttpStatus.OK).body(new FeedDto(listings.toList(), page, pageSize, listings.getTotalElements()));
+        return ResponseEntity.status(HttpStatus.OK).body(toFeed(serializablePage, page, pageSize, feedFacets));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDto>> suggest(@RequestParam String prefix,
+                                                       @RequestParam(value = "limit", defaultValue = "10") int limit) {
+
+        return ResponseEntity.status(HttpStatus.OK).body(suggestService.suggest(prefix, limit));
+    }
+
+    private FeedDto toFeed(SerializablePage<FeedItemDto> serializablePage, int page, int pageSize, FeedFacetsDto facets) {
+        List<FeedItemDto> items = serializablePage.getContent();
+
+        FeedCursor.Order order = serializablePage.isRanked() ? FeedCursor.Order.RELEVANCE : FeedCursor.Order.FEED;
+        String nextCursor = serializablePage.isHasNext() && !items.isEmpty()
+                ? FeedCursor.of(items.getLast(), order).encode()
+                : null;
+        Long totalElements = serializablePage.isCounted() ? serializablePage.getTotalElements() : null;
+
+        return new FeedDto(items, page, pageSize, totalElements, nextCursor, facets);
     }
 
 }
@@ -3,8 +3,11 @@ package br.com.vss.resell_platform.controller;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
 
 public class SerializablePage<T> implements Serializable {
@@ -18,6 +21,12 @@ public class SerializablePage<T> implements Serializable {
     private boolean last;
     private boolean hasNext;
     private boolean hasPrevious;
+    private boolean counted;
+    // ranked by relevance instead of listed in feed order
+    private boolean ranked;
+
+    public SerializablePage() {
+    }
 
     public SerializablePage(Page<T> page) {
         this.content = page.getContent();
@@ -29,12 +38,30 @@ public class SerializablePage<T> implements Serializable {
         this.last = page.isLast();
         this.hasNext = page.hasNext();
         this.hasPrevious = page.hasPrevious();
+        this.counted = true;
+    }
+
+    public SerializablePage(Slice<T> slice) {
+        this.content = new ArrayList<>(slice.getContent());
+        this.totalPages = -1;
+        this.totalElements = -1;
+        this.number = slice.getNumber();
+        this.size = slice.getSize();
+        this.first = slice.isFirst();
+        this.last = slice.isLast();
+        this.hasNext = slice.hasNext();
+        this.hasPrevious = slice.hasPrevious();
+        this.counted = false;
     }
 
     public Page<T> toPage(Pageable pageable) {
         return new PageImpl<>(content, pageable, totalElements);
     }
 
+    public Slice<T> toSlice(Pageable pageable) {
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
     public List<T> getContent() {
         return content;
     }
@@ -106,4 +133,20 @@ public class SerializablePage<T> implements Serializable {
     public void setHasPrevious(boolean hasPrevious) {
         this.hasPrevious = hasPrevious;
     }
+
+    public boolean isCounted() {
+        return counted;
+    }
+
+    public void setCounted(boolean counted) {
+        this.counted = counted;
+    }
+
+    public boolean isRanked() {
+        return ranked;
+    }
+
+    public void setRanked(boolean ranked) {
+        this.ranked = ranked;
+    }
 }
@@ -1,14 +1,21 @@
 package br.com.vss.resell_platform.controller;
 
+import br.com.vss.resell_platform.config.AuthenticatedUser;
+import br.com.vss.resell_platform.controller.dto.BalanceDto;
+import br.com.vss.resell_platform.controller.dto.PasswordRequest;
 import br.com.vss.resell_platform.controller.dto.UserRequest;
 import br.com.vss.resell_platform.mapper.UserMapper;
 import br.com.vss.resell_platform.model.User;
+import br.com.vss.resell_platform.service.LedgerService;
 import br.com.vss.resell_platform.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -19,11 +26,14 @@ public class UserController {
     private final UserService userService;
     private final UserMapper userMapper;
     private final BCryptPasswordEncoder passwordEncoder;
+    private final LedgerService ledgerService;
 
-    public UserController(UserService userService, UserMapper userMapper, BCryptPasswordEncoder passwordEncoder) {
+    public UserController(UserService userService, UserMapper userMapper, BCryptPasswordEncoder passwordEncoder,
+                          LedgerService ledgerService) {
         this.userService = userService;
         this.userMapper = userMapper;
         this.passwordEncoder = passwordEncoder;
+        this.ledgerService = ledgerService;
     }
 
     @PostMapping("/register")
@@ -35,4 +45,20 @@ public class UserController {
 
         return ResponseEntity.status(HttpStatus.OK).build();
     }
+
+    @PutMapping("/password")
+    public ResponseEntity<Void> changePassword(Authentication authentication, @Valid @RequestBody PasswordRequest passwordRequest) {
+
+        userService.changePassword(authentication.getName(), passwordEncoder.encode(passwordRequest.password()));
+
+        return ResponseEntity.status(HttpStatus.OK).build();
+    }
+
+    @GetMapping("/balance")
+    public ResponseEntity<BalanceDto> balance(Authentication authentication) {
+
+        BalanceDto balance = ledgerService.balance(AuthenticatedUser.from(authentication).id());
+
+        return ResponseEntity.status(HttpStatus.OK).body(balance);
+    }
 }
@@ -0,0 +1,12 @@
+package br.com.vss.resell_platform.controller.dto;
+
+import java.math.BigDecimal;
+
+public record BalanceDto(BigDecimal settled,
+                         BigDecimal pending,
+                         BigDecimal total) {
+
+    public BalanceDto(BigDecimal settled, BigDecimal pending) {
+        this(settled, pending, settled.add(pending));
+    }
+}
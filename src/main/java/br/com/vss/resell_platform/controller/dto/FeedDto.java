@@ -6,5 +6,7 @@ import java.util.List;
 public record FeedDto(List<FeedItemDto> feedItems,
                       int page,
                       int pageSize,
-                      Long totalElements) implements Serializable {
+                      Long totalElements,
+                      String nextCursor,
+                      FeedFacetsDto facets) implements Serializable {
 }
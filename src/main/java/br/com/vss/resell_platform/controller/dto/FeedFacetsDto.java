@@ -0,0 +1,16 @@
+package br.com.vss.resell_platform.controller.dto;
+
+import br.com.vss.resell_platform.util.Category;
+import br.com.vss.resell_platform.util.Condition;
+import br.com.vss.resell_platform.util.SubCategory;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+public record FeedFacetsDto(Map<Category, Long> categories,
+                            Map<SubCategory, Long> subCategories,
+                            Map<Condition, Long> conditions,
+                            Map<String, Long> sizes,
+                            List<PriceFacetDto> prices) implements Serializable {
+}
@@ -6,13 +6,16 @@ import br.com.vss.resell_platform.util.SubCategory;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
-public record FeedItemDto(String name,
+public record FeedItemDto(Long id,
+                          String name,
                           String brand,
                           Category category,
                           SubCategory subCategory,
                           Condition condition,
                           BigDecimal price,
                           String size,
-                          String sellerUsername) implements Serializable {
+                          String sellerUsername,
+                          LocalDateTime listedAt) implements Serializable {
 }
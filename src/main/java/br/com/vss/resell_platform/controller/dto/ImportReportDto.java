@@ -0,0 +1,9 @@
+package br.com.vss.resell_platform.controller.dto;
+
+import java.util.List;
+
+public record ImportReportDto(int received,
+                              int imported,
+                              int failed,
+                              List<ImportRowErrorDto> errors) {
+}
@@ -0,0 +1,7 @@
+package br.com.vss.resell_platform.controller.dto;
+
+import java.util.List;
+
+public record ImportRowErrorDto(int row,
+                                List<String> messages) {
+}
@@ -6,13 +6,16 @@ import br.com.vss.resell_platform.util.SubCategory;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 import java.math.BigDecimal;
 
 public record ItemRequest (
         @NotNull(message = "Title cant be empty.")
         @NotBlank(message = "Title cant be blank.")
+        @Size(max = 255, message = "Title cant be longer than 255 characters.")
         String name,
+        @Size(max = 255, message = "Brand cant be longer than 255 characters.")
         String brand,
         Category category,
         SubCategory subCategory,
@@ -0,0 +1,15 @@
+package br.com.vss.resell_platform.controller.dto;
+
+import br.com.vss.resell_platform.model.Item;
+import br.com.vss.resell_platform.util.ItemStatus;
+
+import java.io.Serializable;
+
+public record ItemSummaryDto(Long id,
+                             Long sellerId,
+                             ItemStatus status) implements Serializable {
+
+    public static ItemSummaryDto of(Item item) {
+        return new ItemSummaryDto(item.getId(), item.getSeller().getId(), item.getStatus());
+    }
+}
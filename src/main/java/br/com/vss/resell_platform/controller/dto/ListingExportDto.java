@@ -0,0 +1,21 @@
+package br.com.vss.resell_platform.controller.dto;
+
+import br.com.vss.resell_platform.util.Category;
+import br.com.vss.resell_platform.util.Condition;
+import br.com.vss.resell_platform.util.ItemStatus;
+import br.com.vss.resell_platform.util.SubCategory;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record ListingExportDto(Long id,
+                               String name,
+                               String brand,
+                               Category category,
+                               SubCategory subCategory,
+                               Condition condition,
+                               BigDecimal price,
+                               String size,
+                               ItemStatus status,
+                               LocalDateTime listedAt) {
+}
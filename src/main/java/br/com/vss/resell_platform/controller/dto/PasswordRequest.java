@@ -0,0 +1,13 @@
+package br.com.vss.resell_platform.controller.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public record PasswordRequest(
+        @NotBlank(message = "Password cannot be blank.")
+        @NotNull(message = "Password cannot be empty.")
+        @Size(min = 6, max = 30, message = "Password length must be between 6 and 30")
+        String password
+) {
+}
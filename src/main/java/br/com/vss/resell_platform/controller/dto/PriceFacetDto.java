@@ -0,0 +1,9 @@
+package br.com.vss.resell_platform.controller.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+public record PriceFacetDto(BigDecimal from,
+                            BigDecimal to,
+                            long count) implements Serializable {
+}
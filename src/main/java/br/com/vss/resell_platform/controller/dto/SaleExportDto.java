@@ -0,0 +1,12 @@
+package br.com.vss.resell_platform.controller.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record SaleExportDto(Long id,
+                            Long itemId,
+                            String itemName,
+                            String buyer,
+                            BigDecimal amount,
+                            LocalDateTime createdAt) {
+}
@@ -0,0 +1,7 @@
+package br.com.vss.resell_platform.controller.dto;
+
+import java.io.Serializable;
+
+public record SuggestionDto(String text,
+                            long listings) implements Serializable {
+}
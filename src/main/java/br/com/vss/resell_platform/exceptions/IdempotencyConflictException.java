@@ -0,0 +1,12 @@
+package br.com.vss.resell_platform.exceptions;
+
+public class IdempotencyConflictException extends RuntimeException {
+
+  public IdempotencyConflictException() {
+    super("A request with this Idempotency-Key is still being processed.");
+  }
+
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package br.com.vss.resell_platform.exceptions;
+
+public class InvalidCursorException extends RuntimeException {
+
+  public InvalidCursorException() {
+    super("Feed cursor is invalid.");
+  }
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package br.com.vss.resell_platform.exceptions;
+
+public class PurchaseConflictException extends RuntimeException {
+
+  public PurchaseConflictException() {
+    super("Item is being purchased by someone else, try again.");
+  }
+
+    public PurchaseConflictException(String message) {
+        super(message);
+    }
+}
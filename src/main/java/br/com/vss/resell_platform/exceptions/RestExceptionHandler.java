@@ -62,6 +62,17 @@ public class RestExceptionHandler {
         return ResponseEntity.status(status).body(errorResponse);
     }
 
+    @ExceptionHandler(UserNotFoundException.class)
+    public ResponseEntity<RestErrorMessage> userNotFoundHandler(UserNotFoundException exception) {
+
+        String errors = exception.getMessage();
+        HttpStatus status = HttpStatus.NOT_FOUND;
+
+        RestErrorMessage errorResponse = new RestErrorMessage(status, List.of(errors));
+
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+
     @ExceptionHandler(InvalidOwnerException.class)
     public ResponseEntity<RestErrorMessage> invalidOwnerHandler(InvalidOwnerException exception) {
 
@@ -84,4 +95,37 @@ public class RestExceptionHandler {
         return ResponseEntity.status(status).body(errorResponse);
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<RestErrorMessage> invalidCursorHandler(InvalidCursorException exception) {
+
+        String errors = exception.getMessage();
+        HttpStatus status = HttpStatus.BAD_REQUEST;
+
+        RestErrorMessage errorResponse = new RestErrorMessage(status, List.of(errors));
+
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+
+    @ExceptionHandler(PurchaseConflictException.class)
+    public ResponseEntity<RestErrorMessage> purchaseConflictHandler(PurchaseConflictException exception) {
+
+        String errors = exception.getMessage();
+        HttpStatus status = HttpStatus.CONFLICT;
+
+        RestErrorMessage errorResponse = new RestErrorMessage(status, List.of(errors));
+
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<RestErrorMessage> idempotencyConflictHandler(IdempotencyConflictException exception) {
+
+        String errors = exception.getMessage();
+        HttpStatus status = HttpStatus.CONFLICT;
+
+        RestErrorMessage errorResponse = new RestErrorMessage(status, List.of(errors));
+
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+
 }
@@ -0,0 +1,12 @@
+package br.com.vss.resell_platform.exceptions;
+
+public class UserNotFoundException extends RuntimeException {
+
+    public UserNotFoundException() {
+        super("User with given ID was not found.");
+    }
+
+    public UserNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -1,18 +1,34 @@
 package br.com.vss.resell_platform.mapper;
 
 import br.com.vss.resell_platform.controller.dto.ItemRequest;
+import br.com.vss.resell_platform.model.Brand;
 import br.com.vss.resell_platform.model.Item;
+import br.com.vss.resell_platform.model.Size;
 import br.com.vss.resell_platform.model.User;
+import br.com.vss.resell_platform.service.DictionaryService;
 import org.springframework.stereotype.Component;
 
 @Component
 public class ItemMapper {
 
+    private final DictionaryService dictionaryService;
+
+    public ItemMapper(DictionaryService dictionaryService) {
+        this.dictionaryService = dictionaryService;
+    }
 
     public Item toItem(ItemRequest itemRequest, User user) {
 
-        return new Item(itemRequest.name(), itemRequest.brand(), itemRequest.category(), itemRequest.subCategory(), itemRequest.condition(),
-                itemRequest.price(), itemRequest.size(), user);
+        return new Item(itemRequest.name(), toBrand(itemRequest), itemRequest.category(), itemRequest.subCategory(),
+                itemRequest.condition(), itemRequest.price(), toSize(itemRequest), user);
+    }
+
+    public Brand toBrand(ItemRequest itemRequest) {
+        return dictionaryService.brand(itemRequest.brand());
+    }
+
+    public Size toSize(ItemRequest itemRequest) {
+        return dictionaryService.size(itemRequest.size());
     }
 
 }
@@ -0,0 +1,59 @@
+package br.com.vss.resell_platform.model;
+
+import br.com.vss.resell_platform.config.PersistenceTuningConfig;
+import br.com.vss.resell_platform.search.TextNormalizer;
+import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+
+/**
+ * One entry of the brand dictionary. Items point at it instead of carrying the text, every spelling that normalizes
+ * to the same words shares the entry and the name it was first listed with.
+ */
+@Entity
+@Table(name = "TB_BRANDS")
+@Immutable
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = PersistenceTuningConfig.DICTIONARY_REGION)
+public class Brand implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tb_brands_seq")
+    @SequenceGenerator(name = "tb_brands_seq", allocationSize = 1)
+    private Integer id;
+    private String name;
+    private String normalized;
+
+    public Brand(String name) {
+        this.name = name.strip();
+        this.normalized = normalize(name);
+    }
+
+    public Brand() {
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getNormalized() {
+        return normalized;
+    }
+
+    // the words of the name in lower case without accents, so "Levi's", "LEVI'S" and "levi s" are one brand
+    public static String normalize(String name) {
+        return String.join(" ", TextNormalizer.tokens(name));
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
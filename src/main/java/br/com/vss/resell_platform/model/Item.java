@@ -9,6 +9,7 @@ import jakarta.persistence.*;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Entity
 @Table(name = "TB_ITEMS")
@@ -17,12 +18,16 @@ public class Item implements Serializable {
     @GeneratedValue(strategy = GenerationType.AUTO)
     Long id;
     String name;
-    String brand;
+    @ManyToOne
+    @JoinColumn(name = "brand_id")
+    Brand brand;
     Category category;
     SubCategory subCategory;
     Condition condition;
     BigDecimal price;
-    String size;
+    @ManyToOne
+    @JoinColumn(name = "size_id")
+    Size size;
     @ManyToOne
     @JoinColumn(name = "user_id")
     User seller;
@@ -30,8 +35,10 @@ public class Item implements Serializable {
     @OneToOne(mappedBy = "item")
     Transaction transaction;
     LocalDateTime listedAt;
+    @Version
+    Long version;
 
-    public Item(String name, String brand, Category category, SubCategory subCategory, Condition condition, BigDecimal price, String size, User seller) {
+    public Item(String name, Brand brand, Category category, SubCategory subCategory, Condition condition, BigDecimal price, Size size, User seller) {
         this.name = name;
         this.brand = brand;
         this.category = category;
@@ -41,7 +48,7 @@ public class Item implements Serializable {
         this.size = size;
         this.seller = seller;
         this.status = ItemStatus.AVAILABLE;
-        this.listedAt = LocalDateTime.now();
+        this.listedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 
     public Item(){
@@ -63,11 +70,11 @@ public class Item implements Serializable {
         this.name = name;
     }
 
-    public String getBrand() {
+    public Brand getBrand() {
         return brand;
     }
 
-    public void setBrand(String brand) {
+    public void setBrand(Brand brand) {
         this.brand = brand;
     }
 
@@ -103,11 +110,11 @@ public class Item implements Serializable {
         this.price = price;
     }
 
-    public String getSize() {
+    public Size getSize() {
         return size;
     }
 
-    public void setSize(String size) {
+    public void setSize(Size size) {
         this.size = size;
     }
 
@@ -139,15 +146,19 @@ public class Item implements Serializable {
         return listedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     @Override
     public String toString() {
         return "Item{" +
                 "id=" + id +
                 ", name='" + name + '\'' +
-                ", brand='" + brand + '\'' +
+                ", brand=" + brand +
                 ", condition=" + condition +
                 ", price=" + price +
-                ", size='" + size + '\'' +
+                ", size=" + size +
                 ", seller=" + seller +
                 ", status=" + status +
                 ", listedAt=" + listedAt +
@@ -0,0 +1,84 @@
+package br.com.vss.resell_platform.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One sale as seen by the seller's balance. Entries are written once by the purchase and only get a
+ * settledAt stamp when the ledger folds their credit into {@link User#getBalance()}.
+ */
+@Entity
+@Table(name = "TB_LEDGER_ENTRIES")
+public class LedgerEntry implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+    @Column(updatable = false)
+    private Long itemId;
+    @Column(updatable = false)
+    private Long sellerId;
+    @Column(updatable = false)
+    private Long buyerId;
+    @Column(updatable = false)
+    private BigDecimal amount;
+    @Column(updatable = false)
+    private BigDecimal commission;
+    @Column(updatable = false)
+    private BigDecimal credit;
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+    private LocalDateTime settledAt;
+
+    public LedgerEntry(Long itemId, Long sellerId, Long buyerId, BigDecimal amount, BigDecimal commission) {
+        this.itemId = itemId;
+        this.sellerId = sellerId;
+        this.buyerId = buyerId;
+        this.amount = amount;
+        this.commission = commission;
+        this.credit = amount.subtract(commission);
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public LedgerEntry() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public Long getSellerId() {
+        return sellerId;
+    }
+
+    public Long getBuyerId() {
+        return buyerId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public BigDecimal getCommission() {
+        return commission;
+    }
+
+    public BigDecimal getCredit() {
+        return credit;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getSettledAt() {
+        return settledAt;
+    }
+}
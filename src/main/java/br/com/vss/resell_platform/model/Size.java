@@ -0,0 +1,82 @@
+package br.com.vss.resell_platform.model;
+
+import br.com.vss.resell_platform.config.PersistenceTuningConfig;
+import br.com.vss.resell_platform.search.TextNormalizer;
+import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * One entry of the size dictionary, keyed by its canonical label: "m", "M" and "Medium" are all stored, filtered and
+ * faceted as "M".
+ */
+@Entity
+@Table(name = "TB_SIZES")
+@Immutable
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = PersistenceTuningConfig.DICTIONARY_REGION)
+public class Size implements Serializable {
+
+    public static final int MAX_LENGTH = 64;
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^A-Z0-9.]+");
+    private static final Pattern DECIMAL_ZEROS = Pattern.compile("^(\\d+)\\.0+$");
+    private static final Map<String, String> SYNONYMS = Map.ofEntries(
+            Map.entry("XSMALL", "XS"), Map.entry("X SMALL", "XS"), Map.entry("EXTRA SMALL", "XS"),
+            Map.entry("SMALL", "S"),
+            Map.entry("MEDIUM", "M"),
+            Map.entry("LARGE", "L"),
+            Map.entry("XLARGE", "XL"), Map.entry("X LARGE", "XL"), Map.entry("EXTRA LARGE", "XL"),
+            Map.entry("XXLARGE", "XXL"), Map.entry("2XL", "XXL"),
+            Map.entry("PEQUENO", "P"),
+            Map.entry("MEDIO", "M"),
+            Map.entry("GRANDE", "G"),
+            Map.entry("EXTRA GRANDE", "GG"),
+            Map.entry("UNICO", "U"), Map.entry("TAMANHO UNICO", "U"), Map.entry("ONE SIZE", "U"));
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tb_sizes_seq")
+    @SequenceGenerator(name = "tb_sizes_seq", allocationSize = 1)
+    private Integer id;
+    private String label;
+
+    public Size(String label) {
+        this.label = canonical(label);
+    }
+
+    public Size() {
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    // upper case words without accents, decimal commas as points and spelled out sizes as their letters, null when blank
+    public static String canonical(String size) {
+        if (size == null) {
+            return null;
+        }
+        String words = String.join(" ", SEPARATORS.split(TextNormalizer.normalize(size)
+                .toUpperCase(Locale.ROOT).replace(',', '.'))).strip();
+        if (words.isEmpty()) {
+            return null;
+        }
+        words = DECIMAL_ZEROS.matcher(SYNONYMS.getOrDefault(words, words)).replaceFirst("$1");
+        return words.length() <= MAX_LENGTH ? words : words.substring(0, MAX_LENGTH);
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -1,7 +1,10 @@
 package br.com.vss.resell_platform.model;
 
+import br.com.vss.resell_platform.config.PersistenceTuningConfig;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
@@ -10,6 +13,8 @@ import java.util.List;
 
 @Entity
 @Table(name = "TB_USERS")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = PersistenceTuningConfig.USERS_REGION)
 public class User implements Serializable {
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
@@ -28,6 +33,8 @@ public class User implements Serializable {
     private List<Transaction> sales;
     private BigDecimal balance;
     LocalDateTime createdAt;
+    @Version
+    private Long version;
 
     public User(String username, String password, String email) {
         this.username = username;
@@ -111,4 +118,8 @@ public class User implements Serializable {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public Long getVersion() {
+        return version;
+    }
 }
@@ -1,16 +1,81 @@
 package br.com.vss.resell_platform.repository;
 
+import br.com.vss.resell_platform.controller.dto.FeedItemDto;
+import br.com.vss.resell_platform.controller.dto.ItemSummaryDto;
+import br.com.vss.resell_platform.controller.dto.ListingExportDto;
 import br.com.vss.resell_platform.model.Item;
+import br.com.vss.resell_platform.search.IndexedItem;
+import br.com.vss.resell_platform.search.IndexedText;
+import br.com.vss.resell_platform.search.IndexedVersion;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ItemRepository extends JpaRepository<Item, Long> , JpaSpecificationExecutor<Item> {
+public interface ItemRepository extends JpaRepository<Item, Long> , JpaSpecificationExecutor<Item>, ItemRepositoryCustom {
 
     List<Item> findAll(Specification<Item> specification);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select i from Item i where i.id = :id and i.status = br.com.vss.resell_platform.util.ItemStatus.AVAILABLE")
+    Optional<Item> findAvailableForUpdateSkipLocked(Long id);
+
+    @Query("select new br.com.vss.resell_platform.controller.dto.ItemSummaryDto(i.id, i.seller.id, i.status) " +
+            "from Item i where i.id = :id")
+    Optional<ItemSummaryDto> findSummaryById(Long id);
+
+    // forward-only cursor for exports, rows are fetched from the driver fetch-size at a time and never enter the persistence context
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new br.com.vss.resell_platform.controller.dto.ListingExportDto(i.id, i.name, b.name, i.category, i.subCategory, " +
+            "i.condition, i.price, s.label, i.status, i.listedAt) from Item i left join i.brand b left join i.size s " +
+            "where i.seller.id = :sellerId order by i.id")
+    Stream<ListingExportDto> streamListings(Long sellerId);
+
+    // the feed index is filled in key order, so it starts without late docs
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new br.com.vss.resell_platform.search.IndexedItem(i.id, i.category, i.subCategory, i.condition, i.price, " +
+            "s.id, i.listedAt) from Item i left join i.size s " +
+            "where i.status = br.com.vss.resell_platform.util.ItemStatus.AVAILABLE order by i.listedAt, i.id")
+    Stream<IndexedItem> streamIndexedItems();
+
+    @Query("select new br.com.vss.resell_platform.search.IndexedItem(i.id, i.category, i.subCategory, i.condition, i.price, " +
+            "s.id, i.listedAt) from Item i left join i.size s " +
+            "where i.id in :ids and i.status = br.com.vss.resell_platform.util.ItemStatus.AVAILABLE")
+    List<IndexedItem> findIndexedItems(Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new br.com.vss.resell_platform.search.IndexedText(i.id, i.version, i.name, b.name, i.listedAt) " +
+            "from Item i left join i.brand b where i.status = br.com.vss.resell_platform.util.ItemStatus.AVAILABLE")
+    Stream<IndexedText> streamIndexedTexts();
+
+    @Query("select new br.com.vss.resell_platform.search.IndexedText(i.id, i.version, i.name, b.name, i.listedAt) " +
+            "from Item i left join i.brand b " +
+            "where i.id in :ids and i.status = br.com.vss.resell_platform.util.ItemStatus.AVAILABLE")
+    List<IndexedText> findIndexedTexts(Collection<Long> ids);
+
+    // a restored text index only re-reads the items whose version moved since it was written
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new br.com.vss.resell_platform.search.IndexedVersion(i.id, i.version) from Item i " +
+            "where i.status = br.com.vss.resell_platform.util.ItemStatus.AVAILABLE order by i.id")
+    Stream<IndexedVersion> streamIndexedVersions();
+
+    // rows of a page the feed index already chose, read by primary key only
+    @Query("select new br.com.vss.resell_platform.controller.dto.FeedItemDto(i.id, i.name, b.name, i.category, i.subCategory, " +
+            "i.condition, i.price, s.label, i.seller.username, i.listedAt) from Item i left join i.brand b left join i.size s " +
+            "where i.id in :ids")
+    List<FeedItemDto> findFeedItems(Collection<Long> ids);
+
 }
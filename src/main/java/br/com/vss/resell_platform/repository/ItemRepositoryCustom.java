@@ -0,0 +1,17 @@
+package br.com.vss.resell_platform.repository;
+
+import br.com.vss.resell_platform.controller.dto.FeedItemDto;
+import br.com.vss.resell_platform.model.Item;
+import br.com.vss.resell_platform.search.FeedFacets;
+import br.com.vss.resell_platform.search.FeedFilter;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface ItemRepositoryCustom {
+
+    Slice<FeedItemDto> findFeedSlice(Specification<Item> specification, Pageable pageable);
+
+    FeedFacets findFeedFacets(Specification<Item> scope, FeedFilter filter);
+
+}
@@ -0,0 +1,153 @@
+package br.com.vss.resell_platform.repository;
+
+import br.com.vss.resell_platform.controller.dto.FeedItemDto;
+import br.com.vss.resell_platform.model.Brand;
+import br.com.vss.resell_platform.model.Item;
+import br.com.vss.resell_platform.model.Size;
+import br.com.vss.resell_platform.model.User;
+import br.com.vss.resell_platform.search.FeedFacets;
+import br.com.vss.resell_platform.search.FeedFilter;
+import br.com.vss.resell_platform.util.Category;
+import br.com.vss.resell_platform.util.Condition;
+import br.com.vss.resell_platform.util.SubCategory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+public class ItemRepositoryImpl implements ItemRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<FeedItemDto> findFeedSlice(Specification<Item> specification, Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<FeedItemDto> query = criteriaBuilder.createQuery(FeedItemDto.class);
+        Root<Item> root = query.from(Item.class);
+        Join<Item, User> seller = root.join("seller");
+        Join<Item, Brand> brand = root.join("brand", JoinType.LEFT);
+        Join<Item, Size> size = root.join("size", JoinType.LEFT);
+
+        query.select(criteriaBuilder.construct(FeedItemDto.class,
+                root.get("id"),
+                root.get("name"),
+                brand.get("name"),
+                root.get("category"),
+                root.get("subCategory"),
+                root.get("condition"),
+                root.get("price"),
+                size.get("label"),
+                seller.get("username"),
+                root.get("listedAt")));
+
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+
+        // one extra row tells us whether there is a next slice without issuing a count
+        List<FeedItemDto> rows = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<FeedItemDto> content = new ArrayList<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows);
+
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    /**
+     * Two grouped reads instead of one per facet: the rows within the price filter grouped by every enum and size,
+     * folded into the facets here, and one row of per range price counts within the other filters.
+     */
+    @Override
+    public FeedFacets findFeedFacets(Specification<Item> scope, FeedFilter filter) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        FeedFacets facets = new FeedFacets();
+
+        CriteriaQuery<Tuple> groups = criteriaBuilder.createTupleQuery();
+        Root<Item> root = groups.from(Item.class);
+        Specification<Item> withinPrice = scope.and(ItemSpecification.betweenPrice(filter.lowest(), filter.highest()));
+        Join<Item, Size> size = root.join("size", JoinType.LEFT);
+        groups.multiselect(root.get("category"), root.get("subCategory"), root.get("condition"), size.get("id"),
+                        criteriaBuilder.count(root))
+                .where(withinPrice.toPredicate(root, groups, criteriaBuilder))
+                .groupBy(root.get("category"), root.get("subCategory"), root.get("condition"), size.get("id"));
+
+        for (Tuple group : entityManager.createQuery(groups).getResultList()) {
+            Category category = group.get(0, Category.class);
+            SubCategory subCategory = group.get(1, SubCategory.class);
+            Condition condition = group.get(2, Condition.class);
+            Integer sizeId = group.get(3, Integer.class);
+            long count = group.get(4, Long.class);
+
+            // a facet ignores its own filter, so a group counts for it when every other filter matches
+            boolean categoryMatches = filter.category() == null || filter.category() == category;
+            boolean subCategoryMatches = filter.subCategory() == null || filter.subCategory() == subCategory;
+            boolean conditionMatches = filter.condition() == null || filter.condition() == condition;
+            boolean sizeMatches = filter.sizeId() == null || Objects.equals(filter.sizeId(), sizeId);
+
+            if (subCategoryMatches && conditionMatches && sizeMatches) {
+                facets.addCategory(category, count);
+            }
+            if (categoryMatches && conditionMatches && sizeMatches) {
+                facets.addSubCategory(subCategory, count);
+            }
+            if (categoryMatches && subCategoryMatches && sizeMatches) {
+                facets.addCondition(condition, count);
+            }
+            if (categoryMatches && subCategoryMatches && conditionMatches) {
+                facets.addSize(sizeId, count);
+            }
+        }
+
+        // counts below each bound, the ranges are the differences between them
+        CriteriaQuery<Tuple> prices = criteriaBuilder.createTupleQuery();
+        root = prices.from(Item.class);
+        Specification<Item> withoutPrice = scope
+                .and(ItemSpecification.byCategory(filter.category()))
+                .and(ItemSpecification.bySubcategory(filter.subCategory()))
+                .and(ItemSpecification.byCondition(filter.condition()))
+                .and(ItemSpecification.bySize(filter.sizeId()));
+        Expression<BigDecimal> price = root.get("price");
+        List<Selection<?>> selections = new ArrayList<>();
+        for (BigDecimal bound : FeedFacets.PRICE_BOUNDS) {
+            selections.add(criteriaBuilder.sum(criteriaBuilder.<Long>selectCase()
+                    .when(criteriaBuilder.lessThan(price, bound), 1L)
+                    .otherwise(0L)));
+        }
+        selections.add(criteriaBuilder.count(price));
+        prices.multiselect(selections)
+                .where(withoutPrice.toPredicate(root, prices, criteriaBuilder));
+
+        Tuple below = entityManager.createQuery(prices).getSingleResult();
+        long counted = 0;
+        for (int range = 0; range < selections.size(); range++) {
+            Number cumulative = (Number) below.get(range);
+            long upTo = cumulative == null ? 0 : cumulative.longValue();
+            facets.addPriceRange(range, upTo - counted);
+            counted = upTo;
+        }
+        return facets;
+    }
+}
@@ -1,33 +1,64 @@
 package br.com.vss.resell_platform.repository;
 
+import br.com.vss.resell_platform.model.Brand;
 import br.com.vss.resell_platform.model.Item;
 import br.com.vss.resell_platform.util.Category;
 import br.com.vss.resell_platform.util.Condition;
+import br.com.vss.resell_platform.util.FeedCursor;
+import br.com.vss.resell_platform.util.ItemStatus;
 import br.com.vss.resell_platform.util.SubCategory;
 
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
+import java.util.Locale;
 
 
 public class ItemSpecification {
 
+    private static final char ESCAPE = '\\';
+
+    public static Specification<Item> feedFilter(String name, String brand, Category category, SubCategory subCategory,
+                                                 Condition condition, BigDecimal lowest, BigDecimal highest, Integer sizeId) {
+        return byStatus(ItemStatus.AVAILABLE)
+                .and(likeName(name))
+                .and(likeBrand(brand)
+                .and(byCondition(condition)
+                .and(bySize(sizeId))))
+                .and(byCategory(category))
+                .and(bySubcategory(subCategory)
+                .and(betweenPrice(lowest, highest)));
+    }
+
     public static Specification<Item> likeName(String name) {
         if (name != null) {
             return (root, query, criteriaBuilder) ->
-                    criteriaBuilder.like(root.get("name"), "%" + name + "%");
+                    criteriaBuilder.like(criteriaBuilder.lower(root.get("name")), containing(name), ESCAPE);
         }
         return (root, query, criteriaBuilder) -> criteriaBuilder.conjunction();
     }
 
+    // matched against the brand dictionary, the items themselves are only compared by brand id
     public static Specification<Item> likeBrand(String brand) {
         if (brand != null) {
-            return (root, query, criteriaBuilder) ->
-                    criteriaBuilder.like(root.get("brand"), "%" + brand + "%");
+            return (root, query, criteriaBuilder) -> {
+                Subquery<Integer> brands = query.subquery(Integer.class);
+                Root<Brand> dictionary = brands.from(Brand.class);
+                brands.select(dictionary.get("id"))
+                        .where(criteriaBuilder.like(dictionary.get("normalized"), containing(Brand.normalize(brand)), ESCAPE));
+                return root.get("brand").get("id").in(brands);
+            };
         }
         return (root, query, criteriaBuilder) -> criteriaBuilder.conjunction();
 
     }
+    public static Specification<Item> byStatus(ItemStatus status) {
+        return (root, query, criteriaBuilder) ->
+                criteriaBuilder.equal(root.get("status"), status);
+    }
+
     public static Specification<Item> byCondition(Condition condition) {
         if (condition != null) {
             return (root, query, criteriaBuilder) ->
@@ -36,10 +67,11 @@ public class ItemSpecification {
         return (root, query, criteriaBuilder) -> criteriaBuilder.conjunction();
     }
 
-    public static Specification<Item> bySize(String size) {
-        if (size!= null) {
+    // sizes are compared by id, the services look the label up in the size dictionary
+    public static Specification<Item> bySize(Integer sizeId) {
+        if (sizeId != null) {
             return (root, query, criteriaBuilder) ->
-                    criteriaBuilder.equal(root.get("size"), size);
+                    criteriaBuilder.equal(root.get("size").get("id"), sizeId);
         }
         return (root, query, criteriaBuilder) -> criteriaBuilder.conjunction();
     }
@@ -65,4 +97,24 @@ public class ItemSpecification {
                 criteriaBuilder.between(root.get("price"), lower, highest);
     }
 
+    public static Specification<Item> seekAfter(FeedCursor cursor) {
+        if (cursor != null) {
+            return (root, query, criteriaBuilder) ->
+                    criteriaBuilder.or(
+                            criteriaBuilder.lessThan(root.get("listedAt"), cursor.listedAt()),
+                            criteriaBuilder.and(
+                                    criteriaBuilder.equal(root.get("listedAt"), cursor.listedAt()),
+                                    criteriaBuilder.lessThan(root.get("id"), cursor.id())));
+        }
+        return (root, query, criteriaBuilder) -> criteriaBuilder.conjunction();
+    }
+
+    private static String containing(String term) {
+        String escaped = term.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
 }
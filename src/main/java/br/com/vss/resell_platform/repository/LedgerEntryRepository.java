@@ -0,0 +1,36 @@
+package br.com.vss.resell_platform.repository;
+
+import br.com.vss.resell_platform.controller.dto.BalanceDto;
+import br.com.vss.resell_platform.model.LedgerEntry;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from LedgerEntry e where e.settledAt is null order by e.id")
+    List<LedgerEntry> findUnsettledForUpdateSkipLocked(Pageable pageable);
+
+    @Modifying
+    @Query("update LedgerEntry e set e.settledAt = :settledAt where e.id in :ids")
+    int markSettled(List<Long> ids, LocalDateTime settledAt);
+
+    // a single statement, so an aggregator committing in between can't count a credit twice or not at all
+    @Query("select new br.com.vss.resell_platform.controller.dto.BalanceDto(u.balance, coalesce(sum(e.credit), 0)) " +
+            "from User u left join LedgerEntry e on e.sellerId = u.id and e.settledAt is null " +
+            "where u.id = :userId group by u.id, u.balance")
+    Optional<BalanceDto> findBalance(Long userId);
+}
@@ -0,0 +1,13 @@
+package br.com.vss.resell_platform.repository;
+
+import br.com.vss.resell_platform.model.Size;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface SizeRepository extends JpaRepository<Size, Integer> {
+
+    Optional<Size> findByLabel(String label);
+}
@@ -1,9 +1,21 @@
 package br.com.vss.resell_platform.repository;
 
+import br.com.vss.resell_platform.controller.dto.SaleExportDto;
 import br.com.vss.resell_platform.model.Transaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.stream.Stream;
+
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new br.com.vss.resell_platform.controller.dto.SaleExportDto(t.id, t.item.id, t.item.name, t.receiver.username, " +
+            "t.amount, t.createdAt) from Transaction t where t.sender.id = :sellerId order by t.id")
+    Stream<SaleExportDto> streamSales(Long sellerId);
 }
@@ -2,8 +2,11 @@ package br.com.vss.resell_platform.repository;
 
 import br.com.vss.resell_platform.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +15,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
 
     Optional<User> findByEmail(String email);
+
+    @Modifying
+    @Query("update User u set u.balance = u.balance + :delta, u.version = u.version + 1 where u.id = :id")
+    int addToBalance(Long id, BigDecimal delta);
 }
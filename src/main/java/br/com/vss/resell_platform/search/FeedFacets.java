@@ -0,0 +1,93 @@
+package br.com.vss.resell_platform.search;
+
+import br.com.vss.resell_platform.controller.dto.FeedFacetsDto;
+import br.com.vss.resell_platform.controller.dto.PriceFacetDto;
+import br.com.vss.resell_platform.util.Category;
+import br.com.vss.resell_platform.util.Condition;
+import br.com.vss.resell_platform.util.SubCategory;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Facet counts being added up, by the feed index or from grouped SQL rows. Each facet is counted with every filter
+ * except its own, so the counts say what picking that value instead would return.
+ */
+public class FeedFacets {
+
+    // exclusive upper bounds of the price facet, the last range is open ended
+    public static final List<BigDecimal> PRICE_BOUNDS = Stream.of("50", "100", "250", "500", "1000")
+            .map(BigDecimal::new)
+            .toList();
+
+    private final long[] categories = new long[Category.values().length];
+    private final long[] subCategories = new long[SubCategory.values().length];
+    private final long[] conditions = new long[Condition.values().length];
+    private final Map<Integer, Long> sizes = new HashMap<>();
+    private final long[] prices = new long[PRICE_BOUNDS.size() + 1];
+
+    public void addCategory(Category category, long count) {
+        if (category != null) {
+            categories[category.ordinal()] += count;
+        }
+    }
+
+    public void addSubCategory(SubCategory subCategory, long count) {
+        if (subCategory != null) {
+            subCategories[subCategory.ordinal()] += count;
+        }
+    }
+
+    public void addCondition(Condition condition, long count) {
+        if (condition != null) {
+            conditions[condition.ordinal()] += count;
+        }
+    }
+
+    public void addSize(Integer sizeId, long count) {
+        if (sizeId != null && count > 0) {
+            sizes.merge(sizeId, count, Long::sum);
+        }
+    }
+
+    public void addPriceRange(int range, long count) {
+        prices[range] += count;
+    }
+
+    // values nobody could pick are left out, the price ranges are always listed; sizes are counted by dictionary id
+    // and named by the given lookup
+    public FeedFacetsDto toDto(IntFunction<String> sizeLabels) {
+        List<PriceFacetDto> priceFacets = new ArrayList<>(prices.length);
+        for (int range = 0; range < prices.length; range++) {
+            priceFacets.add(new PriceFacetDto(range == 0 ? BigDecimal.ZERO : PRICE_BOUNDS.get(range - 1),
+                    range < PRICE_BOUNDS.size() ? PRICE_BOUNDS.get(range) : null, prices[range]));
+        }
+
+        return new FeedFacetsDto(nonZero(Category.class, categories), nonZero(SubCategory.class, subCategories),
+                nonZero(Condition.class, conditions), labelled(sizeLabels), priceFacets);
+    }
+
+    private Map<String, Long> labelled(IntFunction<String> sizeLabels) {
+        Map<String, Long> facet = new TreeMap<>();
+        sizes.forEach((sizeId, count) -> facet.merge(sizeLabels.apply(sizeId), count, Long::sum));
+        return facet;
+    }
+
+    private static <E extends Enum<E>> Map<E, Long> nonZero(Class<E> type, long[] counts) {
+        Map<E, Long> facet = new EnumMap<>(type);
+        E[] values = type.getEnumConstants();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                facet.put(values[i], counts[i]);
+            }
+        }
+        return facet;
+    }
+}
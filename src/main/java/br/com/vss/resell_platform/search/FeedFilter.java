@@ -0,0 +1,18 @@
+package br.com.vss.resell_platform.search;
+
+import br.com.vss.resell_platform.util.Category;
+import br.com.vss.resell_platform.util.Condition;
+import br.com.vss.resell_platform.util.SubCategory;
+
+import java.math.BigDecimal;
+
+public record FeedFilter(Category category,
+                         SubCategory subCategory,
+                         Condition condition,
+                         Integer sizeId,
+                         BigDecimal lowest,
+                         BigDecimal highest) {
+
+    // size ids come from a sequence, so a filter on a size nobody has listed uses this id and matches nothing
+    public static final int UNKNOWN_SIZE = -1;
+}
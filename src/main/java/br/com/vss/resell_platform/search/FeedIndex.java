@@ -0,0 +1,771 @@
+package br.com.vss.resell_platform.search;
+
+import br.com.vss.resell_platform.util.Category;
+import br.com.vss.resell_platform.util.Condition;
+import br.com.vss.resell_platform.util.FeedCursor;
+import br.com.vss.resell_platform.util.SubCategory;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Available items held in memory to answer the feed filters without the database. Every category, sub category,
+ * condition and size dictionary id has a compressed bitmap of the docs carrying it, and prices are a sorted column of bitmaps, one per
+ * price bucket, with exact prices kept per doc for the buckets at the ends of a range. Docs are numbered in (listedAt, id) order, so walking a bitmap backwards yields the feed order; an item
+ * listed behind the newest doc becomes a late doc, merged in at query time until the next compaction puts it in place.
+ */
+public class FeedIndex {
+
+    public record Hits(List<Long> ids, boolean hasNext) {
+    }
+
+    private static final int NONE = -1;
+    private static final long NO_VALUE = Long.MIN_VALUE;
+    // 32 buckets per power of two, a bucket spans at most ~3% of its prices
+    private static final int PRICE_BUCKET_BITS = 5;
+    private static final int PRICE_BUCKETS = priceBucket(Long.MAX_VALUE) + 1;
+    private static final long[] PRICE_FACET_BOUNDS = FeedFacets.PRICE_BOUNDS.stream()
+            .mapToLong(bound -> cents(bound, RoundingMode.UNNECESSARY))
+            .toArray();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int compactionThreshold;
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder queryNanos = new LongAdder();
+
+    // indexed by size dictionary id, grown to the highest id in use
+    private final List<RoaringBitmap> bySize = new ArrayList<>();
+
+    // per doc columns, an update needs them to know which bitmaps to clear
+    private long[] ids;
+    private long[] listedAt;
+    private long[] prices;
+    private byte[] categories;
+    private byte[] subCategories;
+    private byte[] conditions;
+    private int[] sizes;
+    private int docs;
+
+    // docs appended in key order, searched to position a cursor
+    private int[] ordered;
+    private int orderedCount;
+
+    private DocTable docsById;
+    private RoaringBitmap available;
+    private RoaringBitmap late;
+    private RoaringBitmap priced;
+    private RoaringBitmap[] byCategory;
+    private RoaringBitmap[] bySubCategory;
+    private RoaringBitmap[] byCondition;
+    private RoaringBitmap[] byPrice;
+
+    public FeedIndex(int compactionThreshold) {
+        this.compactionThreshold = compactionThreshold;
+        reset(16);
+    }
+
+    public void upsert(IndexedItem item) {
+        long listed = micros(item.listedAt());
+
+        lock.writeLock().lock();
+        try {
+            int doc = docsById.get(item.id());
+            if (doc != NONE && listedAt[doc] == listed) {
+                unmark(doc);
+                setAttributes(doc, ordinal(item.category()), ordinal(item.subCategory()), ordinal(item.condition()),
+                        sizeId(item.sizeId()), cents(item.price(), RoundingMode.HALF_UP));
+                mark(doc);
+                return;
+            }
+            if (doc != NONE) {
+                drop(doc);
+            }
+
+            append(item.id(), listed, ordinal(item.category()), ordinal(item.subCategory()), ordinal(item.condition()),
+                    sizeId(item.sizeId()), cents(item.price(), RoundingMode.HALF_UP));
+            if (needsCompaction()) {
+                compactLocked();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            int doc = docsById.remove(id);
+            if (doc != NONE) {
+                drop(doc);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            reset(16);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // renumbers the live docs in key order, dropping late docs and the slots of removed ones
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            compactLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long count(FeedFilter filter) {
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            return matching(filter).getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+            record(start);
+        }
+    }
+
+    /**
+     * Counts per category, sub category, condition, size and price range of the items the filter matches, each facet
+     * counted with its own filter left out.
+     */
+    public FeedFacets facets(FeedFilter filter) {
+        return facets(filter, null);
+    }
+
+    /**
+     * The same counts over the given ids only, such as the matches of a text search, or over every item when
+     * {@code candidates} is null.
+     */
+    public FeedFacets facets(FeedFilter filter, long[] candidates) {
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            FeedFacets facets = new FeedFacets();
+            RoaringBitmap among = candidates == null ? null : docsOf(candidates);
+
+            // the price filter is shared by four facets, so its docs are looked up once
+            RoaringBitmap inPrice = among;
+            if (filter.lowest() != null || filter.highest() != null) {
+                inPrice = among != null ? withPriceBetween(among.clone(), lowestCents(filter), highestCents(filter))
+                        : matching(new FeedFilter(null, null, null, null, filter.lowest(), filter.highest()));
+            }
+
+            long[] counts = countBy(within(inPrice, new FeedFilter(null, filter.subCategory(), filter.condition(),
+                    filter.sizeId(), null, null)), doc -> categories[doc], Arrays.asList(byCategory));
+            for (Category category : Category.values()) {
+                facets.addCategory(category, counts[category.ordinal()]);
+            }
+
+            counts = countBy(within(inPrice, new FeedFilter(filter.category(), null, filter.condition(),
+                    filter.sizeId(), null, null)), doc -> subCategories[doc], Arrays.asList(bySubCategory));
+            for (SubCategory subCategory : SubCategory.values()) {
+                facets.addSubCategory(subCategory, counts[subCategory.ordinal()]);
+            }
+
+            counts = countBy(within(inPrice, new FeedFilter(filter.category(), filter.subCategory(), null,
+                    filter.sizeId(), null, null)), doc -> conditions[doc], Arrays.asList(byCondition));
+            for (Condition condition : Condition.values()) {
+                facets.addCondition(condition, counts[condition.ordinal()]);
+            }
+
+            counts = countBy(within(inPrice, new FeedFilter(filter.category(), filter.subCategory(), filter.condition(),
+                    null, null, null)), doc -> sizes[doc], bySize);
+            for (int sizeId = 0; sizeId < counts.length; sizeId++) {
+                facets.addSize(sizeId, counts[sizeId]);
+            }
+
+            RoaringBitmap base = matching(new FeedFilter(filter.category(), filter.subCategory(), filter.condition(),
+                    filter.sizeId(), null, null));
+            if (among != null) {
+                base.and(among);
+            }
+            addPriceRanges(base, facets);
+            return facets;
+        } finally {
+            lock.readLock().unlock();
+            record(start);
+        }
+    }
+
+    /**
+     * The given ids whose items are indexed and match the filter, in the order they were given. Each one is checked
+     * against the columns, which is cheaper than a filter bitmap when the ids come from a narrower search.
+     */
+    public long[] retain(FeedFilter filter, long[] candidates) {
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            int size = filter.sizeId() != null ? filter.sizeId() : NONE;
+            boolean byPrice = filter.lowest() != null || filter.highest() != null;
+            long from = lowestCents(filter);
+            long to = highestCents(filter);
+
+            long[] kept = new long[candidates.length];
+            int count = 0;
+            for (long id : candidates) {
+                int doc = docsById.get(id);
+                if (doc == NONE
+                        || filter.category() != null && categories[doc] != filter.category().ordinal()
+                        || filter.subCategory() != null && subCategories[doc] != filter.subCategory().ordinal()
+                        || filter.condition() != null && conditions[doc] != filter.condition().ordinal()
+                        || size != NONE && sizes[doc] != size
+                        || byPrice && (prices[doc] == NO_VALUE || prices[doc] < from || prices[doc] > to)) {
+                    continue;
+                }
+                kept[count++] = id;
+            }
+            return Arrays.copyOf(kept, count);
+        } finally {
+            lock.readLock().unlock();
+            record(start);
+        }
+    }
+
+    /**
+     * Ids of the matching items in feed order, skipping {@code offset} of them and starting after {@code cursor}
+     * when one is given.
+     */
+    public Hits search(FeedFilter filter, FeedCursor cursor, long offset, int limit) {
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matches = matching(filter);
+            RoaringBitmap lateMatches = RoaringBitmap.and(matches, late);
+            RoaringBitmap inPlace = lateMatches.isEmpty() ? matches : RoaringBitmap.andNot(matches, late);
+
+            int[] lateDocs = newestFirst(lateMatches, cursor);
+            long doc = cursor == null ? docs - 1 : seek(cursor);
+            long skip = offset;
+
+            // without late docs the offset is a rank, no need to walk past the skipped docs
+            if (lateDocs.length == 0 && doc >= 0 && skip > 0) {
+                long position = inPlace.rankLong((int) doc) - 1 - skip;
+                doc = position < 0 ? NONE : inPlace.select((int) position);
+                skip = 0;
+            } else if (doc >= 0) {
+                doc = inPlace.previousValue((int) doc);
+            }
+
+            List<Long> hits = new ArrayList<>(limit + 1);
+            int nextLate = 0;
+            while (hits.size() <= limit) {
+                int next;
+                if (doc >= 0 && (nextLate == lateDocs.length || compare((int) doc, lateDocs[nextLate]) > 0)) {
+                    next = (int) doc;
+                    doc = doc == 0 ? NONE : inPlace.previousValue((int) doc - 1);
+                } else if (nextLate < lateDocs.length) {
+                    next = lateDocs[nextLate++];
+                } else {
+                    break;
+                }
+
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    hits.add(ids[next]);
+                }
+            }
+
+            boolean hasNext = hits.size() > limit;
+            return new Hits(hasNext ? hits.subList(0, limit) : hits, hasNext);
+        } finally {
+            lock.readLock().unlock();
+            record(start);
+        }
+    }
+
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return available.getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long lateSize() {
+        lock.readLock().lock();
+        try {
+            return late.getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // bitmaps plus columns, object headers and the price map nodes are approximated
+    public long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = (long) ids.length * (Long.BYTES * 3 + 3 + Integer.BYTES * 2) + docsById.memoryBytes();
+            bytes += available.getLongSizeInBytes() + late.getLongSizeInBytes() + priced.getLongSizeInBytes();
+            for (RoaringBitmap bitmap : allBitmaps()) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getQueries() {
+        return queries.sum();
+    }
+
+    public long getQueryNanos() {
+        return queryNanos.sum();
+    }
+
+    private RoaringBitmap matching(FeedFilter filter) {
+        List<RoaringBitmap> required = new ArrayList<>(5);
+        required.add(available);
+        if (filter.category() != null) {
+            required.add(byCategory[filter.category().ordinal()]);
+        }
+        if (filter.subCategory() != null) {
+            required.add(bySubCategory[filter.subCategory().ordinal()]);
+        }
+        if (filter.condition() != null) {
+            required.add(byCondition[filter.condition().ordinal()]);
+        }
+        if (filter.sizeId() != null) {
+            // no bitmap means no indexed item carries that size
+            if (filter.sizeId() < 0 || filter.sizeId() >= bySize.size()) {
+                return new RoaringBitmap();
+            }
+            required.add(bySize.get(filter.sizeId()));
+        }
+
+        // smallest first, every intersection after it can only shrink
+        required.sort(Comparator.comparingLong(RoaringBitmap::getLongCardinality));
+        RoaringBitmap result = required.getFirst().clone();
+        for (int i = 1; i < required.size() && !result.isEmpty(); i++) {
+            result.and(required.get(i));
+        }
+
+        if (filter.lowest() != null || filter.highest() != null) {
+            result = withPriceBetween(result, lowestCents(filter), highestCents(filter));
+        }
+        return result;
+    }
+
+    private RoaringBitmap withPriceBetween(RoaringBitmap candidates, long from, long to) {
+        if (from > to || candidates.isEmpty()) {
+            return new RoaringBitmap();
+        }
+
+        int first = priceBucket(from);
+        int last = priceBucket(to);
+        long inside = IntStream.rangeClosed(first, last).mapToLong(bucket -> byPrice[bucket].getLongCardinality()).sum();
+
+        // a few candidates are cheaper to check against the price column than a range bitmap is to build
+        if (candidates.getLongCardinality() * 4 < inside) {
+            RoaringBitmap result = new RoaringBitmap();
+            candidates.forEach((int doc) -> {
+                if (prices[doc] != NO_VALUE && prices[doc] >= from && prices[doc] <= to) {
+                    result.add(doc);
+                }
+            });
+            return result;
+        }
+
+        // a wide range is cheaper to build from the buckets it leaves out
+        RoaringBitmap range;
+        if (inside <= priced.getLongCardinality() / 2) {
+            range = FastAggregation.or(IntStream.rangeClosed(first, last).mapToObj(bucket -> byPrice[bucket]).iterator());
+        } else {
+            range = RoaringBitmap.andNot(priced, FastAggregation.or(IntStream.range(0, PRICE_BUCKETS)
+                    .filter(bucket -> bucket < first || bucket > last)
+                    .mapToObj(bucket -> byPrice[bucket])
+                    .iterator()));
+        }
+
+        // only the two buckets at the ends can hold prices outside the range
+        range.andNot(outOfRange(first, from, to));
+        if (last != first) {
+            range.andNot(outOfRange(last, from, to));
+        }
+        candidates.and(range);
+        return candidates;
+    }
+
+    private RoaringBitmap docsOf(long[] candidates) {
+        RoaringBitmap docs = new RoaringBitmap();
+        for (long id : candidates) {
+            int doc = docsById.get(id);
+            if (doc != NONE) {
+                docs.add(doc);
+            }
+        }
+        return docs;
+    }
+
+    private RoaringBitmap within(RoaringBitmap inPrice, FeedFilter filter) {
+        RoaringBitmap docs = matching(filter);
+        if (inPrice != null) {
+            docs.and(inPrice);
+        }
+        return docs;
+    }
+
+    // a few docs are cheaper to count from their column than every value bitmap is to intersect
+    private long[] countBy(RoaringBitmap docs, IntUnaryOperator column, List<RoaringBitmap> values) {
+        long[] counts = new long[values.size()];
+        if (docs.getLongCardinality() * 4 < available.getLongCardinality()) {
+            docs.forEach((int doc) -> {
+                int value = column.applyAsInt(doc);
+                if (value != NONE) {
+                    counts[value]++;
+                }
+            });
+        } else {
+            for (int value = 0; value < counts.length; value++) {
+                counts[value] = RoaringBitmap.andCardinality(docs, values.get(value));
+            }
+        }
+        return counts;
+    }
+
+    // a bucket inside one facet range is counted whole, only the ones straddling a bound are binned doc by doc
+    private void addPriceRanges(RoaringBitmap candidates, FeedFacets facets) {
+        if (candidates.getLongCardinality() * 4 < priced.getLongCardinality()) {
+            candidates.forEach((int doc) -> {
+                if (prices[doc] != NO_VALUE) {
+                    facets.addPriceRange(priceRange(prices[doc]), 1);
+                }
+            });
+            return;
+        }
+
+        for (int bucket = 0; bucket < PRICE_BUCKETS; bucket++) {
+            if (byPrice[bucket].isEmpty()) {
+                continue;
+            }
+            int range = priceRange(Math.max(priceBucketFloor(bucket), 0));
+            if (range == priceRange(priceBucketCeiling(bucket))) {
+                facets.addPriceRange(range, RoaringBitmap.andCardinality(candidates, byPrice[bucket]));
+            } else {
+                RoaringBitmap.and(candidates, byPrice[bucket])
+                        .forEach((int doc) -> facets.addPriceRange(priceRange(prices[doc]), 1));
+            }
+        }
+    }
+
+    private static int priceRange(long cents) {
+        int range = 0;
+        while (range < PRICE_FACET_BOUNDS.length && cents >= PRICE_FACET_BOUNDS[range]) {
+            range++;
+        }
+        return range;
+    }
+
+    private RoaringBitmap outOfRange(int bucket, long from, long to) {
+        RoaringBitmap outside = new RoaringBitmap();
+        if (priceBucketFloor(bucket) >= from && priceBucketCeiling(bucket) <= to) {
+            return outside;
+        }
+        byPrice[bucket].forEach((int doc) -> {
+            if (prices[doc] < from || prices[doc] > to) {
+                outside.add(doc);
+            }
+        });
+        return outside;
+    }
+
+    private int[] newestFirst(RoaringBitmap lateMatches, FeedCursor cursor) {
+        long cursorListedAt = cursor == null ? 0 : micros(cursor.listedAt());
+
+        return lateMatches.stream()
+                .filter(doc -> cursor == null || compare(doc, cursorListedAt, cursor.id()) < 0)
+                .boxed()
+                .sorted((a, b) -> compare(b, a))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    // the newest in place doc listed before the cursor, NONE when there is none
+    private long seek(FeedCursor cursor) {
+        long cursorListedAt = micros(cursor.listedAt());
+        int low = 0;
+        int high = orderedCount - 1;
+        int found = NONE;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (compare(ordered[middle], cursorListedAt, cursor.id()) < 0) {
+                found = ordered[middle];
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return found;
+    }
+
+    private int compare(int doc, int other) {
+        return compare(doc, listedAt[other], ids[other]);
+    }
+
+    private int compare(int doc, long otherListedAt, long otherId) {
+        int byListedAt = Long.compare(listedAt[doc], otherListedAt);
+        return byListedAt != 0 ? byListedAt : Long.compare(ids[doc], otherId);
+    }
+
+    private void append(long id, long listed, int category, int subCategory, int condition, int size, long price) {
+        if (docs == ids.length) {
+            grow(ids.length * 2);
+        }
+
+        int doc = docs++;
+        ids[doc] = id;
+        listedAt[doc] = listed;
+        setAttributes(doc, category, subCategory, condition, size, price);
+
+        if (orderedCount == 0 || compare(doc, ordered[orderedCount - 1]) > 0) {
+            ordered[orderedCount++] = doc;
+        } else {
+            late.add(doc);
+        }
+        docsById.put(id, doc);
+        available.add(doc);
+        mark(doc);
+    }
+
+    private void setAttributes(int doc, int category, int subCategory, int condition, int size, long price) {
+        categories[doc] = (byte) category;
+        subCategories[doc] = (byte) subCategory;
+        conditions[doc] = (byte) condition;
+        sizes[doc] = size;
+        prices[doc] = price;
+    }
+
+    private void drop(int doc) {
+        unmark(doc);
+        available.remove(doc);
+        late.remove(doc);
+    }
+
+    private void mark(int doc) {
+        if (categories[doc] != NONE) {
+            byCategory[categories[doc]].add(doc);
+        }
+        if (subCategories[doc] != NONE) {
+            bySubCategory[subCategories[doc]].add(doc);
+        }
+        if (conditions[doc] != NONE) {
+            byCondition[conditions[doc]].add(doc);
+        }
+        if (sizes[doc] != NONE) {
+            while (bySize.size() <= sizes[doc]) {
+                bySize.add(new RoaringBitmap());
+            }
+            bySize.get(sizes[doc]).add(doc);
+        }
+        if (prices[doc] != NO_VALUE) {
+            byPrice[priceBucket(prices[doc])].add(doc);
+            priced.add(doc);
+        }
+    }
+
+    private void unmark(int doc) {
+        if (categories[doc] != NONE) {
+            byCategory[categories[doc]].remove(doc);
+        }
+        if (subCategories[doc] != NONE) {
+            bySubCategory[subCategories[doc]].remove(doc);
+        }
+        if (conditions[doc] != NONE) {
+            byCondition[conditions[doc]].remove(doc);
+        }
+        if (sizes[doc] != NONE) {
+            bySize.get(sizes[doc]).remove(doc);
+        }
+        if (prices[doc] != NO_VALUE) {
+            byPrice[priceBucket(prices[doc])].remove(doc);
+            priced.remove(doc);
+        }
+    }
+
+    private boolean needsCompaction() {
+        long live = available.getLongCardinality();
+        return late.getLongCardinality() > compactionThreshold || docs - live > Math.max(compactionThreshold, live);
+    }
+
+    private void compactLocked() {
+        int[] inPlace = RoaringBitmap.andNot(available, late).toArray();
+        int[] lateDocs = late.stream()
+                .boxed()
+                .sorted(this::compare)
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        long[] oldIds = ids;
+        long[] oldListedAt = listedAt;
+        long[] oldPrices = prices;
+        byte[] oldCategories = categories;
+        byte[] oldSubCategories = subCategories;
+        byte[] oldConditions = conditions;
+        int[] oldSizes = sizes;
+        int[] merged = merge(inPlace, lateDocs);
+
+        reset(Math.max(16, merged.length + merged.length / 4));
+        for (int doc : merged) {
+            append(oldIds[doc], oldListedAt[doc], oldCategories[doc], oldSubCategories[doc], oldConditions[doc],
+                    oldSizes[doc], oldPrices[doc]);
+        }
+
+        available.runOptimize();
+        priced.runOptimize();
+        allBitmaps().forEach(RoaringBitmap::runOptimize);
+    }
+
+    // both inputs are sorted by key, in place docs because of how they were numbered
+    private int[] merge(int[] inPlace, int[] lateDocs) {
+        int[] merged = new int[inPlace.length + lateDocs.length];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < merged.length; k++) {
+            if (j == lateDocs.length || (i < inPlace.length && compare(inPlace[i], lateDocs[j]) < 0)) {
+                merged[k] = inPlace[i++];
+            } else {
+                merged[k] = lateDocs[j++];
+            }
+        }
+        return merged;
+    }
+
+    private void reset(int capacity) {
+        ids = new long[0];
+        listedAt = new long[0];
+        prices = new long[0];
+        categories = new byte[0];
+        subCategories = new byte[0];
+        conditions = new byte[0];
+        sizes = new int[0];
+        ordered = new int[0];
+        grow(capacity);
+
+        docs = 0;
+        orderedCount = 0;
+        docsById = new DocTable(capacity);
+        available = new RoaringBitmap();
+        late = new RoaringBitmap();
+        priced = new RoaringBitmap();
+        byCategory = bitmaps(Category.values().length);
+        bySubCategory = bitmaps(SubCategory.values().length);
+        byCondition = bitmaps(Condition.values().length);
+        byPrice = bitmaps(PRICE_BUCKETS);
+        bySize.clear();
+    }
+
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        listedAt = Arrays.copyOf(listedAt, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        categories = Arrays.copyOf(categories, capacity);
+        subCategories = Arrays.copyOf(subCategories, capacity);
+        conditions = Arrays.copyOf(conditions, capacity);
+        sizes = Arrays.copyOf(sizes, capacity);
+        ordered = Arrays.copyOf(ordered, capacity);
+    }
+
+    private static int sizeId(Integer sizeId) {
+        return sizeId != null ? sizeId : NONE;
+    }
+
+    private List<RoaringBitmap> allBitmaps() {
+        List<RoaringBitmap> bitmaps = new ArrayList<>(Arrays.asList(byCategory));
+        bitmaps.addAll(Arrays.asList(bySubCategory));
+        bitmaps.addAll(Arrays.asList(byCondition));
+        bitmaps.addAll(bySize);
+        bitmaps.addAll(Arrays.asList(byPrice));
+        return bitmaps;
+    }
+
+    private void record(long start) {
+        queries.increment();
+        queryNanos.add(System.nanoTime() - start);
+    }
+
+    private static RoaringBitmap[] bitmaps(int count) {
+        RoaringBitmap[] bitmaps = new RoaringBitmap[count];
+        Arrays.setAll(bitmaps, i -> new RoaringBitmap());
+        return bitmaps;
+    }
+
+    private static int ordinal(Enum<?> value) {
+        return value == null ? NONE : value.ordinal();
+    }
+
+    static long micros(LocalDateTime value) {
+        if (value == null) {
+            return NO_VALUE;
+        }
+        return value.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + value.getNano() / 1_000;
+    }
+
+    private static long lowestCents(FeedFilter filter) {
+        return filter.lowest() == null ? NO_VALUE + 1 : cents(filter.lowest(), RoundingMode.CEILING);
+    }
+
+    private static long highestCents(FeedFilter filter) {
+        return filter.highest() == null ? Long.MAX_VALUE : cents(filter.highest(), RoundingMode.FLOOR);
+    }
+
+    // HdrHistogram style buckets, exact below 32 cents and then 32 per power of two
+    static int priceBucket(long cents) {
+        if (cents < 1L << PRICE_BUCKET_BITS) {
+            return (int) Math.max(cents, 0);
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(cents);
+        int mantissa = (int) (cents >>> (exponent - PRICE_BUCKET_BITS)) & ((1 << PRICE_BUCKET_BITS) - 1);
+        return (exponent - PRICE_BUCKET_BITS + 1) << PRICE_BUCKET_BITS | mantissa;
+    }
+
+    static long priceBucketFloor(int bucket) {
+        if (bucket == 0) {
+            return Long.MIN_VALUE;
+        }
+        if (bucket < 1 << PRICE_BUCKET_BITS) {
+            return bucket;
+        }
+        int exponent = (bucket >>> PRICE_BUCKET_BITS) + PRICE_BUCKET_BITS - 1;
+        long mantissa = (1L << PRICE_BUCKET_BITS) | (bucket & ((1 << PRICE_BUCKET_BITS) - 1));
+        return mantissa << (exponent - PRICE_BUCKET_BITS);
+    }
+
+    static long priceBucketCeiling(int bucket) {
+        return bucket == PRICE_BUCKETS - 1 ? Long.MAX_VALUE : priceBucketFloor(bucket + 1) - 1;
+    }
+
+    static long cents(BigDecimal value, RoundingMode roundingMode) {
+        if (value == null) {
+            return NO_VALUE;
+        }
+        BigInteger cents = value.setScale(2, roundingMode).unscaledValue();
+        if (cents.bitLength() < Long.SIZE) {
+            return cents.longValue();
+        }
+        return cents.signum() > 0 ? Long.MAX_VALUE : NO_VALUE + 1;
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.vss.resell_platform.search;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public record FeedIndexChange(String origin, boolean removal, List<Long> ids) {
+
+    private static final String SEPARATOR = "|";
+    private static final String SAVED = "S";
+    private static final String REMOVED = "R";
+
+    public static FeedIndexChange decode(String message) {
+        String[] parts = message.split("\\|", 3);
+        List<Long> ids = parts[2].isEmpty() ? List.of() : Arrays.stream(parts[2].split(",")).map(Long::valueOf).toList();
+        return new FeedIndexChange(parts[0], REMOVED.equals(parts[1]), ids);
+    }
+
+    public String encode() {
+        return origin + SEPARATOR + (removal ? REMOVED : SAVED) + SEPARATOR
+                + ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+}
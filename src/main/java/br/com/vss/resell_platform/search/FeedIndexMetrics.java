@@ -0,0 +1,36 @@
+package br.com.vss.resell_platform.search;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+
+public class FeedIndexMetrics implements MeterBinder {
+
+    private final FeedIndex feedIndex;
+
+    public FeedIndexMetrics(FeedIndex feedIndex) {
+        this.feedIndex = feedIndex;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("feed.index.items", feedIndex, FeedIndex::size)
+                .description("Available items held by the feed index")
+                .register(registry);
+        Gauge.builder("feed.index.late", feedIndex, FeedIndex::lateSize)
+                .description("Items merged in at query time until the next compaction")
+                .register(registry);
+        Gauge.builder("feed.index.memory", feedIndex, FeedIndex::memoryBytes)
+                .description("Approximate heap used by the feed index bitmaps and columns")
+                .baseUnit(BaseUnits.BYTES)
+                .register(registry);
+        FunctionTimer.builder("feed.index.queries", feedIndex, FeedIndex::getQueries, FeedIndex::getQueryNanos,
+                        TimeUnit.NANOSECONDS)
+                .description("Feed searches and counts answered by the index, without hydrating the rows")
+                .register(registry);
+    }
+}
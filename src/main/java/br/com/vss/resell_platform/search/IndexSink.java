@@ -0,0 +1,52 @@
+package br.com.vss.resell_platform.search;
+
+import br.com.vss.resell_platform.model.Item;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * An in-memory index of the available items, kept in step with the items table by the IndexSyncService: it loads
+ * the sink once, defers the changes that arrive meanwhile and from then on applies this node's writes and re-reads
+ * the ids the other nodes changed. {@code T} is the row the index is built from.
+ */
+public interface IndexSink<T> {
+
+    // for the logs
+    String name();
+
+    boolean isEnabled();
+
+    /**
+     * Fills the index from the table or a copy of it, returning the ids that still need to be read back.
+     */
+    Collection<Long> load();
+
+    // the index is complete, including the changes deferred while it loaded
+    void loaded();
+
+    void clear();
+
+    /**
+     * The ids whose entry no longer matches the table, found by comparing item versions, or null when the index keeps
+     * no versions or is not loaded yet.
+     */
+    default Collection<Long> drifted() {
+        return null;
+    }
+
+    // rows of the ids that are still available, the others leave the index
+    List<T> find(List<Long> ids);
+
+    Long idOf(T row);
+
+    T of(Item item);
+
+    void upsert(T row);
+
+    void remove(Long id);
+
+    long size();
+
+    long memoryBytes();
+}
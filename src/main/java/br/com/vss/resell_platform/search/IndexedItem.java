@@ -0,0 +1,23 @@
+package br.com.vss.resell_platform.search;
+
+import br.com.vss.resell_platform.model.Item;
+import br.com.vss.resell_platform.util.Category;
+import br.com.vss.resell_platform.util.Condition;
+import br.com.vss.resell_platform.util.SubCategory;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record IndexedItem(Long id,
+                          Category category,
+                          SubCategory subCategory,
+                          Condition condition,
+                          BigDecimal price,
+                          Integer sizeId,
+                          LocalDateTime listedAt) {
+
+    public static IndexedItem of(Item item) {
+        return new IndexedItem(item.getId(), item.getCategory(), item.getSubCategory(), item.getCondition(),
+                item.getPrice(), item.getSize() != null ? item.getSize().getId() : null, item.getListedAt());
+    }
+}
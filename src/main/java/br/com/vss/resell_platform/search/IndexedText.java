@@ -0,0 +1,17 @@
+package br.com.vss.resell_platform.search;
+
+import br.com.vss.resell_platform.model.Item;
+
+import java.time.LocalDateTime;
+
+public record IndexedText(Long id,
+                          Long version,
+                          String name,
+                          String brand,
+                          LocalDateTime listedAt) {
+
+    public static IndexedText of(Item item) {
+        return new IndexedText(item.getId(), item.getVersion(), item.getName(),
+                item.getBrand() != null ? item.getBrand().getName() : null, item.getListedAt());
+    }
+}
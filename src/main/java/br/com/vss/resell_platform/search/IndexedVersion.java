@@ -0,0 +1,4 @@
+package br.com.vss.resell_platform.search;
+
+public record IndexedVersion(Long id, Long version) {
+}
@@ -0,0 +1,369 @@
+package br.com.vss.resell_platform.search;
+
+import br.com.vss.resell_platform.controller.dto.SuggestionDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.IntStream;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Autocomplete over the normalized names and brands of the available items, each phrase weighted by the listings
+ * carrying it. Phrases are numbered in text order at every compaction, so the ones starting with a prefix are one
+ * binary search away and a max tree over their weights picks the most listed of them without walking the range.
+ * Weights follow every save and removal; a phrase nobody had before is served from the next compaction on. Each
+ * compaction keeps the {@code maxPhrases} heaviest phrases, newer ones first among equal weights, and new phrases are
+ * always taken in until then; past twice the cap a save compacts right away so memory stays bounded while loading. A
+ * phrase dropped this way and listed again counts only its listings from then on.
+ */
+public class SuggestIndex {
+
+    private record Range(int from, int to, int best) {
+    }
+
+    private static final int NONE = DocTable.NONE;
+    private static final int MAX_LENGTH = 64;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int maxPhrases;
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder queryNanos = new LongAdder();
+
+    // phrases numbered as they are first seen, the first `served` of them in text order as of the last compaction
+    private Map<String, Integer> phraseIds;
+    private String[] phrases;
+    private int[] weights;
+    private int phraseCount;
+    private int unlisted;
+    private int served;
+    private int[] tree;
+    private int leaves;
+
+    // what every item counted for, so a save or removal can take it back
+    private DocTable slots;
+    private int[] nameOf;
+    private int[] brandOf;
+    private int[] freeSlots;
+    private int freeCount;
+    private int slotCount;
+
+    public SuggestIndex(int maxPhrases) {
+        this.maxPhrases = maxPhrases;
+        reset();
+    }
+
+    public void upsert(IndexedText item) {
+        String name = phrase(item.name());
+        String brand = phrase(item.brand());
+
+        lock.writeLock().lock();
+        try {
+            int slot = slots.get(item.id());
+            if (slot == NONE) {
+                slot = newSlot();
+                slots.put(item.id(), slot);
+            } else {
+                release(nameOf[slot]);
+                release(brandOf[slot]);
+            }
+            nameOf[slot] = acquire(name);
+            brandOf[slot] = brand.equals(name) ? NONE : acquire(brand);
+            if (phraseIds.size() >= 2L * maxPhrases) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            int slot = slots.remove(id);
+            if (slot == NONE) {
+                return;
+            }
+            release(nameOf[slot]);
+            release(brandOf[slot]);
+            nameOf[slot] = NONE;
+            brandOf[slot] = NONE;
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+            }
+            freeSlots[freeCount++] = slot;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            reset();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // renumbers the phrases in text order, taking in the new ones and dropping the ones no listing carries anymore,
+    // then the lightest ones past the cap; new phrases are numbered after the served ones, so the higher id is newer
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            if (phraseCount == served && unlisted == 0) {
+                return;
+            }
+
+            String[] live = IntStream.range(0, phraseCount)
+                    .filter(id -> weights[id] > 0)
+                    .boxed()
+                    .sorted((a, b) -> weights[a] != weights[b]
+                            ? Integer.compare(weights[b], weights[a])
+                            : Integer.compare(b, a))
+                    .limit(maxPhrases)
+                    .map(id -> phrases[id])
+                    .sorted()
+                    .toArray(String[]::new);
+            int[] renumbered = new int[phraseCount];
+            Arrays.fill(renumbered, NONE);
+            Map<String, Integer> ids = HashMap.newHashMap(live.length);
+            int[] counted = new int[Math.max(16, live.length)];
+            for (int i = 0; i < live.length; i++) {
+                int old = phraseIds.get(live[i]);
+                renumbered[old] = i;
+                counted[i] = weights[old];
+                ids.put(live[i], i);
+            }
+            for (int slot = 0; slot < slotCount; slot++) {
+                nameOf[slot] = nameOf[slot] == NONE ? NONE : renumbered[nameOf[slot]];
+                brandOf[slot] = brandOf[slot] == NONE ? NONE : renumbered[brandOf[slot]];
+            }
+
+            phraseIds = ids;
+            phrases = Arrays.copyOf(live, counted.length);
+            weights = counted;
+            phraseCount = live.length;
+            unlisted = 0;
+            served = live.length;
+            buildTree();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The most listed phrases starting with {@code prefix}, heaviest first and alphabetical on ties. A prefix ending in
+     * a space only completes whole words, so "nike " still suggests "nike" but no longer "nikelab".
+     */
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        String words = phrase(prefix);
+        String typed = TextNormalizer.normalize(prefix);
+        if (words.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        boolean wholeWord = !Character.isLetterOrDigit(typed.charAt(typed.length() - 1));
+
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            // the phrase made of just these words sorts right before the ones continuing them after a space
+            int from = lowerBound(words);
+            int to = lowerBound(words + (wholeWord ? " " : "") + Character.MAX_VALUE);
+
+            // the heaviest of a range splits it in two around itself, each side offering its own heaviest next
+            List<SuggestionDto> suggestions = new ArrayList<>(limit);
+            PriorityQueue<Range> ranges = new PriorityQueue<>((a, b) -> compare(a.best(), b.best()));
+            offer(ranges, from, to);
+            while (!ranges.isEmpty() && suggestions.size() < limit) {
+                Range range = ranges.poll();
+                suggestions.add(new SuggestionDto(phrases[range.best()], weights[range.best()]));
+                offer(ranges, range.from(), range.best());
+                offer(ranges, range.best() + 1, range.to());
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+            queries.increment();
+            queryNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    // phrases tracked, served or waiting for the next compaction, including the ones left without listings since
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return phraseIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // columns, tree and item table, every tracked phrase approximated at 48 bytes for its map entry plus its chars
+    public long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = (long) phrases.length * (Long.BYTES + Integer.BYTES) + (long) tree.length * Integer.BYTES;
+            bytes += slots.memoryBytes() + (long) (nameOf.length + brandOf.length + freeSlots.length) * Integer.BYTES;
+            for (int i = 0; i < phraseCount; i++) {
+                bytes += 48 + phrases[i].length();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getQueries() {
+        return queries.sum();
+    }
+
+    public long getQueryNanos() {
+        return queryNanos.sum();
+    }
+
+    private int acquire(String phrase) {
+        if (phrase.isEmpty()) {
+            return NONE;
+        }
+        Integer id = phraseIds.get(phrase);
+        if (id == null) {
+            if (phraseCount == phrases.length) {
+                phrases = Arrays.copyOf(phrases, phrases.length * 2);
+                weights = Arrays.copyOf(weights, weights.length * 2);
+            }
+            id = phraseCount++;
+            phrases[id] = phrase;
+            phraseIds.put(phrase, id);
+        } else if (weights[id] == 0) {
+            unlisted--;
+        }
+        weights[id]++;
+        update(id);
+        return id;
+    }
+
+    // a phrase left without listings keeps its number and place at weight zero until compaction, in case it comes back
+    private void release(int id) {
+        if (id == NONE) {
+            return;
+        }
+        if (--weights[id] == 0) {
+            unlisted++;
+        }
+        update(id);
+    }
+
+    private int newSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == nameOf.length) {
+            nameOf = Arrays.copyOf(nameOf, nameOf.length * 2);
+            brandOf = Arrays.copyOf(brandOf, brandOf.length * 2);
+        }
+        return slotCount++;
+    }
+
+    private void offer(PriorityQueue<Range> ranges, int from, int to) {
+        if (from < to) {
+            int best = best(from, to);
+            if (weights[best] > 0) {
+                ranges.add(new Range(from, to, best));
+            }
+        }
+    }
+
+    // heaviest served phrase of [from, to)
+    private int best(int from, int to) {
+        int best = NONE;
+        for (int left = from + leaves, right = to + leaves; left < right; left >>= 1, right >>= 1) {
+            if ((left & 1) == 1) {
+                best = better(best, tree[left++]);
+            }
+            if ((right & 1) == 1) {
+                best = better(best, tree[--right]);
+            }
+        }
+        return best;
+    }
+
+    private void update(int id) {
+        if (id >= served) {
+            return;
+        }
+        for (int node = (id + leaves) >> 1; node > 0; node >>= 1) {
+            tree[node] = better(tree[2 * node], tree[2 * node + 1]);
+        }
+    }
+
+    private void buildTree() {
+        leaves = Integer.highestOneBit(Math.max(1, served) * 2 - 1);
+        tree = new int[2 * leaves];
+        Arrays.fill(tree, NONE);
+        for (int i = 0; i < served; i++) {
+            tree[leaves + i] = i;
+        }
+        for (int node = leaves - 1; node > 0; node--) {
+            tree[node] = better(tree[2 * node], tree[2 * node + 1]);
+        }
+    }
+
+    private int better(int phrase, int other) {
+        if (phrase == NONE || other == NONE) {
+            return phrase == NONE ? other : phrase;
+        }
+        return compare(phrase, other) <= 0 ? phrase : other;
+    }
+
+    // negative when the phrase comes first: more listings, then the lower number, which is text order
+    private int compare(int phrase, int other) {
+        int byWeight = Integer.compare(weights[other], weights[phrase]);
+        return byWeight != 0 ? byWeight : Integer.compare(phrase, other);
+    }
+
+    private int lowerBound(String text) {
+        int low = 0;
+        int high = served;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (phrases[middle].compareTo(text) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void reset() {
+        phraseIds = new HashMap<>();
+        phrases = new String[16];
+        weights = new int[16];
+        phraseCount = 0;
+        unlisted = 0;
+        served = 0;
+        buildTree();
+
+        slots = new DocTable(16);
+        nameOf = new int[16];
+        brandOf = new int[16];
+        freeSlots = new int[16];
+        freeCount = 0;
+        slotCount = 0;
+    }
+
+    // the words of a name or brand joined by single spaces, cut at a word boundary when long
+    static String phrase(String text) {
+        String joined = String.join(" ", TextNormalizer.tokens(text));
+        if (joined.length() <= MAX_LENGTH) {
+            return joined;
+        }
+        int cut = joined.lastIndexOf(' ', MAX_LENGTH);
+        return joined.substring(0, cut > 0 ? cut : MAX_LENGTH);
+    }
+}
@@ -0,0 +1,33 @@
+package br.com.vss.resell_platform.search;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+
+public class SuggestIndexMetrics implements MeterBinder {
+
+    private final SuggestIndex suggestIndex;
+
+    public SuggestIndexMetrics(SuggestIndex suggestIndex) {
+        this.suggestIndex = suggestIndex;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("search.suggest.phrases", suggestIndex, SuggestIndex::size)
+                .description("Name and brand phrases tracked for autocomplete")
+                .register(registry);
+        Gauge.builder("search.suggest.memory", suggestIndex, SuggestIndex::memoryBytes)
+                .description("Approximate heap used by the suggest index phrases, tree and item table")
+                .baseUnit(BaseUnits.BYTES)
+                .register(registry);
+        FunctionTimer.builder("search.suggest.queries", suggestIndex, SuggestIndex::getQueries,
+                        SuggestIndex::getQueryNanos, TimeUnit.NANOSECONDS)
+                .description("Prefix lookups answered by the suggest index")
+                .register(registry);
+    }
+}
@@ -0,0 +1,674 @@
+package br.com.vss.resell_platform.search;
+
+import br.com.vss.resell_platform.util.FeedCursor;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Inverted index over item names and brands. Every term has a compressed bitmap of the docs carrying it in each field,
+ * and every doc keeps the ids of its terms so it can be scored and taken out again. A query matches docs holding all of
+ * its words, the last one also as a prefix and a word the index doesn't know within one typo, ranked by BM25 with term
+ * frequencies counted once, names being a handful of words. Removed docs stay scorable until the next compaction, so
+ * a cursor pointing at a sold item still finds its place.
+ */
+public class TextIndex {
+
+    public record Hits(List<Long> ids, boolean hasNext, long total) {
+    }
+
+    private enum Field { NAME, BRAND }
+
+    // term ids in ascending order with the weight of each, looked up for every candidate while ranking
+    private record Token(Field field, int[] terms, float[] weights) {
+
+        float weight(int term) {
+            int at = Arrays.binarySearch(terms, term);
+            return at < 0 ? 0 : weights[at];
+        }
+    }
+
+    private static final int NONE = DocTable.NONE;
+    private static final long NO_VERSION = -1;
+    private static final int MAGIC = 0x52505458;
+    private static final int FORMAT = 1;
+
+    private static final int MAX_FIELD_TERMS = Byte.MAX_VALUE;
+    private static final int MIN_PREFIX = 2;
+    private static final int MIN_FUZZY = 4;
+    private static final int MAX_EXPANSIONS = 64;
+    private static final float PREFIX_WEIGHT = 0.8f;
+    private static final float FUZZY_WEIGHT = 0.6f;
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int compactionThreshold;
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder queryNanos = new LongAdder();
+
+    // terms are numbered as they are first seen, the sorted map serves prefix and typo lookups
+    private NavigableMap<String, Integer> termIds;
+    private List<String> terms;
+    private List<RoaringBitmap> byName;
+    private List<RoaringBitmap> byBrand;
+
+    private long[] ids;
+    private long[] versions;
+    private long[] listedAt;
+    private int[] termStart;
+    private byte[] nameLengths;
+    private byte[] brandLengths;
+    private int[] termPool;
+    private int poolSize;
+    private int docs;
+
+    private DocTable docsById;
+    private RoaringBitmap live;
+    private long nameTermCount;
+    private long brandTermCount;
+
+    public TextIndex(int compactionThreshold) {
+        this.compactionThreshold = compactionThreshold;
+        reset(16);
+    }
+
+    public void upsert(IndexedText item) {
+        List<String> name = fieldTerms(item.name());
+        List<String> brand = fieldTerms(item.brand());
+
+        lock.writeLock().lock();
+        try {
+            int doc = docsById.get(item.id());
+            if (doc != NONE) {
+                unpost(doc);
+            }
+            append(item.id(), item.version() == null ? NO_VERSION : item.version(), FeedIndex.micros(item.listedAt()),
+                    name, brand);
+            if (needsCompaction()) {
+                compactLocked();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            int doc = docsById.get(id);
+            if (doc != NONE) {
+                unpost(doc);
+            }
+            if (needsCompaction()) {
+                compactLocked();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            reset(16);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // renumbers the live docs and drops the terms nobody carries anymore
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            compactLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the items matching every word of both queries, in no particular order. A null or blank query leaves its
+     * field unconstrained.
+     */
+    public long[] match(String name, String brand) {
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            List<RoaringBitmap> required = new ArrayList<>();
+            for (Token token : parse(name, brand, false)) {
+                if (token.terms().length == 0) {
+                    return new long[0];
+                }
+                List<RoaringBitmap> postings = postings(token.field());
+                required.add(token.terms().length == 1
+                        ? postings.get(token.terms()[0])
+                        : FastAggregation.or(Arrays.stream(token.terms()).mapToObj(postings::get).iterator()));
+            }
+
+            RoaringBitmap result;
+            if (required.isEmpty()) {
+                result = live;
+            } else {
+                // smallest first, every intersection after it can only shrink
+                required.sort(Comparator.comparingLong(RoaringBitmap::getLongCardinality));
+                result = required.getFirst().clone();
+                for (int i = 1; i < required.size() && !result.isEmpty(); i++) {
+                    result.and(required.get(i));
+                }
+            }
+
+            int[] matched = result.toArray();
+            long[] matches = new long[matched.length];
+            for (int i = 0; i < matched.length; i++) {
+                matches[i] = ids[matched[i]];
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+            record(start);
+        }
+    }
+
+    /**
+     * The given ids ranked best first, ties broken by feed order, skipping {@code offset} of them and starting after
+     * {@code cursor} when one is given. Ids that are no longer indexed are left out, and of the total as well.
+     */
+    public Hits rank(String name, String brand, long[] candidates, FeedCursor cursor, long offset, int limit) {
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            List<Token> tokens = parse(name, brand, true);
+            float averageName = average(nameTermCount);
+            float averageBrand = average(brandTermCount);
+
+            float cursorScore = 0;
+            long cursorListedAt = 0;
+            if (cursor != null) {
+                // an item compacted away can't be scored anymore, the listing then ends at it
+                int cursorDoc = docsById.get(cursor.id());
+                cursorScore = cursorDoc == NONE ? 0 : score(cursorDoc, tokens, averageName, averageBrand);
+                cursorListedAt = FeedIndex.micros(cursor.listedAt());
+            }
+
+            int[] ranked = new int[candidates.length];
+            float[] scores = new float[candidates.length];
+            int count = 0;
+            for (long id : candidates) {
+                int doc = docsById.get(id);
+                if (doc == NONE || !live.contains(doc)) {
+                    continue;
+                }
+                float score = score(doc, tokens, averageName, averageBrand);
+                if (cursor != null && compare(score, doc, cursorScore, cursorListedAt, cursor.id()) <= 0) {
+                    continue;
+                }
+                ranked[count] = doc;
+                scores[count++] = score;
+            }
+
+            // only the best offset + limit + 1 are kept, the one past the page tells whether there is a next page.
+            // Matches come oldest first, walking them backwards lets the newest settle ties before the rest arrive
+            long wanted = Math.min(count, offset + limit + 1);
+            Comparator<Integer> best = (a, b) -> compare(scores[a], ranked[a], scores[b], ranked[b]);
+            PriorityQueue<Integer> top = new PriorityQueue<>((int) Math.max(1, wanted), best.reversed());
+            for (int i = count - 1; i >= 0; i--) {
+                if (top.size() < wanted) {
+                    top.add(i);
+                } else if (wanted > 0 && best.compare(i, top.peek()) < 0) {
+                    top.poll();
+                    top.add(i);
+                }
+            }
+            Integer[] order = top.toArray(new Integer[0]);
+            Arrays.sort(order, best);
+
+            List<Long> hits = new ArrayList<>(limit);
+            for (long i = offset; i < order.length && hits.size() < limit; i++) {
+                hits.add(ids[ranked[order[(int) i]]]);
+            }
+            return new Hits(hits, order.length > offset + limit, count);
+        } finally {
+            lock.readLock().unlock();
+            record(start);
+        }
+    }
+
+    // NO_VERSION for items that are not indexed, so they never look current
+    public boolean isCurrent(Long id, Long version) {
+        lock.readLock().lock();
+        try {
+            int doc = docsById.get(id);
+            return doc != NONE && live.contains(doc) && versions[doc] == (version == null ? NO_VERSION : version);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ids of the indexed items in ascending order
+    public long[] ids() {
+        lock.readLock().lock();
+        try {
+            int[] alive = live.toArray();
+            long[] indexed = new long[alive.length];
+            for (int i = 0; i < alive.length; i++) {
+                indexed[i] = ids[alive[i]];
+            }
+            Arrays.sort(indexed);
+            return indexed;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the indexed items and their term ids to {@code file}, replacing it in one move once the copy is complete.
+     * The postings are not written, they are rebuilt from the term ids on load without tokenizing again.
+     */
+    public void writeTo(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path written = file.resolveSibling(file.getFileName() + ".tmp");
+        CRC32 checksum = new CRC32();
+
+        lock.readLock().lock();
+        try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(written)), checksum))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT);
+            out.writeInt(terms.size());
+            for (String term : terms) {
+                out.writeUTF(term);
+            }
+            int[] alive = live.toArray();
+            out.writeInt(alive.length);
+            for (int doc : alive) {
+                out.writeLong(ids[doc]);
+                out.writeLong(versions[doc]);
+                out.writeLong(listedAt[doc]);
+                out.writeByte(nameLengths[doc]);
+                out.writeByte(brandLengths[doc]);
+                for (int i = 0; i < nameLengths[doc] + brandLengths[doc]; i++) {
+                    out.writeInt(termPool[termStart[doc] + i]);
+                }
+            }
+            out.writeLong(checksum.getValue());
+        } finally {
+            lock.readLock().unlock();
+        }
+        Files.move(written, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // replaces the content with a file written by writeTo, leaving the index empty when it is unreadable
+    public void readFrom(Path file) throws IOException {
+        CRC32 checksum = new CRC32();
+
+        lock.writeLock().lock();
+        try (DataInputStream in = new DataInputStream(new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(file)), checksum))) {
+            reset(16);
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT) {
+                throw new IOException("Not a text index snapshot: " + file);
+            }
+            String[] stored = new String[in.readInt()];
+            for (int i = 0; i < stored.length; i++) {
+                stored[i] = in.readUTF();
+            }
+
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                long id = in.readLong();
+                long version = in.readLong();
+                long listed = in.readLong();
+                int nameLength = in.readByte();
+                int brandLength = in.readByte();
+                List<String> name = readTerms(in, stored, nameLength);
+                append(id, version, listed, name, readTerms(in, stored, brandLength));
+            }
+
+            long expected = checksum.getValue();
+            if (in.readLong() != expected) {
+                throw new IOException("Text index snapshot is corrupt: " + file);
+            }
+        } catch (IOException | RuntimeException e) {
+            reset(16);
+            throw e instanceof IOException io ? io : new IOException("Text index snapshot is unreadable: " + file, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return live.getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // columns, term pool and bitmaps, the dictionary strings are approximated at 48 bytes a term
+    public long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = (long) ids.length * (Long.BYTES * 3 + Integer.BYTES + 2) + (long) termPool.length * Integer.BYTES;
+            bytes += docsById.memoryBytes() + live.getLongSizeInBytes() + terms.size() * 48L;
+            for (int term = 0; term < terms.size(); term++) {
+                bytes += byName.get(term).getLongSizeInBytes() + byBrand.get(term).getLongSizeInBytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getQueries() {
+        return queries.sum();
+    }
+
+    public long getQueryNanos() {
+        return queryNanos.sum();
+    }
+
+    private List<Token> parse(String name, String brand, boolean weighted) {
+        List<Token> tokens = new ArrayList<>();
+        addTokens(tokens, Field.NAME, name, weighted);
+        addTokens(tokens, Field.BRAND, brand, weighted);
+        return tokens;
+    }
+
+    private void addTokens(List<Token> tokens, Field field, String query, boolean weighted) {
+        List<String> words = fieldTerms(query);
+        for (int i = 0; i < words.size(); i++) {
+            Map<Integer, Float> expansions = expand(words.get(i), i == words.size() - 1, postings(field));
+            int[] terms = expansions.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+            float[] weights = new float[terms.length];
+
+            // one idf for the word and all it expanded to, so a rare completion doesn't outrank the word typed
+            long frequency = 0;
+            for (int term : terms) {
+                frequency += weighted ? postings(field).get(term).getLongCardinality() : 0;
+            }
+            float idf = weighted ? idf(Math.min(frequency, live.getLongCardinality())) : 1;
+            for (int j = 0; j < terms.length; j++) {
+                weights[j] = expansions.get(terms[j]) * idf;
+            }
+            tokens.add(new Token(field, terms, weights));
+        }
+    }
+
+    // the word itself, longer words starting with it when it is the last one typed, and a typo when neither exists
+    private Map<Integer, Float> expand(String word, boolean last, List<RoaringBitmap> postings) {
+        Map<Integer, Float> expansions = new HashMap<>();
+        Integer exact = termIds.get(word);
+        if (exact != null && !postings.get(exact).isEmpty()) {
+            expansions.put(exact, 1f);
+        }
+
+        if (last && word.length() >= MIN_PREFIX) {
+            for (int term : termIds.subMap(word, false, word + Character.MAX_VALUE, false).values()) {
+                if (expansions.size() >= MAX_EXPANSIONS) {
+                    break;
+                }
+                if (!postings.get(term).isEmpty()) {
+                    expansions.put(term, PREFIX_WEIGHT);
+                }
+            }
+        }
+
+        // a typo in the first letter is rare, so only words sharing it are compared
+        if (expansions.isEmpty() && word.length() >= MIN_FUZZY) {
+            String first = word.substring(0, 1);
+            for (Map.Entry<String, Integer> term : termIds.subMap(first, true, first + Character.MAX_VALUE, false).entrySet()) {
+                if (expansions.size() >= MAX_EXPANSIONS) {
+                    break;
+                }
+                if (withinOneEdit(word, term.getKey()) && !postings.get(term.getValue()).isEmpty()) {
+                    expansions.put(term.getValue(), FUZZY_WEIGHT);
+                }
+            }
+        }
+        return expansions;
+    }
+
+    private float score(int doc, List<Token> tokens, float averageName, float averageBrand) {
+        float score = 0;
+        for (Token token : tokens) {
+            boolean brand = token.field() == Field.BRAND;
+            int from = termStart[doc] + (brand ? nameLengths[doc] : 0);
+            int length = brand ? brandLengths[doc] : nameLengths[doc];
+
+            float best = 0;
+            for (int i = from; i < from + length; i++) {
+                best = Math.max(best, token.weight(termPool[i]));
+            }
+            float average = brand ? averageBrand : averageName;
+            score += best * (K1 + 1) / (1 + K1 * (1 - B + B * length / average));
+        }
+        return score;
+    }
+
+    private float idf(long documentFrequency) {
+        long total = live.getLongCardinality();
+        return (float) Math.log(1 + (total - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private float average(long termCount) {
+        long total = live.getLongCardinality();
+        return total == 0 || termCount == 0 ? 1 : (float) termCount / total;
+    }
+
+    // best first: higher score, then the feed order
+    private int compare(float score, int doc, float otherScore, int other) {
+        return compare(score, doc, otherScore, listedAt[other], ids[other]);
+    }
+
+    // negative when the doc ranks before the other one
+    private int compare(float score, int doc, float otherScore, long otherListedAt, long otherId) {
+        int byScore = Float.compare(otherScore, score);
+        if (byScore != 0) {
+            return byScore;
+        }
+        int byListedAt = Long.compare(otherListedAt, listedAt[doc]);
+        return byListedAt != 0 ? byListedAt : Long.compare(otherId, ids[doc]);
+    }
+
+    private void append(long id, long version, long listed, List<String> name, List<String> brand) {
+        if (docs == ids.length) {
+            grow(ids.length * 2);
+        }
+        int needed = name.size() + brand.size();
+        if (poolSize + needed > termPool.length) {
+            termPool = Arrays.copyOf(termPool, Math.max(termPool.length * 2, poolSize + needed));
+        }
+
+        int doc = docs++;
+        ids[doc] = id;
+        versions[doc] = version;
+        listedAt[doc] = listed;
+        termStart[doc] = poolSize;
+        nameLengths[doc] = (byte) name.size();
+        brandLengths[doc] = (byte) brand.size();
+        for (String term : name) {
+            termPool[poolSize++] = termId(term);
+        }
+        for (String term : brand) {
+            termPool[poolSize++] = termId(term);
+        }
+        docsById.put(id, doc);
+        post(doc);
+    }
+
+    private void post(int doc) {
+        live.add(doc);
+        for (int i = 0; i < nameLengths[doc]; i++) {
+            byName.get(termPool[termStart[doc] + i]).add(doc);
+        }
+        for (int i = nameLengths[doc]; i < nameLengths[doc] + brandLengths[doc]; i++) {
+            byBrand.get(termPool[termStart[doc] + i]).add(doc);
+        }
+        nameTermCount += nameLengths[doc];
+        brandTermCount += brandLengths[doc];
+    }
+
+    private void unpost(int doc) {
+        if (!live.contains(doc)) {
+            return;
+        }
+        live.remove(doc);
+        for (int i = 0; i < nameLengths[doc]; i++) {
+            byName.get(termPool[termStart[doc] + i]).remove(doc);
+        }
+        for (int i = nameLengths[doc]; i < nameLengths[doc] + brandLengths[doc]; i++) {
+            byBrand.get(termPool[termStart[doc] + i]).remove(doc);
+        }
+        nameTermCount -= nameLengths[doc];
+        brandTermCount -= brandLengths[doc];
+    }
+
+    private boolean needsCompaction() {
+        long alive = live.getLongCardinality();
+        return docs - alive > Math.max(compactionThreshold, alive);
+    }
+
+    private void compactLocked() {
+        int[] alive = live.toArray();
+        long[] oldIds = ids;
+        long[] oldVersions = versions;
+        long[] oldListedAt = listedAt;
+        int[] oldTermStart = termStart;
+        byte[] oldNameLengths = nameLengths;
+        byte[] oldBrandLengths = brandLengths;
+        int[] oldTermPool = termPool;
+        List<String> oldTerms = terms;
+
+        reset(Math.max(16, alive.length + alive.length / 4));
+        for (int doc : alive) {
+            int from = oldTermStart[doc];
+            int split = from + oldNameLengths[doc];
+            int to = split + oldBrandLengths[doc];
+            append(oldIds[doc], oldVersions[doc], oldListedAt[doc], termsOf(oldTermPool, oldTerms, from, split),
+                    termsOf(oldTermPool, oldTerms, split, to));
+        }
+
+        live.runOptimize();
+        byName.forEach(RoaringBitmap::runOptimize);
+        byBrand.forEach(RoaringBitmap::runOptimize);
+    }
+
+    private void reset(int capacity) {
+        termIds = new TreeMap<>();
+        terms = new ArrayList<>();
+        byName = new ArrayList<>();
+        byBrand = new ArrayList<>();
+
+        ids = new long[0];
+        versions = new long[0];
+        listedAt = new long[0];
+        termStart = new int[0];
+        nameLengths = new byte[0];
+        brandLengths = new byte[0];
+        grow(capacity);
+        termPool = new int[capacity * 4];
+
+        docs = 0;
+        poolSize = 0;
+        docsById = new DocTable(capacity);
+        live = new RoaringBitmap();
+        nameTermCount = 0;
+        brandTermCount = 0;
+    }
+
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+        listedAt = Arrays.copyOf(listedAt, capacity);
+        termStart = Arrays.copyOf(termStart, capacity);
+        nameLengths = Arrays.copyOf(nameLengths, capacity);
+        brandLengths = Arrays.copyOf(brandLengths, capacity);
+    }
+
+    private int termId(String term) {
+        return termIds.computeIfAbsent(term, key -> {
+            terms.add(key);
+            byName.add(new RoaringBitmap());
+            byBrand.add(new RoaringBitmap());
+            return terms.size() - 1;
+        });
+    }
+
+    private List<RoaringBitmap> postings(Field field) {
+        return field == Field.NAME ? byName : byBrand;
+    }
+
+    private void record(long start) {
+        queries.increment();
+        queryNanos.add(System.nanoTime() - start);
+    }
+
+    private static List<String> readTerms(DataInputStream in, String[] dictionary, int count) throws IOException {
+        List<String> found = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            found.add(dictionary[in.readInt()]);
+        }
+        return found;
+    }
+
+    private static List<String> termsOf(int[] pool, List<String> dictionary, int from, int to) {
+        List<String> found = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            found.add(dictionary.get(pool[i]));
+        }
+        return found;
+    }
+
+    // repeated words count once and very long fields are cut, a doc keeps at most a byte's worth of terms a field
+    private static List<String> fieldTerms(String text) {
+        return TextNormalizer.tokens(text).stream().distinct().limit(MAX_FIELD_TERMS).toList();
+    }
+
+    // one insertion, deletion, substitution or swap of neighbours apart
+    static boolean withinOneEdit(String word, String other) {
+        String shorter = word.length() <= other.length() ? word : other;
+        String longer = shorter == word ? other : word;
+        if (longer.length() - shorter.length() > 1) {
+            return false;
+        }
+
+        int i = 0;
+        while (i < shorter.length() && shorter.charAt(i) == longer.charAt(i)) {
+            i++;
+        }
+        if (i == shorter.length()) {
+            return true;
+        }
+        if (shorter.length() < longer.length()) {
+            return shorter.regionMatches(i, longer, i + 1, shorter.length() - i);
+        }
+        return shorter.regionMatches(i + 1, longer, i + 1, shorter.length() - i - 1)
+                || i + 1 < shorter.length()
+                && shorter.charAt(i) == longer.charAt(i + 1) && shorter.charAt(i + 1) == longer.charAt(i)
+                && shorter.regionMatches(i + 2, longer, i + 2, shorter.length() - i - 2);
+    }
+}
@@ -0,0 +1,33 @@
+package br.com.vss.resell_platform.search;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+
+public class TextIndexMetrics implements MeterBinder {
+
+    private final TextIndex textIndex;
+
+    public TextIndexMetrics(TextIndex textIndex) {
+        this.textIndex = textIndex;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("search.text.items", textIndex, TextIndex::size)
+                .description("Available items held by the text index")
+                .register(registry);
+        Gauge.builder("search.text.memory", textIndex, TextIndex::memoryBytes)
+                .description("Approximate heap used by the text index postings, terms and columns")
+                .baseUnit(BaseUnits.BYTES)
+                .register(registry);
+        FunctionTimer.builder("search.text.queries", textIndex, TextIndex::getQueries, TextIndex::getQueryNanos,
+                        TimeUnit.NANOSECONDS)
+                .description("Word matches and rankings answered by the text index")
+                .register(registry);
+    }
+}
@@ -0,0 +1,150 @@
+package br.com.vss.resell_platform.service;
+
+import br.com.vss.resell_platform.model.Brand;
+import br.com.vss.resell_platform.model.Size;
+import br.com.vss.resell_platform.repository.BrandRepository;
+import br.com.vss.resell_platform.repository.SizeRepository;
+import br.com.vss.resell_platform.search.FeedFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * The node's copy of the brand and size dictionaries. Entries are never changed or deleted, so once read they are
+ * kept: saving an item finds its brand and size without a query, and every item of a brand shares one instance of
+ * its name. An entry nobody listed before is inserted in a transaction of its own, so a listing that rolls back never
+ * leaves the node holding an id the table does not have.
+ */
+@Service
+public class DictionaryService {
+
+    private static final Logger log = LoggerFactory.getLogger(DictionaryService.class);
+
+    private final BrandRepository brandRepository;
+    private final SizeRepository sizeRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, Brand> brands = new ConcurrentHashMap<>();
+    private final Map<Integer, Brand> brandsById = new ConcurrentHashMap<>();
+    private final Map<String, Size> sizes = new ConcurrentHashMap<>();
+    private final Map<Integer, Size> sizesById = new ConcurrentHashMap<>();
+
+    public DictionaryService(BrandRepository brandRepository, SizeRepository sizeRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.brandRepository = brandRepository;
+        this.sizeRepository = sizeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        brandRepository.findAll().forEach(this::intern);
+        sizeRepository.findAll().forEach(this::intern);
+
+        log.info("Dictionaries loaded {} brands and {} sizes", brandsById.size(), sizesById.size());
+    }
+
+    // the brand a name belongs to, added the first time anyone lists it, null for a name without words
+    public Brand brand(String name) {
+        String normalized = Brand.normalize(name);
+        if (normalized.isEmpty()) {
+            return null;
+        }
+        Brand brand = brands.get(normalized);
+        if (brand != null) {
+            return brand;
+        }
+        return intern(findOrCreate(() -> brandRepository.findByNormalized(normalized),
+                () -> brandRepository.saveAndFlush(new Brand(name))));
+    }
+
+    public Size size(String size) {
+        String label = Size.canonical(size);
+        if (label == null) {
+            return null;
+        }
+        Size known = sizes.get(label);
+        if (known != null) {
+            return known;
+        }
+        return intern(findOrCreate(() -> sizeRepository.findByLabel(label),
+                () -> sizeRepository.saveAndFlush(new Size(label))));
+    }
+
+    // lookups for the cache serializer, which only swaps names it already knows and reads back ids from any node
+    public Integer brandId(String name) {
+        Brand brand = brands.get(Brand.normalize(name));
+        return brand != null && brand.getName().equals(name) ? brand.getId() : null;
+    }
+
+    public Integer sizeId(String label) {
+        Size size = label == null ? null : sizes.get(label);
+        return size != null ? size.getId() : null;
+    }
+
+    // the id a size filter compares, read from the table when another node listed the size first,
+    // FeedFilter.UNKNOWN_SIZE when nobody has
+    public Integer findSizeId(String size) {
+        String label = Size.canonical(size);
+        if (label == null) {
+            return null;
+        }
+        Size known = sizes.get(label);
+        if (known != null) {
+            return known.getId();
+        }
+        return sizeRepository.findByLabel(label).map(this::intern).map(Size::getId).orElse(FeedFilter.UNKNOWN_SIZE);
+    }
+
+    public Brand findBrand(Integer id) {
+        Brand brand = brandsById.get(id);
+        return brand != null ? brand : brandRepository.findById(id).map(this::intern).orElse(null);
+    }
+
+    public String sizeLabel(int id) {
+        Size size = findSize(id);
+        return size != null ? size.getLabel() : null;
+    }
+
+    public Size findSize(Integer id) {
+        Size size = sizesById.get(id);
+        return size != null ? size : sizeRepository.findById(id).map(this::intern).orElse(null);
+    }
+
+    private Brand intern(Brand brand) {
+        Brand interned = brands.computeIfAbsent(brand.getNormalized(), normalized -> brand);
+        brandsById.putIfAbsent(interned.getId(), interned);
+        return interned;
+    }
+
+    private Size intern(Size size) {
+        Size interned = sizes.computeIfAbsent(size.getLabel(), label -> size);
+        sizesById.putIfAbsent(interned.getId(), interned);
+        return interned;
+    }
+
+    // a unique violation means another node or request inserted the entry first
+    private <T> T findOrCreate(Supplier<Optional<T>> existing, Supplier<T> created) {
+        Optional<T> found = existing.get();
+        if (found.isPresent()) {
+            return found.get();
+        }
+        try {
+            return transactionTemplate.execute(status -> created.get());
+        } catch (DataIntegrityViolationException e) {
+            return transactionTemplate.execute(status -> existing.get()).orElseThrow(() -> e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package br.com.vss.resell_platform.service;
+
+import br.com.vss.resell_platform.controller.dto.ListingExportDto;
+import br.com.vss.resell_platform.controller.dto.SaleExportDto;
+import br.com.vss.resell_platform.repository.ItemRepository;
+import br.com.vss.resell_platform.repository.TransactionRepository;
+import br.com.vss.resell_platform.util.CsvWriter;
+import br.com.vss.resell_platform.util.ExportFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+@Service
+public class ExportService {
+
+    private final ItemRepository itemRepository;
+    private final TransactionRepository transactionRepository;
+    private final ObjectWriter jsonWriter;
+    private final TransactionTemplate transactionTemplate;
+
+    public ExportService(ItemRepository itemRepository, TransactionRepository transactionRepository, ObjectMapper objectMapper,
+                         PlatformTransactionManager transactionManager) {
+        this.itemRepository = itemRepository;
+        this.transactionRepository = transactionRepository;
+        // rows go into the buffered writer, flushing or closing it per row would defeat the buffering
+        this.jsonWriter = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public void exportListings(Long sellerId, ExportFormat format, OutputStream out) throws IOException {
+        export(ListingExportDto.class, () -> itemRepository.streamListings(sellerId), format, out);
+    }
+
+    public void exportSales(Long sellerId, ExportFormat format, OutputStream out) throws IOException {
+        export(SaleExportDto.class, () -> transactionRepository.streamSales(sellerId), format, out);
+    }
+
+    // the cursor only lives inside a transaction, PostgreSQL also ignores the fetch size while autocommit is on
+    private <T extends Record> void export(Class<T> type, Supplier<Stream<T>> rows, ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<T> stream = rows.get()) {
+                    write(type, stream.iterator(), format, writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        writer.flush();
+    }
+
+    private <T extends Record> void write(Class<T> type, Iterator<T> rows, ExportFormat format, Writer writer) throws IOException {
+        switch (format) {
+            case CSV -> {
+                CsvWriter<T> csv = new CsvWriter<>(writer, type);
+                while (rows.hasNext()) {
+                    csv.write(rows.next());
+                }
+            }
+            case NDJSON -> {
+                while (rows.hasNext()) {
+                    jsonWriter.writeValue(writer, rows.next());
+                    writer.write('\n');
+                }
+            }
+        }
+    }
+}
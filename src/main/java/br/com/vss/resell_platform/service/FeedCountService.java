@@ -0,0 +1,36 @@
+package br.com.vss.resell_platform.service;
+
+import br.com.vss.resell_platform.repository.ItemRepository;
+import br.com.vss.resell_platform.repository.ItemSpecification;
+import br.com.vss.resell_platform.search.FeedFilter;
+import br.com.vss.resell_platform.util.Category;
+import br.com.vss.resell_platform.util.Condition;
+import br.com.vss.resell_platform.util.SubCategory;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+@Service
+public class FeedCountService {
+
+    private final ItemRepository itemRepository;
+    private final DictionaryService dictionaryService;
+
+    public FeedCountService(ItemRepository itemRepository, DictionaryService dictionaryService) {
+        this.itemRepository = itemRepository;
+        this.dictionaryService = dictionaryService;
+    }
+
+    @Cacheable(cacheNames = "FeedCounts", keyGenerator = "feedKeyGenerator")
+    public long count(String name, String brand, Category category, SubCategory subCategory,
+                      Condition condition, BigDecimal lowest, BigDecimal highest, String size) {
+        Integer sizeId = dictionaryService.findSizeId(size);
+        if (Objects.equals(sizeId, FeedFilter.UNKNOWN_SIZE)) {
+            return 0;
+        }
+        return itemRepository.count(ItemSpecification.feedFilter(name, brand, category, subCategory,
+                condition, lowest, highest, sizeId));
+    }
+}
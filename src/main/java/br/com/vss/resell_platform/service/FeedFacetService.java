@@ -0,0 +1,49 @@
+package br.com.vss.resell_platform.service;
+
+import br.com.vss.resell_platform.controller.dto.FeedFacetsDto;
+import br.com.vss.resell_platform.repository.ItemRepository;
+import br.com.vss.resell_platform.repository.ItemSpecification;
+import br.com.vss.resell_platform.search.FeedFilter;
+import br.com.vss.resell_platform.util.Category;
+import br.com.vss.resell_platform.util.Condition;
+import br.com.vss.resell_platform.util.ItemStatus;
+import br.com.vss.resell_platform.util.SubCategory;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+
+@Service
+public class FeedFacetService {
+
+    private final ItemRepository itemRepository;
+    private final FeedIndexService feedIndexService;
+    private final TextIndexService textIndexService;
+    private final DictionaryService dictionaryService;
+
+    public FeedFacetService(ItemRepository itemRepository, FeedIndexService feedIndexService,
+                            TextIndexService textIndexService, DictionaryService dictionaryService) {
+        this.itemRepository = itemRepository;
+        this.feedIndexService = feedIndexService;
+        this.textIndexService = textIndexService;
+        this.dictionaryService = dictionaryService;
+    }
+
+    // same rule as the feed itself: the feed index, the text index for name and brand, the database while they load
+    @Cacheable(cacheNames = "FeedFacets", keyGenerator = "feedKeyGenerator", condition = "@itemService.isCacheable(#name, #brand)")
+    public FeedFacetsDto facets(String name, String brand, Category category, SubCategory subCategory,
+                                Condition condition, BigDecimal lowest, BigDecimal highest, String size) {
+        FeedFilter filter = new FeedFilter(category, subCategory, condition, dictionaryService.findSizeId(size),
+                lowest, highest);
+        if (name == null && brand == null && feedIndexService.isReady()) {
+            return feedIndexService.facets(filter).toDto(dictionaryService::sizeLabel);
+        }
+        if ((name != null || brand != null) && textIndexService.isReady() && feedIndexService.isReady()) {
+            return textIndexService.facets(name, brand, filter).toDto(dictionaryService::sizeLabel);
+        }
+
+        return itemRepository.findFeedFacets(ItemSpecification.byStatus(ItemStatus.AVAILABLE)
+                .and(ItemSpecification.likeName(name))
+                .and(ItemSpecification.likeBrand(brand)), filter).toDto(dictionaryService::sizeLabel);
+    }
+}
@@ -0,0 +1,152 @@
+package br.com.vss.resell_platform.service;
+
+import br.com.vss.resell_platform.controller.dto.FeedItemDto;
+import br.com.vss.resell_platform.model.Item;
+import br.com.vss.resell_platform.repository.ItemRepository;
+import br.com.vss.resell_platform.search.FeedFacets;
+import br.com.vss.resell_platform.search.FeedFilter;
+import br.com.vss.resell_platform.search.FeedIndex;
+import br.com.vss.resell_platform.search.IndexSink;
+import br.com.vss.resell_platform.search.IndexedItem;
+import br.com.vss.resell_platform.util.FeedCursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Answers the feed filters from the node's {@link FeedIndex}, which the {@link IndexSyncService} keeps in step with
+ * the items table.
+ */
+@Service
+public class FeedIndexService implements IndexSink<IndexedItem> {
+
+    private final FeedIndex feedIndex;
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    private volatile boolean ready;
+
+    public FeedIndexService(FeedIndex feedIndex, ItemRepository itemRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${feed.index.enabled:true}") boolean enabled) {
+        this.feedIndex = feedIndex;
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    // until the index is filled the feed keeps going to the database
+    public boolean isReady() {
+        return ready;
+    }
+
+    public long count(FeedFilter filter) {
+        return feedIndex.count(filter);
+    }
+
+    public FeedFacets facets(FeedFilter filter) {
+        return feedIndex.facets(filter);
+    }
+
+    public Slice<FeedItemDto> findSlice(FeedFilter filter, FeedCursor cursor, Pageable pageable) {
+        FeedIndex.Hits hits = feedIndex.search(filter, cursor, pageable.getOffset(), pageable.getPageSize());
+        return new SliceImpl<>(findFeedItems(hits.ids()), pageable, hits.hasNext());
+    }
+
+    // only the page's rows are read, in the order an index returned them
+    public List<FeedItemDto> findFeedItems(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, FeedItemDto> rows = itemRepository.findFeedItems(ids).stream()
+                .collect(Collectors.toMap(FeedItemDto::id, Function.identity()));
+        List<FeedItemDto> content = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            FeedItemDto row = rows.get(id);
+            if (row != null) {
+                content.add(row);
+            }
+        }
+        return content;
+    }
+
+    @Override
+    public String name() {
+        return "feed";
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public Collection<Long> load() {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (var items = itemRepository.streamIndexedItems()) {
+                items.forEach(feedIndex::upsert);
+            }
+        });
+        feedIndex.compact();
+        return List.of();
+    }
+
+    @Override
+    public void loaded() {
+        ready = true;
+    }
+
+    @Override
+    public void clear() {
+        feedIndex.clear();
+    }
+
+    @Override
+    public List<IndexedItem> find(List<Long> ids) {
+        return itemRepository.findIndexedItems(ids);
+    }
+
+    @Override
+    public Long idOf(IndexedItem row) {
+        return row.id();
+    }
+
+    @Override
+    public IndexedItem of(Item item) {
+        return IndexedItem.of(item);
+    }
+
+    @Override
+    public void upsert(IndexedItem row) {
+        feedIndex.upsert(row);
+    }
+
+    @Override
+    public void remove(Long id) {
+        feedIndex.remove(id);
+    }
+
+    @Override
+    public long size() {
+        return feedIndex.size();
+    }
+
+    @Override
+    public long memoryBytes() {
+        return feedIndex.memoryBytes();
+    }
+}
@@ -0,0 +1,72 @@
+package br.com.vss.resell_platform.service;
+
+import br.com.vss.resell_platform.cache.IdempotencyStore;
+import br.com.vss.resell_platform.exceptions.IdempotencyConflictException;
+import br.com.vss.resell_platform.exceptions.ItemNotAvailableException;
+import br.com.vss.resell_platform.exceptions.ItemNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+@Service
+public class IdempotencyService {
+
+    private static final String PENDING = "PENDING";
+    private static final String SUCCEEDED = "SUCCEEDED";
+
+    // failures a retry would only repeat are recorded like a success, anything else frees the key for the retry
+    private static final Map<String, Supplier<RuntimeException>> REPLAYABLE = Map.of(
+            ItemNotFoundException.class.getSimpleName(), ItemNotFoundException::new,
+            ItemNotAvailableException.class.getSimpleName(), ItemNotAvailableException::new);
+
+    private final IdempotencyStore store;
+
+    @Value("${idempotency.ttl:24h}")
+    private Duration ttl;
+    @Value("${idempotency.pending-ttl:30s}")
+    private Duration pendingTtl;
+
+    public IdempotencyService(IdempotencyStore store) {
+        this.store = store;
+    }
+
+    public void execute(String scope, String idempotencyKey, Runnable action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            action.run();
+            return;
+        }
+
+        String key = scope + ":" + idempotencyKey;
+        String recorded = store.putIfAbsent(key, PENDING, pendingTtl);
+        if (recorded != null) {
+            replay(recorded);
+            return;
+        }
+
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            String outcome = e.getClass().getSimpleName();
+            if (REPLAYABLE.containsKey(outcome)) {
+                store.put(key, outcome, ttl);
+            } else {
+                store.remove(key);
+            }
+            throw e;
+        }
+        store.put(key, SUCCEEDED, ttl);
+    }
+
+    private void replay(String recorded) {
+        if (PENDING.equals(recorded)) {
+            throw new IdempotencyConflictException();
+        }
+        Supplier<RuntimeException> failure = REPLAYABLE.get(recorded);
+        if (failure != null) {
+            throw failure.get();
+        }
+    }
+}
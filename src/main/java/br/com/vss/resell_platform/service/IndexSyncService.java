@@ -0,0 +1,244 @@
+package br.com.vss.resell_platform.service;
+
+import br.com.vss.resell_platform.cache.FeedGeneration;
+import br.com.vss.resell_platform.model.Item;
+import br.com.vss.resell_platform.search.FeedIndexChange;
+import br.com.vss.resell_platform.search.IndexSink;
+import br.com.vss.resell_platform.util.ItemStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the node's in-memory indexes in step with the items table. Each {@link IndexSink} is loaded once the
+ * application is ready, changes that arrive while it loads are held back and read again afterwards, this node's
+ * writes are applied as they commit and the other nodes' writes arrive as ids over pub/sub and are read back.
+ * A message lost on the way, while the listener reconnects for instance, is caught by comparing the indexed item
+ * versions with the table every so often and after every reconnect.
+ */
+@Service
+public class IndexSyncService implements MessageListener, SubscriptionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexSyncService.class);
+    private static final int REFRESH_CHUNK = 1000;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<Synced<?>> sinks;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final FeedGeneration feedGeneration;
+    private final String channel;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    public IndexSyncService(List<IndexSink<?>> sinks, RedisTemplate<String, Object> redisTemplate,
+                            FeedGeneration feedGeneration, @Value("${feed.index.channel:feed-index}") String channel) {
+        this.sinks = sinks.stream().<Synced<?>>map(Synced::new).toList();
+        this.redisTemplate = redisTemplate;
+        this.feedGeneration = feedGeneration;
+        this.channel = channel;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        sinks.forEach(Synced::load);
+    }
+
+    public void saved(Collection<Item> items) {
+        if (!publishing() || items.isEmpty()) {
+            return;
+        }
+
+        List<Long> ids = items.stream().map(Item::getId).toList();
+        sinks.forEach(sink -> sink.saved(items, ids));
+        redisTemplate.convertAndSend(channel, new FeedIndexChange(nodeId, false, ids).encode());
+    }
+
+    public void removed(Long id) {
+        if (!publishing()) {
+            return;
+        }
+
+        sinks.forEach(sink -> sink.removed(List.of(id)));
+        redisTemplate.convertAndSend(channel, new FeedIndexChange(nodeId, true, List.of(id)).encode());
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        FeedIndexChange change = FeedIndexChange.decode(new String(message.getBody(), StandardCharsets.UTF_8));
+        if (nodeId.equals(change.origin())) {
+            return;
+        }
+
+        for (Synced<?> sink : sinks) {
+            if (change.removal()) {
+                sink.removed(change.ids());
+            } else {
+                sink.refresh(change.ids());
+            }
+        }
+    }
+
+    // the first subscription happens at startup, any later one follows a lost connection and the messages sent meanwhile
+    @Override
+    public void onChannelSubscribed(byte[] channel, long count) {
+        if (subscribed.getAndSet(true)) {
+            CompletableFuture.runAsync(this::reconcile);
+        }
+    }
+
+    /**
+     * Reads again, in every index, the ids a sink keeping versions finds out of step with the table, then bumps the
+     * generation so the feed pages cached from the drifted indexes are not served again.
+     */
+    @Scheduled(fixedDelayString = "${feed.index.reconcile-interval:10m}",
+            initialDelayString = "${feed.index.reconcile-interval:10m}")
+    public synchronized void reconcile() {
+        try {
+            Collection<Long> drifted = sinks.stream()
+                    .map(synced -> synced.sink)
+                    .filter(IndexSink::isEnabled)
+                    .map(IndexSink::drifted)
+                    .filter(Objects::nonNull)
+                    .findFirst()
+                    .orElse(null);
+            if (drifted == null || drifted.isEmpty()) {
+                return;
+            }
+
+            log.warn("{} items were out of step with the indexes, reading them again", drifted.size());
+            sinks.forEach(sink -> sink.refresh(drifted));
+            feedGeneration.bump();
+        } catch (DataAccessException e) {
+            log.warn("The indexes could not be reconciled with the items table", e);
+        }
+    }
+
+    // changes are still sent to the other nodes when only some of their indexes need them
+    private boolean publishing() {
+        return sinks.stream().anyMatch(sink -> sink.sink.isEnabled());
+    }
+
+    private static final class Synced<T> {
+
+        private final IndexSink<T> sink;
+        private final Set<Long> changedWhileLoading = new LinkedHashSet<>();
+        private boolean loading;
+
+        private Synced(IndexSink<T> sink) {
+            this.sink = sink;
+        }
+
+        private void load() {
+            if (!sink.isEnabled()) {
+                return;
+            }
+            synchronized (changedWhileLoading) {
+                loading = true;
+            }
+
+            long start = System.nanoTime();
+            Set<Long> changed = new LinkedHashSet<>();
+            try {
+                changed.addAll(sink.load());
+            } catch (DataAccessException e) {
+                log.warn("The {} index could not be loaded, the requests it serves stay on the database", sink.name(), e);
+                sink.clear();
+                synchronized (changedWhileLoading) {
+                    loading = false;
+                    changedWhileLoading.clear();
+                }
+                return;
+            }
+
+            // writes that committed while the rows were read may be missing from what was loaded
+            synchronized (changedWhileLoading) {
+                loading = false;
+                changed.addAll(changedWhileLoading);
+                changedWhileLoading.clear();
+            }
+            read(changed);
+            sink.loaded();
+
+            log.info("The {} index loaded {} entries in {} ms, about {} KiB", sink.name(), sink.size(),
+                    (System.nanoTime() - start) / 1_000_000, sink.memoryBytes() / 1024);
+        }
+
+        private void saved(Collection<Item> items, List<Long> ids) {
+            if (!sink.isEnabled() || deferWhileLoading(ids)) {
+                return;
+            }
+            for (Item item : items) {
+                if (item.getStatus() == ItemStatus.AVAILABLE) {
+                    sink.upsert(sink.of(item));
+                } else {
+                    sink.remove(item.getId());
+                }
+            }
+        }
+
+        private void removed(List<Long> ids) {
+            if (!sink.isEnabled() || deferWhileLoading(ids)) {
+                return;
+            }
+            ids.forEach(sink::remove);
+        }
+
+        private void refresh(Collection<Long> ids) {
+            if (!sink.isEnabled() || ids.isEmpty() || deferWhileLoading(ids)) {
+                return;
+            }
+            read(ids);
+        }
+
+        // ids that are no longer available come back empty and leave the index
+        private void read(Collection<Long> ids) {
+            List<Long> chunk = new ArrayList<>(Math.min(ids.size(), REFRESH_CHUNK));
+            for (Iterator<Long> remaining = ids.iterator(); remaining.hasNext(); ) {
+                chunk.add(remaining.next());
+                if (chunk.size() == REFRESH_CHUNK || !remaining.hasNext()) {
+                    Set<Long> missing = new HashSet<>(chunk);
+                    for (T row : sink.find(chunk)) {
+                        sink.upsert(row);
+                        missing.remove(sink.idOf(row));
+                    }
+                    missing.forEach(sink::remove);
+                    chunk.clear();
+                }
+            }
+        }
+
+        private boolean deferWhileLoading(Collection<Long> ids) {
+            synchronized (changedWhileLoading) {
+                if (loading) {
+                    changedWhileLoading.addAll(ids);
+                }
+                return loading;
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package br.com.vss.resell_platform.service;
+
+import br.com.vss.resell_platform.cache.FeedGeneration;
+import br.com.vss.resell_platform.controller.dto.ImportReportDto;
+import br.com.vss.resell_platform.controller.dto.ImportRowErrorDto;
+import br.com.vss.resell_platform.controller.dto.ItemRequest;
+import br.com.vss.resell_platform.mapper.ItemMapper;
+import br.com.vss.resell_platform.model.Item;
+import br.com.vss.resell_platform.model.User;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+@Service
+public class ItemImportService {
+
+    private final ObjectReader reader;
+    private final Validator validator;
+    private final ItemMapper itemMapper;
+    private final FeedGeneration feedGeneration;
+    private final IndexSyncService indexSyncService;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${items.import.chunk-size:1000}")
+    private int chunkSize;
+    @Value("${items.import.max-errors:1000}")
+    private int maxErrors;
+
+    public ItemImportService(ObjectMapper objectMapper, Validator validator, ItemMapper itemMapper, FeedGeneration feedGeneration,
+                             IndexSyncService indexSyncService, PlatformTransactionManager transactionManager) {
+        this.reader = objectMapper.readerFor(ItemRequest.class);
+        this.validator = validator;
+        this.itemMapper = itemMapper;
+        this.feedGeneration = feedGeneration;
+        this.indexSyncService = indexSyncService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // accepts NDJSON or a single JSON array, only one chunk of rows is held in memory at a time
+    public ImportReportDto importItems(InputStream body, Long sellerId) throws IOException {
+        Report report = new Report();
+        List<ItemRequest> chunk = new ArrayList<>(chunkSize);
+        List<Integer> chunkRows = new ArrayList<>(chunkSize);
+
+        try (MappingIterator<ItemRequest> rows = reader.readValues(body)) {
+            int row = 0;
+            while (true) {
+                ItemRequest request;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    request = rows.nextValue();
+                    row++;
+                } catch (JsonParseException e) {
+                    // broken syntax leaves nothing to resume from, the rows read so far are still imported
+                    report.reject(++row, List.of("Malformed JSON."));
+                    break;
+                } catch (JsonMappingException e) {
+                    report.reject(++row, List.of(describe(e)));
+                    continue;
+                }
+
+                List<String> violations = validate(request);
+                if (!violations.isEmpty()) {
+                    report.reject(row, violations);
+                    continue;
+                }
+
+                chunk.add(request);
+                chunkRows.add(row);
+                if (chunk.size() == chunkSize) {
+                    persist(chunk, chunkRows, sellerId, report);
+                }
+            }
+        }
+        persist(chunk, chunkRows, sellerId, report);
+
+        if (report.imported > 0) {
+            feedGeneration.bump();
+        }
+        return report.toDto();
+    }
+
+    private void persist(List<ItemRequest> chunk, List<Integer> chunkRows, Long sellerId, Report report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        List<Item> items = new ArrayList<>(chunk.size());
+        try {
+            items.addAll(save(chunk, sellerId));
+        } catch (DataAccessException | PersistenceException | TransactionException e) {
+            // one bad row rolls back the whole chunk, so its rows are saved again one at a time to find it
+            for (int i = 0; i < chunk.size(); i++) {
+                try {
+                    items.addAll(save(List.of(chunk.get(i)), sellerId));
+                } catch (DataAccessException | PersistenceException | TransactionException rowFailure) {
+                    report.reject(chunkRows.get(i), List.of("Item could not be saved."));
+                }
+            }
+        }
+        report.imported += items.size();
+        if (!items.isEmpty()) {
+            indexSyncService.saved(items);
+        }
+
+        chunk.clear();
+        chunkRows.clear();
+    }
+
+    // ids come from the pooled sequence and inserts go out as JDBC batches, clearing keeps the context from growing
+    private List<Item> save(List<ItemRequest> requests, Long sellerId) {
+        return transactionTemplate.execute(status -> {
+            User seller = entityManager.getReference(User.class, sellerId);
+            List<Item> persisted = requests.stream().map(request -> itemMapper.toItem(request, seller)).toList();
+            persisted.forEach(entityManager::persist);
+            entityManager.flush();
+            entityManager.clear();
+            return persisted;
+        });
+    }
+
+    private List<String> validate(ItemRequest request) {
+        return validator.validate(request).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .toList();
+    }
+
+    private static String describe(JsonMappingException e) {
+        String field = e.getPath().stream()
+                .map(JsonMappingException.Reference::getFieldName)
+                .filter(Objects::nonNull)
+                .collect(Collectors.joining("."));
+
+        return field.isEmpty() ? "Malformed item." : "Invalid value for " + field + ".";
+    }
+
+    private class Report {
+
+        private int imported;
+        private int failed;
+        private final List<ImportRowErrorDto> errors = new ArrayList<>();
+
+        void reject(int row, List<String> messages) {
+            failed++;
+            // the count stays exact, only the details are capped so a bad file can't blow up the response
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportRowErrorDto(row, messages));
+            }
+        }
+
+        ImportReportDto toDto() {
+            return new ImportReportDto(imported + failed, imported, failed, errors);
+        }
+    }
+}
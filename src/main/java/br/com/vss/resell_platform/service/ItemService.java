@@ -1,72 +1,208 @@
 package br.com.vss.resell_platform.service;
 
+import br.com.vss.resell_platform.cache.FeedGeneration;
 import br.com.vss.resell_platform.controller.SerializablePage;
+import br.com.vss.resell_platform.controller.dto.FeedFacetsDto;
+import br.com.vss.resell_platform.controller.dto.FeedItemDto;
+import br.com.vss.resell_platform.controller.dto.ItemSummaryDto;
+import br.com.vss.resell_platform.exceptions.InvalidCursorException;
 import br.com.vss.resell_platform.exceptions.ItemNotFoundException;
 import br.com.vss.resell_platform.model.Item;
 import br.com.vss.resell_platform.repository.ItemRepository;
 import br.com.vss.resell_platform.repository.ItemSpecification;
+import br.com.vss.resell_platform.search.FeedFilter;
+import br.com.vss.resell_platform.search.TextIndex;
 import br.com.vss.resell_platform.util.Category;
 import br.com.vss.resell_platform.util.Condition;
+import br.com.vss.resell_platform.util.FeedCursor;
 import br.com.vss.resell_platform.util.SubCategory;
+import br.com.vss.resell_platform.util.TransactionCallbacks;
 import jakarta.transaction.Transactional;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
 public class ItemService {
 
+    public static final Sort FEED_SORT = Sort.by(Sort.Direction.DESC, "listedAt", "id");
+
     private final ItemRepository itemRepository;
+    private final FeedCountService feedCountService;
+    private final ItemSummaryService itemSummaryService;
+    private final FeedGeneration feedGeneration;
+    private final IndexSyncService indexSyncService;
+    private final FeedIndexService feedIndexService;
+    private final FeedFacetService feedFacetService;
+    private final TextIndexService textIndexService;
+    private final DictionaryService dictionaryService;
 
-    public ItemService(ItemRepository itemRepository) {
+    public ItemService(ItemRepository itemRepository, FeedCountService feedCountService,
+                       ItemSummaryService itemSummaryService, FeedGeneration feedGeneration,
+                       IndexSyncService indexSyncService, FeedIndexService feedIndexService,
+                       FeedFacetService feedFacetService, TextIndexService textIndexService,
+                       DictionaryService dictionaryService) {
         this.itemRepository = itemRepository;
+        this.feedCountService = feedCountService;
+        this.itemSummaryService = itemSummaryService;
+        this.feedGeneration = feedGeneration;
+        this.indexSyncService = indexSyncService;
+        this.feedIndexService = feedIndexService;
+        this.feedFacetService = feedFacetService;
+        this.textIndexService = textIndexService;
+        this.dictionaryService = dictionaryService;
     }
 
     public Optional<Item> findById(Long id){
 
-        if (itemRepository.findById(id).isEmpty()) {
-            throw new ItemNotFoundException();
-        }
-        return itemRepository.findById(id);
+        Item item = itemRepository.findById(id).orElseThrow(ItemNotFoundException::new);
+        return Optional.of(item);
+    }
+
+    public ItemSummaryDto findSummary(Long id) {
+        return itemSummaryService.findById(id).orElseThrow(ItemNotFoundException::new);
     }
 
+    // caches are only touched once the write is visible, otherwise a concurrent reader could cache the old row again
     @Transactional
-    @CachePut(cacheNames = "Items")
     public Item save(Item item) {
-        return itemRepository.save(item);
+        Item saved = itemRepository.save(item);
+        TransactionCallbacks.afterCommit(() -> {
+            itemSummaryService.refresh(saved);
+            indexSyncService.saved(List.of(saved));
+            feedGeneration.bump();
+        });
+        return saved;
     }
 
     @Transactional
-    @CacheEvict(cacheNames = "Items")
     public void delete(Long id) {
         itemRepository.deleteById(id);
+        TransactionCallbacks.afterCommit(() -> {
+            itemSummaryService.evict(id);
+            indexSyncService.removed(id);
+            feedGeneration.bump();
+        });
     }
 
     public Page<Item> findAll(Pageable pageable){
         return itemRepository.findAll(pageable);
     }
 
-    @Cacheable(cacheNames = "Items")
-    public SerializablePage<Item> findFiltered(Pageable page, String name, String brand, Category category, SubCategory subCategory,
+    @Cacheable(cacheNames = "FeedPages", keyGenerator = "feedKeyGenerator", condition = "@itemService.isCacheable(#name, #brand)")
+    public SerializablePage<FeedItemDto> findFiltered(Pageable page, String name, String brand, Category category, SubCategory subCategory,
                                    Condition condition, BigDecimal lowest, BigDecimal highest, String size) {
-        List<Item> matches = itemRepository.findAll(ItemSpecification.likeName(name)
-                .and(ItemSpecification.likeBrand(brand)
-                .and(ItemSpecification.byCondition(condition)
-                .and(ItemSpecification.bySize(size))))
-                .and(ItemSpecification.byCategory(category))
-                .and(ItemSpecification.bySubcategory(subCategory)
-                .and(ItemSpecification.betweenPrice(lowest, highest))), page).toList();
-
-        Page<Item> pageResult = new PageImpl<>(matches, page, matches.size());
+        // ranking already walked every match, so the text index hands back the total with the page
+        if (ranked(page, name, brand)) {
+            TextIndex.Hits hits = textIndexService.search(name, brand, new FeedFilter(category, subCategory, condition,
+                    dictionaryService.findSizeId(size), lowest, highest), null, page.getOffset(), page.getPageSize());
+            Page<FeedItemDto> pageResult = new PageImpl<>(feedIndexService.findFeedItems(hits.ids()), page, hits.total());
+            SerializablePage<FeedItemDto> result = new SerializablePage<>(pageResult);
+            result.setRanked(true);
+            return result;
+        }
+
+        Slice<FeedItemDto> matches = feedSlice(null, page, false, name, brand, category, subCategory, condition, lowest,
+                highest, size);
+        long total = servedByIndex(name, brand)
+                ? feedIndexService.count(new FeedFilter(category, subCategory, condition, dictionaryService.findSizeId(size),
+                        lowest, highest))
+                : feedCountService.count(name, brand, category, subCategory, condition, lowest, highest, size);
+
+        Page<FeedItemDto> pageResult = new PageImpl<>(matches.getContent(), page, total);
         return new SerializablePage<>(pageResult);
     }
 
+    @Cacheable(cacheNames = "FeedPages", keyGenerator = "feedKeyGenerator", condition = "@itemService.isCacheable(#name, #brand)")
+    public SerializablePage<FeedItemDto> findFilteredSlice(Pageable page, String name, String brand, Category category, SubCategory subCategory,
+                                                    Condition condition, BigDecimal lowest, BigDecimal highest, String size) {
+        boolean ranked = ranked(page, name, brand);
+        Slice<FeedItemDto> slice = feedSlice(null, page, ranked, name, brand, category, subCategory, condition, lowest,
+                highest, size);
+
+        SerializablePage<FeedItemDto> result = new SerializablePage<>(slice);
+        result.setRanked(ranked);
+        return result;
+    }
+
+    @Cacheable(cacheNames = "FeedPages", keyGenerator = "feedKeyGenerator", condition = "@itemService.isCacheable(#name, #brand)")
+    public SerializablePage<FeedItemDto> findFilteredAfter(FeedCursor cursor, int pageSize, String name, String brand, Category category,
+                                                    SubCategory subCategory, Condition condition, BigDecimal lowest,
+                                                    BigDecimal highest, String size) {
+        Pageable page = PageRequest.of(0, pageSize, FEED_SORT);
+        boolean ranked = ranked(page, name, brand);
+        // a cursor only continues the order it was listed in, the text index may have loaded or failed in between
+        if (cursor.order() != (ranked ? FeedCursor.Order.RELEVANCE : FeedCursor.Order.FEED)) {
+            throw new InvalidCursorException();
+        }
+        Slice<FeedItemDto> slice = feedSlice(cursor, page, ranked, name, brand, category, subCategory, condition, lowest,
+                highest, size);
+
+        SerializablePage<FeedItemDto> result = new SerializablePage<>(slice);
+        result.setRanked(ranked);
+        return result;
+    }
+
+    /**
+     * Whether a feed answer may be cached. The database answers name and brand searches in feed order while the text
+     * index loads, the index ranks them by relevance once it is ready, and both would be cached under the same key.
+     */
+    public boolean isCacheable(String name, String brand) {
+        return (name == null && brand == null) || servedByText(name, brand)
+                || !textIndexService.isEnabled() || !feedIndexService.isEnabled();
+    }
+
+    public FeedFacetsDto findFacets(String name, String brand, Category category, SubCategory subCategory,
+                                    Condition condition, BigDecimal lowest, BigDecimal highest, String size) {
+        return feedFacetService.facets(name, brand, category, subCategory, condition, lowest, highest, size);
+    }
+
+    // ranked is decided once by the caller, so the page and the cursor made from it agree on the order
+    private Slice<FeedItemDto> feedSlice(FeedCursor cursor, Pageable page, boolean ranked, String name, String brand,
+                                         Category category, SubCategory subCategory, Condition condition, BigDecimal lowest,
+                                         BigDecimal highest, String size) {
+        FeedFilter filter = new FeedFilter(category, subCategory, condition, dictionaryService.findSizeId(size),
+                lowest, highest);
+        if (servedByIndex(name, brand) && FEED_SORT.equals(page.getSort())) {
+            return feedIndexService.findSlice(filter, cursor, page);
+        }
+        if (ranked) {
+            TextIndex.Hits hits = textIndexService.search(name, brand, filter, cursor, page.getOffset(), page.getPageSize());
+            return new SliceImpl<>(feedIndexService.findFeedItems(hits.ids()), page, hits.hasNext());
+        }
+
+        if (Objects.equals(filter.sizeId(), FeedFilter.UNKNOWN_SIZE)) {
+            // no item was ever listed in this size
+            return new SliceImpl<>(List.of(), page, false);
+        }
+        return itemRepository.findFeedSlice(ItemSpecification.feedFilter(name, brand, category, subCategory,
+                        condition, lowest, highest, filter.sizeId())
+                .and(ItemSpecification.seekAfter(cursor)), page);
+    }
+
+    // the feed index knows the enum, size and price filters, name and brand need the text index
+    private boolean servedByIndex(String name, String brand) {
+        return name == null && brand == null && feedIndexService.isReady();
+    }
+
+    // text searches are ranked by relevance once the text index is loaded, the feed index still applies the other filters
+    private boolean servedByText(String name, String brand) {
+        return (name != null || brand != null) && textIndexService.isReady() && feedIndexService.isReady();
+    }
+
+    private boolean ranked(Pageable page, String name, String brand) {
+        return servedByText(name, brand) && FEED_SORT.equals(page.getSort());
+    }
+
 }
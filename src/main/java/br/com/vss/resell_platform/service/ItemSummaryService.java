@@ -0,0 +1,36 @@
+package br.com.vss.resell_platform.service;
+
+import br.com.vss.resell_platform.controller.dto.ItemSummaryDto;
+import br.com.vss.resell_platform.model.Item;
+import br.com.vss.resell_platform.repository.ItemRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+@Service
+public class ItemSummaryService {
+
+    private final ItemRepository itemRepository;
+
+    public ItemSummaryService(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    // an empty result is cached as well, so probing unknown ids doesn't reach the database
+    @Cacheable(cacheNames = "Items", key = "#id")
+    public Optional<ItemSummaryDto> findById(Long id) {
+        return itemRepository.findSummaryById(id);
+    }
+
+    @CachePut(cacheNames = "Items", key = "#item.id")
+    public Optional<ItemSummaryDto> refresh(Item item) {
+        return Optional.of(ItemSummaryDto.of(item));
+    }
+
+    @CacheEvict(cacheNames = "Items", key = "#id")
+    public void evict(Long id) {
+    }
+}
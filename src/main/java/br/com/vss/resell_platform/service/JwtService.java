@@ -1,5 +1,7 @@
 package br.com.vss.resell_platform.service;
 
+import br.com.vss.resell_platform.config.AuthenticatedUser;
+import br.com.vss.resell_platform.config.ClaimsAuthenticationConverter;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -33,6 +35,7 @@ public class JwtService {
                 .issuedAt(now)
                 .expiresAt(now.plus(14, ChronoUnit.DAYS))
                 .subject(authentication.getName())
+                .claim(ClaimsAuthenticationConverter.USER_ID_CLAIM, AuthenticatedUser.from(authentication).id())
                 .claim("scope", scopes)
                 .build();
 
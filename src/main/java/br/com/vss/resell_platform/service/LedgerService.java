@@ -0,0 +1,77 @@
+package br.com.vss.resell_platform.service;
+
+import br.com.vss.resell_platform.controller.dto.BalanceDto;
+import br.com.vss.resell_platform.exceptions.UserNotFoundException;
+import br.com.vss.resell_platform.model.Item;
+import br.com.vss.resell_platform.model.LedgerEntry;
+import br.com.vss.resell_platform.model.User;
+import br.com.vss.resell_platform.repository.LedgerEntryRepository;
+import br.com.vss.resell_platform.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+@Service
+public class LedgerService {
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${ledger.batch-size:500}")
+    private int batchSize;
+
+    public LedgerService(LedgerEntryRepository ledgerEntryRepository, UserRepository userRepository,
+                         PlatformTransactionManager transactionManager) {
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // the seller row is left alone here, so a popular seller's sales don't queue on one lock
+    public void recordSale(Item item, User seller, User buyer, BigDecimal commission) {
+        ledgerEntryRepository.save(new LedgerEntry(item.getId(), seller.getId(), buyer.getId(), item.getPrice(), commission));
+    }
+
+    public BalanceDto balance(Long userId) {
+        return ledgerEntryRepository.findBalance(userId).orElseThrow(UserNotFoundException::new);
+    }
+
+    @Scheduled(fixedDelayString = "${ledger.settle-interval:1s}")
+    public void settle() {
+        // keep draining while batches come back full
+        int settled;
+        do {
+            settled = settleBatch();
+        } while (settled == batchSize);
+    }
+
+    int settleBatch() {
+        Integer settled = transactionTemplate.execute(status -> {
+            // SKIP LOCKED lets several nodes settle at once without picking the same entries
+            List<LedgerEntry> entries = ledgerEntryRepository.findUnsettledForUpdateSkipLocked(PageRequest.of(0, batchSize));
+            if (entries.isEmpty()) {
+                return 0;
+            }
+
+            // sellers are credited in id order so concurrent batches take the user row locks in the same order
+            Map<Long, BigDecimal> deltas = entries.stream().collect(Collectors.groupingBy(LedgerEntry::getSellerId,
+                    TreeMap::new, Collectors.reducing(BigDecimal.ZERO, LedgerEntry::getCredit, BigDecimal::add)));
+            deltas.forEach(userRepository::addToBalance);
+
+            ledgerEntryRepository.markSettled(entries.stream().map(LedgerEntry::getId).toList(), LocalDateTime.now());
+            return entries.size();
+        });
+        return settled == null ? 0 : settled;
+    }
+}
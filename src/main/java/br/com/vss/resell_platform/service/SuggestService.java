@@ -0,0 +1,129 @@
+package br.com.vss.resell_platform.service;
+
+import br.com.vss.resell_platform.controller.dto.SuggestionDto;
+import br.com.vss.resell_platform.model.Item;
+import br.com.vss.resell_platform.repository.ItemRepository;
+import br.com.vss.resell_platform.search.IndexSink;
+import br.com.vss.resell_platform.search.IndexedText;
+import br.com.vss.resell_platform.search.SuggestIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Answers /suggest from the node's {@link SuggestIndex}, which the {@link IndexSyncService} fills once the application
+ * is ready and keeps in step with the items table. Phrases new since the last pass are taken in every
+ * {@code search.suggest.refresh-interval}.
+ */
+@Service
+public class SuggestService implements IndexSink<IndexedText> {
+
+    private static final int MAX_LIMIT = 20;
+
+    private final SuggestIndex suggestIndex;
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    private volatile boolean ready;
+
+    public SuggestService(SuggestIndex suggestIndex, ItemRepository itemRepository,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${search.suggest.enabled:true}") boolean enabled) {
+        this.suggestIndex = suggestIndex;
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    @Override
+    public String name() {
+        return "suggest";
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Scheduled(fixedDelayString = "${search.suggest.refresh-interval:10s}")
+    public void compact() {
+        if (ready) {
+            suggestIndex.compact();
+        }
+    }
+
+    // empty until the index is loaded, a missing suggestion is better than a slow one
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        if (!ready || prefix == null) {
+            return List.of();
+        }
+        return suggestIndex.suggest(prefix, Math.clamp(limit, 1, MAX_LIMIT));
+    }
+
+    @Override
+    public Collection<Long> load() {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (var items = itemRepository.streamIndexedTexts()) {
+                items.forEach(suggestIndex::upsert);
+            }
+        });
+        return List.of();
+    }
+
+    @Override
+    public void loaded() {
+        suggestIndex.compact();
+        ready = true;
+    }
+
+    @Override
+    public void clear() {
+        suggestIndex.clear();
+    }
+
+    @Override
+    public List<IndexedText> find(List<Long> ids) {
+        return itemRepository.findIndexedTexts(ids);
+    }
+
+    @Override
+    public Long idOf(IndexedText row) {
+        return row.id();
+    }
+
+    @Override
+    public IndexedText of(Item item) {
+        return IndexedText.of(item);
+    }
+
+    @Override
+    public void upsert(IndexedText row) {
+        suggestIndex.upsert(row);
+    }
+
+    @Override
+    public void remove(Long id) {
+        suggestIndex.remove(id);
+    }
+
+    @Override
+    public long size() {
+        return suggestIndex.size();
+    }
+
+    @Override
+    public long memoryBytes() {
+        return suggestIndex.memoryBytes();
+    }
+}
@@ -0,0 +1,247 @@
+package br.com.vss.resell_platform.service;
+
+import br.com.vss.resell_platform.model.Item;
+import br.com.vss.resell_platform.repository.ItemRepository;
+import br.com.vss.resell_platform.search.FeedFacets;
+import br.com.vss.resell_platform.search.FeedFilter;
+import br.com.vss.resell_platform.search.FeedIndex;
+import br.com.vss.resell_platform.search.IndexSink;
+import br.com.vss.resell_platform.search.IndexedText;
+import br.com.vss.resell_platform.search.IndexedVersion;
+import br.com.vss.resell_platform.search.TextIndex;
+import br.com.vss.resell_platform.util.FeedCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Keeps the node's {@link TextIndex} on disk and answers name and brand searches from it. At startup the last
+ * snapshot is read back and only the items whose version moved since are re-read, without one the index is rebuilt
+ * from the table. Changes reach it through the {@link IndexSyncService}, like the other indexes.
+ */
+@Service
+public class TextIndexService implements IndexSink<IndexedText> {
+
+    private static final Logger log = LoggerFactory.getLogger(TextIndexService.class);
+
+    private final TextIndex textIndex;
+    private final FeedIndex feedIndex;
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Path snapshot;
+
+    private volatile boolean ready;
+    private volatile boolean dirty;
+    private boolean restored;
+
+    public TextIndexService(TextIndex textIndex, FeedIndex feedIndex, ItemRepository itemRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${search.text.enabled:true}") boolean enabled,
+                            @Value("${search.text.directory:${java.io.tmpdir}/resell-platform/text-index}") String directory) {
+        this.textIndex = textIndex;
+        this.feedIndex = feedIndex;
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.snapshot = Path.of(directory, "items.idx");
+    }
+
+    @Override
+    public String name() {
+        return "text";
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // while the index is rebuilt name and brand searches stay on the database
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public Collection<Long> load() {
+        restored = false;
+        List<Long> stale = restore();
+        if (stale == null) {
+            rebuild();
+            return List.of();
+        }
+        restored = true;
+        return stale;
+    }
+
+    @Override
+    public void loaded() {
+        ready = true;
+        if (!restored) {
+            dirty = true;
+            snapshot();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${search.text.snapshot-interval:5m}")
+    public void snapshot() {
+        if (!ready || !dirty) {
+            return;
+        }
+
+        // cleared first, a write landing while the file is written marks it dirty again
+        dirty = false;
+        try {
+            textIndex.writeTo(snapshot);
+        } catch (IOException e) {
+            dirty = true;
+            log.warn("Text index snapshot could not be written to {}", snapshot, e);
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void close() {
+        snapshot();
+    }
+
+    @Override
+    public void clear() {
+        textIndex.clear();
+    }
+
+    // compared with the table only once loaded, a restore already compares the snapshot it read
+    @Override
+    public Collection<Long> drifted() {
+        if (!ready) {
+            return null;
+        }
+        Drift drift = compare();
+        List<Long> drifted = new ArrayList<>(drift.stale());
+        drifted.addAll(drift.gone());
+        return drifted;
+    }
+
+    @Override
+    public List<IndexedText> find(List<Long> ids) {
+        return itemRepository.findIndexedTexts(ids);
+    }
+
+    @Override
+    public Long idOf(IndexedText row) {
+        return row.id();
+    }
+
+    @Override
+    public IndexedText of(Item item) {
+        return IndexedText.of(item);
+    }
+
+    @Override
+    public void upsert(IndexedText row) {
+        textIndex.upsert(row);
+        dirty = true;
+    }
+
+    @Override
+    public void remove(Long id) {
+        textIndex.remove(id);
+        dirty = true;
+    }
+
+    @Override
+    public long size() {
+        return textIndex.size();
+    }
+
+    @Override
+    public long memoryBytes() {
+        return textIndex.memoryBytes();
+    }
+
+    // words are matched here, the other filters against the feed index columns, and only the survivors are scored
+    public TextIndex.Hits search(String name, String brand, FeedFilter filter, FeedCursor cursor, long offset, int limit) {
+        long[] matches = feedIndex.retain(filter, textIndex.match(name, brand));
+        return textIndex.rank(name, brand, matches, cursor, offset, limit);
+    }
+
+    // the facets of the same matches a search ranks, so the counts agree with its total
+    public FeedFacets facets(String name, String brand, FeedFilter filter) {
+        return feedIndex.facets(filter, textIndex.match(name, brand));
+    }
+
+    // the ids whose version moved since the snapshot, null when there is no usable snapshot
+    private List<Long> restore() {
+        if (!Files.exists(snapshot)) {
+            return null;
+        }
+        try {
+            textIndex.readFrom(snapshot);
+        } catch (IOException e) {
+            log.warn("Text index snapshot {} is unreadable, rebuilding it", snapshot, e);
+            return null;
+        }
+
+        Drift drift = compare();
+        drift.gone().forEach(textIndex::remove);
+        dirty = !drift.gone().isEmpty();
+        return drift.stale();
+    }
+
+    // indexed items whose version moved or that are missing, and indexed items no longer available
+    private record Drift(List<Long> stale, List<Long> gone) {
+    }
+
+    private Drift compare() {
+        // both sides are in id order, so one pass finds the stale items and the ones gone since
+        long[] indexed = textIndex.ids();
+        List<Long> stale = new ArrayList<>();
+        List<Long> gone = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            int next = 0;
+            try (var versions = itemRepository.streamIndexedVersions()) {
+                for (Iterator<IndexedVersion> rows = versions.iterator(); rows.hasNext(); ) {
+                    IndexedVersion row = rows.next();
+                    while (next < indexed.length && indexed[next] < row.id()) {
+                        gone.add(indexed[next++]);
+                    }
+                    if (next < indexed.length && indexed[next] == row.id()) {
+                        next++;
+                    }
+                    if (!textIndex.isCurrent(row.id(), row.version())) {
+                        stale.add(row.id());
+                    }
+                }
+            }
+            while (next < indexed.length) {
+                gone.add(indexed[next++]);
+            }
+        });
+
+        return new Drift(stale, gone);
+    }
+
+    private void rebuild() {
+        textIndex.clear();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (var items = itemRepository.streamIndexedTexts()) {
+                items.forEach(textIndex::upsert);
+            }
+        });
+        textIndex.compact();
+    }
+}
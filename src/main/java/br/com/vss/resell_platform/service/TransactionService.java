@@ -1,13 +1,22 @@
 package br.com.vss.resell_platform.service;
 
+import br.com.vss.resell_platform.cache.FeedGeneration;
+import br.com.vss.resell_platform.controller.dto.ItemSummaryDto;
 import br.com.vss.resell_platform.exceptions.ItemNotAvailableException;
+import br.com.vss.resell_platform.exceptions.ItemNotFoundException;
+import br.com.vss.resell_platform.exceptions.PurchaseConflictException;
 import br.com.vss.resell_platform.model.Item;
 import br.com.vss.resell_platform.model.Transaction;
 import br.com.vss.resell_platform.model.User;
+import br.com.vss.resell_platform.repository.ItemRepository;
 import br.com.vss.resell_platform.repository.TransactionRepository;
 import br.com.vss.resell_platform.util.ItemStatus;
-import jakarta.transaction.Transactional;
+import br.com.vss.resell_platform.util.PurchaseLockingStrategy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 
@@ -16,14 +25,73 @@ public class TransactionService {
 
     private final CommissionService commissionService;
     private final TransactionRepository transactionRepository;
+    private final ItemRepository itemRepository;
+    private final LedgerService ledgerService;
+    private final PlatformTransactionManager transactionManager;
+    private final ItemSummaryService itemSummaryService;
+    private final FeedGeneration feedGeneration;
+    private final IndexSyncService indexSyncService;
 
-    public TransactionService(CommissionService commissionService, TransactionRepository transactionRepository) {
+    @Value("${purchase.locking-strategy:optimistic}")
+    private PurchaseLockingStrategy lockingStrategy;
+    @Value("${purchase.max-attempts:3}")
+    private int maxAttempts;
+
+    public TransactionService(CommissionService commissionService, TransactionRepository transactionRepository,
+                              ItemRepository itemRepository, LedgerService ledgerService,
+                              PlatformTransactionManager transactionManager, ItemSummaryService itemSummaryService,
+                              FeedGeneration feedGeneration, IndexSyncService indexSyncService) {
         this.commissionService = commissionService;
         this.transactionRepository = transactionRepository;
+        this.itemRepository = itemRepository;
+        this.ledgerService = ledgerService;
+        this.transactionManager = transactionManager;
+        this.itemSummaryService = itemSummaryService;
+        this.feedGeneration = feedGeneration;
+        this.indexSyncService = indexSyncService;
+    }
+
+    public void purchaseItem(User buyer, Long itemId) {
+        // unknown and already sold items are rejected from the item cache without touching the database
+        ItemSummaryDto summary = itemSummaryService.findById(itemId).orElseThrow(ItemNotFoundException::new);
+        if (summary.status() != ItemStatus.AVAILABLE) {
+            throw new ItemNotAvailableException();
+        }
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Item sold = transactionTemplate.execute(status -> purchaseLocked(buyer, itemId));
+                itemSummaryService.refresh(sold);
+                indexSyncService.removed(itemId);
+                feedGeneration.bump();
+                return;
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw new PurchaseConflictException();
+                }
+            }
+        }
+    }
+
+    private Item purchaseLocked(User buyer, Long itemId) {
+        if (lockingStrategy == PurchaseLockingStrategy.PESSIMISTIC) {
+            // losers of a flash sale skip the locked row and fail fast instead of queueing on it
+            Item item = itemRepository.findAvailableForUpdateSkipLocked(itemId)
+                    .orElseThrow(ItemNotAvailableException::new);
+
+            purchaseItem(buyer, item.getSeller(), item);
+            return item;
+        }
+
+        // @Version on Item turns a lost race into an optimistic locking failure, which is retried
+        Item item = itemRepository.findById(itemId).orElseThrow(ItemNotFoundException::new);
+        purchaseItem(buyer, item.getSeller(), item);
+        return item;
     }
 
-    @Transactional
-    public void purchaseItem(User buyer, User seller, Item item) {
+    private void purchaseItem(User buyer, User seller, Item item) {
 
         BigDecimal commission = commissionService.calculateCommission(item);
 
@@ -31,12 +99,15 @@ public class TransactionService {
             throw new ItemNotAvailableException();
         }
 
+        item.setStatus(ItemStatus.SOLD);
+
+        // claim the item row before recording the sale, so a lost race fails on the version check
+        transactionRepository.flush();
+
         Transaction transaction = new Transaction(seller, buyer, item);
         transactionRepository.save(transaction);
 
-        seller.setBalance(seller.getBalance().add(item.getPrice().subtract(commission)));
-
-        item.setStatus(ItemStatus.SOLD);
+        ledgerService.recordSale(item, seller, buyer, commission);
     }
 
 }
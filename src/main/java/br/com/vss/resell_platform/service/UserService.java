@@ -1,9 +1,12 @@
 package br.com.vss.resell_platform.service;
 
+import br.com.vss.resell_platform.config.CachingAuthenticationProvider;
 import br.com.vss.resell_platform.exceptions.EmailAlreadyTakenException;
 import br.com.vss.resell_platform.exceptions.UsernameAlreadyTakenException;
 import br.com.vss.resell_platform.model.User;
 import br.com.vss.resell_platform.repository.UserRepository;
+import br.com.vss.resell_platform.util.TransactionCallbacks;
+import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -13,9 +16,11 @@ import java.util.Optional;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final CachingAuthenticationProvider authenticationProvider;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, CachingAuthenticationProvider authenticationProvider) {
         this.userRepository = userRepository;
+        this.authenticationProvider = authenticationProvider;
     }
 
     public void save(User user) {
@@ -29,10 +34,25 @@ public class UserService {
         userRepository.save(user);
     }
 
+    @Transactional
+    public void changePassword(String username, String encodedPassword) {
+        User user = userRepository.findByUsername(username).orElseThrow();
+        user.setPassword(encodedPassword);
+        userRepository.save(user);
+
+        // the old password keeps working from the credential cache until this runs
+        TransactionCallbacks.afterCommit(() -> authenticationProvider.invalidate(username));
+    }
+
     public List<User> findAll() {
         return userRepository.findAll();
     }
 
+    // a proxy carrying only the id, enough to reference the user from a new row without selecting it
+    public User getReference(Long id) {
+        return userRepository.getReferenceById(id);
+    }
+
     public Optional<User> findByUsername(String username) {
 
         Optional<User> newUser;
@@ -0,0 +1,53 @@
+package br.com.vss.resell_platform.util;
+
+import br.com.vss.resell_platform.controller.dto.FeedItemDto;
+import br.com.vss.resell_platform.exceptions.InvalidCursorException;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * The last item of a feed page and the order the page was listed in: a cursor from a relevance ranked search only
+ * continues that ranking, one from the feed order only the feed order.
+ */
+public record FeedCursor(LocalDateTime listedAt, Long id, Order order) implements Serializable {
+
+    public enum Order {
+        FEED,
+        RELEVANCE
+    }
+
+    private static final String SEPARATOR = "|";
+    private static final String FEED = "F";
+    private static final String RELEVANCE = "R";
+
+    public FeedCursor(LocalDateTime listedAt, Long id) {
+        this(listedAt, id, Order.FEED);
+    }
+
+    public static FeedCursor of(FeedItemDto item, Order order) {
+        return new FeedCursor(item.listedAt(), item.id(), order);
+    }
+
+    public static FeedCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", 3);
+            Order order = switch (parts[2]) {
+                case FEED -> Order.FEED;
+                case RELEVANCE -> Order.RELEVANCE;
+                default -> throw new InvalidCursorException();
+            };
+
+            return new FeedCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]), order);
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    public String encode() {
+        String raw = listedAt + SEPARATOR + id + SEPARATOR + (order == Order.RELEVANCE ? RELEVANCE : FEED);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,6 @@
+package br.com.vss.resell_platform.util;
+
+public enum PurchaseLockingStrategy {
+    OPTIMISTIC,
+    PESSIMISTIC
+}
@@ -0,0 +1,157 @@
+package db.migration.common;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+
+/**
+ * Fills the brand and size dictionaries from the text the items carried. A brand is named after its most listed
+ * spelling. Items are pointed at their entry through a table of spellings, one update for the whole table instead of
+ * one per spelling. The normalization is a copy of Brand.normalize and Size.canonical as they were when this migration
+ * was written, so later changes to them do not change what it does.
+ */
+public class V7__BackfillBrandAndSizeIds extends BaseJavaMigration {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WORD_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern SIZE_SEPARATORS = Pattern.compile("[^A-Z0-9.]+");
+    private static final Pattern DECIMAL_ZEROS = Pattern.compile("^(\\d+)\\.0+$");
+    private static final int SIZE_LENGTH = 64;
+    private static final Map<String, String> SIZE_SYNONYMS = Map.ofEntries(
+            Map.entry("XSMALL", "XS"), Map.entry("X SMALL", "XS"), Map.entry("EXTRA SMALL", "XS"),
+            Map.entry("SMALL", "S"),
+            Map.entry("MEDIUM", "M"),
+            Map.entry("LARGE", "L"),
+            Map.entry("XLARGE", "XL"), Map.entry("X LARGE", "XL"), Map.entry("EXTRA LARGE", "XL"),
+            Map.entry("XXLARGE", "XXL"), Map.entry("2XL", "XXL"),
+            Map.entry("PEQUENO", "P"),
+            Map.entry("MEDIO", "M"),
+            Map.entry("GRANDE", "G"),
+            Map.entry("EXTRA GRANDE", "GG"),
+            Map.entry("UNICO", "U"), Map.entry("TAMANHO UNICO", "U"), Map.entry("ONE SIZE", "U"));
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+
+        Map<String, String> brands = spellings(connection, "brand", V7__BackfillBrandAndSizeIds::brand);
+        Map<String, Integer> brandIds = new HashMap<>();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO tb_brands (id, name, normalized) VALUES (?, ?, ?)")) {
+            for (Map.Entry<String, String> brand : brands.entrySet()) {
+                if (!brandIds.containsKey(brand.getValue())) {
+                    brandIds.put(brand.getValue(), brandIds.size() + 1);
+                    insert.setInt(1, brandIds.size());
+                    insert.setString(2, brand.getKey().strip());
+                    insert.setString(3, brand.getValue());
+                    insert.addBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        assign(connection, "brand", "brand_id", brands, brandIds);
+        restart(connection, "tb_brands_seq", brandIds.size() + 1);
+
+        Map<String, String> sizes = spellings(connection, "size", V7__BackfillBrandAndSizeIds::size);
+        Map<String, Integer> sizeIds = new HashMap<>();
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO tb_sizes (id, label) VALUES (?, ?)")) {
+            for (String label : sizes.values()) {
+                if (!sizeIds.containsKey(label)) {
+                    sizeIds.put(label, sizeIds.size() + 1);
+                    insert.setInt(1, sizeIds.size());
+                    insert.setString(2, label);
+                    insert.addBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        assign(connection, "size", "size_id", sizes, sizeIds);
+        restart(connection, "tb_sizes_seq", sizeIds.size() + 1);
+    }
+
+    // the words of the name in lower case without accents
+    private static String brand(String name) {
+        List<String> words = new ArrayList<>();
+        for (String word : WORD_SEPARATORS.split(withoutAccents(name))) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return String.join(" ", words);
+    }
+
+    // upper case words without accents, decimal commas as points and spelled out sizes as their letters
+    private static String size(String size) {
+        String words = String.join(" ", SIZE_SEPARATORS.split(withoutAccents(size)
+                .toUpperCase(Locale.ROOT).replace(',', '.'))).strip();
+        if (words.isEmpty()) {
+            return null;
+        }
+        words = DECIMAL_ZEROS.matcher(SIZE_SYNONYMS.getOrDefault(words, words)).replaceFirst("$1");
+        return words.length() <= SIZE_LENGTH ? words : words.substring(0, SIZE_LENGTH);
+    }
+
+    private static String withoutAccents(String text) {
+        return MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    // every spelling of the column with the entry it belongs to, most listed first, leaving out the blank ones
+    private static Map<String, String> spellings(Connection connection, String column, UnaryOperator<String> entry)
+            throws SQLException {
+        Map<String, String> spellings = new LinkedHashMap<>();
+        try (Statement select = connection.createStatement();
+             ResultSet rows = select.executeQuery("SELECT " + column + " FROM tb_items WHERE " + column + " IS NOT NULL "
+                     + "GROUP BY " + column + " ORDER BY COUNT(*) DESC, " + column)) {
+            while (rows.next()) {
+                String spelling = rows.getString(1);
+                String key = entry.apply(spelling);
+                if (key != null && !key.isEmpty()) {
+                    spellings.put(spelling, key);
+                }
+            }
+        }
+        return spellings;
+    }
+
+    private static void assign(Connection connection, String column, String idColumn, Map<String, String> spellings,
+                               Map<String, Integer> ids) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE tb_dictionary_spellings (spelling VARCHAR(255) NOT NULL PRIMARY KEY, "
+                    + "id INTEGER NOT NULL)");
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO tb_dictionary_spellings (spelling, id) VALUES (?, ?)")) {
+            for (Map.Entry<String, String> spelling : spellings.entrySet()) {
+                insert.setString(1, spelling.getKey());
+                insert.setInt(2, ids.get(spelling.getValue()));
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE tb_items SET " + idColumn + " = (SELECT s.id FROM tb_dictionary_spellings s "
+                    + "WHERE s.spelling = tb_items." + column + ") WHERE " + column + " IS NOT NULL");
+            statement.execute("DROP TABLE tb_dictionary_spellings");
+        }
+    }
+
+    private static void restart(Connection connection, String sequence, int next) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + next);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+CREATE SEQUENCE IF NOT EXISTS tb_users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS tb_items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS tb_transactions_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS tb_users (
+    id         BIGINT NOT NULL,
+    username   VARCHAR(255),
+    password   VARCHAR(255),
+    email      VARCHAR(255),
+    balance    NUMERIC(38, 2),
+    created_at TIMESTAMP(6),
+    CONSTRAINT pk_tb_users PRIMARY KEY (id),
+    CONSTRAINT uk_tb_users_username UNIQUE (username),
+    CONSTRAINT uk_tb_users_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS tb_items (
+    id           BIGINT NOT NULL,
+    name         VARCHAR(255),
+    brand        VARCHAR(255),
+    category     SMALLINT,
+    sub_category SMALLINT,
+    condition    SMALLINT,
+    price        NUMERIC(38, 2),
+    size         VARCHAR(255),
+    user_id      BIGINT,
+    status       SMALLINT,
+    listed_at    TIMESTAMP(6),
+    CONSTRAINT pk_tb_items PRIMARY KEY (id),
+    CONSTRAINT fk_tb_items_user FOREIGN KEY (user_id) REFERENCES tb_users (id)
+);
+
+CREATE TABLE IF NOT EXISTS tb_transactions (
+    id          BIGINT NOT NULL,
+    sender_id   BIGINT,
+    receiver_id BIGINT,
+    product_id  BIGINT,
+    amount      NUMERIC(38, 2),
+    created_at  TIMESTAMP(6),
+    CONSTRAINT pk_tb_transactions PRIMARY KEY (id),
+    CONSTRAINT uk_tb_transactions_product UNIQUE (product_id),
+    CONSTRAINT fk_tb_transactions_sender FOREIGN KEY (sender_id) REFERENCES tb_users (id),
+    CONSTRAINT fk_tb_transactions_receiver FOREIGN KEY (receiver_id) REFERENCES tb_users (id),
+    CONSTRAINT fk_tb_transactions_product FOREIGN KEY (product_id) REFERENCES tb_items (id)
+);
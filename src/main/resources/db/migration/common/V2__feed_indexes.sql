@@ -0,0 +1,20 @@
+-- /feed always filters on status and price and sorts by (listed_at DESC, id DESC),
+-- the enum filters are optional so each index leads with the most selective combination it serves
+
+CREATE INDEX IF NOT EXISTS idx_items_feed
+    ON tb_items (status, listed_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_items_feed_category
+    ON tb_items (status, category, sub_category, listed_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_items_feed_sub_category_condition
+    ON tb_items (status, sub_category, condition, price);
+
+CREATE INDEX IF NOT EXISTS idx_items_feed_condition_price
+    ON tb_items (status, condition, price);
+
+CREATE INDEX IF NOT EXISTS idx_items_feed_size
+    ON tb_items (status, size, listed_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_items_seller
+    ON tb_items (user_id);
@@ -0,0 +1,3 @@
+ALTER TABLE tb_items ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+
+ALTER TABLE tb_users ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
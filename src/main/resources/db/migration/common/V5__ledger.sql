@@ -0,0 +1,20 @@
+CREATE SEQUENCE IF NOT EXISTS tb_ledger_entries_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS tb_ledger_entries (
+    id         BIGINT NOT NULL,
+    item_id    BIGINT,
+    seller_id  BIGINT,
+    buyer_id   BIGINT,
+    amount     NUMERIC(38, 2),
+    commission NUMERIC(38, 2),
+    credit     NUMERIC(38, 2),
+    created_at TIMESTAMP(6),
+    settled_at TIMESTAMP(6),
+    CONSTRAINT pk_tb_ledger_entries PRIMARY KEY (id),
+    CONSTRAINT fk_tb_ledger_entries_item FOREIGN KEY (item_id) REFERENCES tb_items (id),
+    CONSTRAINT fk_tb_ledger_entries_seller FOREIGN KEY (seller_id) REFERENCES tb_users (id),
+    CONSTRAINT fk_tb_ledger_entries_buyer FOREIGN KEY (buyer_id) REFERENCES tb_users (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_ledger_entries_unsettled ON tb_ledger_entries (settled_at, id);
+CREATE INDEX IF NOT EXISTS idx_ledger_entries_seller ON tb_ledger_entries (seller_id, settled_at);
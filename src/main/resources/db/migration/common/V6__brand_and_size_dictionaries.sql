@@ -0,0 +1,25 @@
+-- brands and sizes become dictionaries, each item keeps an id into them instead of its own copy of the text;
+-- V7 fills the ids from the text columns and V8 drops them
+
+CREATE SEQUENCE IF NOT EXISTS tb_brands_seq START WITH 1 INCREMENT BY 1;
+CREATE SEQUENCE IF NOT EXISTS tb_sizes_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS tb_brands (
+    id         INTEGER NOT NULL,
+    name       VARCHAR(255) NOT NULL,
+    normalized VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_tb_brands PRIMARY KEY (id),
+    CONSTRAINT uk_tb_brands_normalized UNIQUE (normalized)
+);
+
+CREATE TABLE IF NOT EXISTS tb_sizes (
+    id    INTEGER NOT NULL,
+    label VARCHAR(64) NOT NULL,
+    CONSTRAINT pk_tb_sizes PRIMARY KEY (id),
+    CONSTRAINT uk_tb_sizes_label UNIQUE (label)
+);
+
+ALTER TABLE tb_items ADD COLUMN IF NOT EXISTS brand_id INTEGER;
+ALTER TABLE tb_items ADD COLUMN IF NOT EXISTS size_id INTEGER;
+ALTER TABLE tb_items ADD CONSTRAINT fk_tb_items_brand FOREIGN KEY (brand_id) REFERENCES tb_brands (id);
+ALTER TABLE tb_items ADD CONSTRAINT fk_tb_items_size FOREIGN KEY (size_id) REFERENCES tb_sizes (id);
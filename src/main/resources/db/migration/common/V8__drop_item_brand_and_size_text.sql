@@ -0,0 +1,13 @@
+-- the size index moves to the id, brands get one of their own now that a brand filter is an id list
+
+DROP INDEX IF EXISTS idx_items_feed_size;
+DROP INDEX IF EXISTS idx_items_brand_trgm;
+
+ALTER TABLE tb_items DROP COLUMN IF EXISTS brand;
+ALTER TABLE tb_items DROP COLUMN IF EXISTS size;
+
+CREATE INDEX IF NOT EXISTS idx_items_feed_size
+    ON tb_items (status, size_id, listed_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_items_feed_brand
+    ON tb_items (status, brand_id, listed_at DESC, id DESC);
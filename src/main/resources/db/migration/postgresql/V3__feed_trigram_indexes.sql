@@ -0,0 +1,9 @@
+-- likeName/likeBrand compare lower(column) against '%term%', which only a trigram index can serve
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm
+    ON tb_items USING gin (lower(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_items_brand_trgm
+    ON tb_items USING gin (lower(brand) gin_trgm_ops);
@@ -0,0 +1,4 @@
+-- likeBrand looks the term up in the brand dictionary, '%term%' over the normalized names needs the trigram index
+
+CREATE INDEX IF NOT EXISTS idx_brands_normalized_trgm
+    ON tb_brands USING gin (normalized gin_trgm_ops);
@@ -0,0 +1,118 @@
+package br.com.vss.resell_platform.cache;
+
+import br.com.vss.resell_platform.controller.SerializablePage;
+import br.com.vss.resell_platform.controller.dto.FeedItemDto;
+import br.com.vss.resell_platform.model.Brand;
+import br.com.vss.resell_platform.model.Size;
+import br.com.vss.resell_platform.service.DictionaryService;
+import br.com.vss.resell_platform.util.Category;
+import br.com.vss.resell_platform.util.Condition;
+import br.com.vss.resell_platform.util.SubCategory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactCacheValueSerializerTest {
+
+    private final CompactCacheValueSerializer serializer = new CompactCacheValueSerializer();
+
+    static SerializablePage<FeedItemDto> feedPage(int rows) {
+        List<FeedItemDto> items = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            items.add(new FeedItemDto((long) i, "Air Max " + i, "Nike", Category.FOOTWEAR, SubCategory.SNEAKERS,
+                    Condition.NEW, new BigDecimal("799.90"), "42", "seller" + i, LocalDateTime.of(2025, 1, 10, 12, 0, 0, 123456000)));
+        }
+        return new SerializablePage<>(new PageImpl<>(items, PageRequest.of(2, rows), 1000));
+    }
+
+    @Test
+    @DisplayName("Should round trip a feed page")
+    void shouldRoundTripFeedPage() {
+
+        SerializablePage<FeedItemDto> page = feedPage(10);
+        page.setRanked(true);
+
+        @SuppressWarnings("unchecked")
+        var output = (SerializablePage<FeedItemDto>) serializer.deserialize(serializer.serialize(page));
+
+        assertEquals(page.getContent(), output.getContent());
+        assertEquals(page.getTotalElements(), output.getTotalElements());
+        assertEquals(page.getTotalPages(), output.getTotalPages());
+        assertEquals(page.getNumber(), output.getNumber());
+        assertEquals(page.isHasNext(), output.isHasNext());
+        assertEquals(page.isHasPrevious(), output.isHasPrevious());
+        assertEquals(page.isCounted(), output.isCounted());
+        assertTrue(output.isRanked());
+    }
+
+    @Test
+    @DisplayName("Should round trip rows with missing fields and counts")
+    void shouldRoundTripNullsAndCounts() {
+
+        FeedItemDto item = new FeedItemDto(1L, "name", null, null, SubCategory.CLUTCHES, null, null, null, "seller", null);
+
+        assertEquals(item, serializer.deserialize(serializer.serialize(item)));
+        assertEquals(-1L, serializer.deserialize(serializer.serialize(-1L)));
+        assertEquals(Long.MAX_VALUE, serializer.deserialize(serializer.serialize(Long.MAX_VALUE)));
+    }
+
+    @Test
+    @DisplayName("Should read values written with JDK serialization")
+    void shouldFallBackToJdkSerialization() {
+
+        byte[] legacy = new JdkSerializationRedisSerializer().serialize(feedPage(1));
+
+        @SuppressWarnings("unchecked")
+        var output = (SerializablePage<FeedItemDto>) serializer.deserialize(legacy);
+
+        assertEquals(feedPage(1).getContent(), output.getContent());
+        assertEquals("value", serializer.deserialize(serializer.serialize("value")));
+    }
+
+    @Test
+    @DisplayName("Should encode a feed page in a fraction of the JDK size")
+    void shouldBeSmallerThanJdk() {
+
+        SerializablePage<FeedItemDto> page = feedPage(20);
+
+        int compact = serializer.serialize(page).length;
+        int jdk = new JdkSerializationRedisSerializer().serialize(page).length;
+
+        assertTrue(compact * 3 < jdk, "compact=" + compact + " jdk=" + jdk);
+    }
+
+    @Test
+    @DisplayName("Should write known brands and sizes as dictionary ids and still read spelled out values")
+    void shouldEncodeDictionaryIds() {
+
+        DictionaryService dictionaryService = Mockito.mock(DictionaryService.class);
+        Mockito.doReturn(7).when(dictionaryService).brandId("Nike");
+        Mockito.doReturn(3).when(dictionaryService).sizeId("42");
+        Mockito.doReturn(new Brand("Nike")).when(dictionaryService).findBrand(7);
+        Mockito.doReturn(new Size("42")).when(dictionaryService).findSize(3);
+        CompactCacheValueSerializer dictionary = new CompactCacheValueSerializer(dictionaryService);
+        SerializablePage<FeedItemDto> page = feedPage(20);
+
+        @SuppressWarnings("unchecked")
+        var output = (SerializablePage<FeedItemDto>) dictionary.deserialize(dictionary.serialize(page));
+
+        assertEquals(page.getContent(), output.getContent());
+        assertEquals(serializer.serialize(page).length - 20 * 8, dictionary.serialize(page).length);
+
+        // a version 1 row holding an id and a brand
+        byte[] spelledOut = {2, 1, 0, 0b101, 2, 4, 'N', 'i', 'k', 'e'};
+        assertEquals(new FeedItemDto(1L, null, "Nike", null, null, null, null, null, null, null),
+                dictionary.deserialize(spelledOut));
+    }
+
+}
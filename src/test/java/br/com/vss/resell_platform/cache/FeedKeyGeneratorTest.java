@@ -0,0 +1,72 @@
+package br.com.vss.resell_platform.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FeedKeyGeneratorTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    private FeedGeneration feedGeneration;
+
+    private FeedKeyGenerator keyGenerator;
+
+    private Method method;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        feedGeneration = new FeedGeneration(redisTemplate, "feed-generation");
+        keyGenerator = new FeedKeyGenerator(feedGeneration);
+        method = String.class.getMethod("valueOf", Object.class);
+    }
+
+    @Test
+    @DisplayName("Should move feed keys to a new generation after a bump")
+    void shouldChangeKeyAfterBump() {
+        when(valueOperations.get("feed:generation")).thenReturn(4L);
+        when(valueOperations.increment("feed:generation")).thenReturn(5L);
+
+        Object before = keyGenerator.generate(this, method, "nike", 0);
+        assertEquals(before, keyGenerator.generate(this, method, "nike", 0));
+
+        feedGeneration.bump();
+
+        assertNotEquals(before, keyGenerator.generate(this, method, "nike", 0));
+        assertEquals(5L, feedGeneration.current());
+        assertEquals(1L, feedGeneration.getBumps());
+        verify(redisTemplate).convertAndSend("feed-generation", "5");
+    }
+
+    @Test
+    @DisplayName("Should follow generations announced by other nodes but never go back")
+    void shouldFollowRemoteGeneration() {
+        when(valueOperations.get("feed:generation")).thenReturn(null);
+        assertEquals(0L, feedGeneration.current());
+
+        feedGeneration.onMessage(new DefaultMessage("feed-generation".getBytes(StandardCharsets.UTF_8),
+                "7".getBytes(StandardCharsets.UTF_8)), null);
+        feedGeneration.onMessage(new DefaultMessage("feed-generation".getBytes(StandardCharsets.UTF_8),
+                "6".getBytes(StandardCharsets.UTF_8)), null);
+
+        assertEquals(7L, feedGeneration.current());
+    }
+}
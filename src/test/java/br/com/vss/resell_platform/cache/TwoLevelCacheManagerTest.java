@@ -0,0 +1,94 @@
+package br.com.vss.resell_platform.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TwoLevelCacheManagerTest {
+
+    @Mock
+    private CacheInvalidationPublisher publisher;
+
+    private ConcurrentMapCacheManager remote;
+
+    private TwoLevelCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        remote = new ConcurrentMapCacheManager();
+        cacheManager = new TwoLevelCacheManager(remote, publisher, 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Should serve a value from memory once it was read from Redis")
+    void shouldServeFromLocalCache() {
+
+        remote.getCache("Items").put(1L, "item");
+        TwoLevelCache cache = (TwoLevelCache) cacheManager.getCache("Items");
+
+        assertEquals("item", cache.get(1L).get());
+
+        remote.getCache("Items").evict(1L);
+
+        assertEquals("item", cache.get(1L).get());
+    }
+
+    @Test
+    @DisplayName("Should publish an invalidation when a value is written or evicted")
+    void shouldPublishInvalidation() {
+
+        var cache = cacheManager.getCache("Items");
+
+        cache.put(1L, "item");
+        cache.evict(1L);
+
+        verify(publisher, times(2)).evicted("Items", "1");
+        assertNull(remote.getCache("Items").get(1L));
+    }
+
+    @Test
+    @DisplayName("Should drop the local copy when another node invalidates the key")
+    void shouldEvictOnRemoteInvalidation() {
+
+        doReturn("this-node").when(publisher).getNodeId();
+        var cache = cacheManager.getCache("Items");
+        cache.put(1L, "item");
+        remote.getCache("Items").put(1L, "edited item");
+
+        cacheManager.onMessage(message(new CacheInvalidation("other-node", "Items", "1")), null);
+
+        assertEquals("edited item", cache.get(1L).get());
+    }
+
+    @Test
+    @DisplayName("Should ignore invalidations published by this node")
+    void shouldIgnoreOwnInvalidation() {
+
+        doReturn("this-node").when(publisher).getNodeId();
+        var cache = cacheManager.getCache("Items");
+        cache.put(1L, "item");
+        remote.getCache("Items").put(1L, "edited item");
+
+        cacheManager.onMessage(message(new CacheInvalidation("this-node", "Items", "1")), null);
+
+        assertEquals("item", cache.get(1L).get());
+    }
+
+    private DefaultMessage message(CacheInvalidation invalidation) {
+        return new DefaultMessage("cache-invalidation".getBytes(StandardCharsets.UTF_8),
+                invalidation.encode().getBytes(StandardCharsets.UTF_8));
+    }
+
+}
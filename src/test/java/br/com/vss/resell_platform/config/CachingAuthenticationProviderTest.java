@@ -0,0 +1,109 @@
+package br.com.vss.resell_platform.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingAuthenticationProviderTest {
+
+    @Mock
+    private AuthenticationProvider delegate;
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CachingAuthenticationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        provider = new CachingAuthenticationProvider(delegate, 100, Duration.ofMinutes(1), meterRegistry,
+                redisTemplate, "credential-invalidation");
+    }
+
+    private static Authentication login(String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated("username", password);
+    }
+
+    @Test
+    @DisplayName("Should verify the same credentials only once")
+    void shouldReuseSuccessfulLogin() {
+
+        Authentication authenticated = UsernamePasswordAuthenticationToken.authenticated("username", null, List.of());
+        doReturn(authenticated).when(delegate).authenticate(any());
+
+        assertSame(authenticated, provider.authenticate(login("password")));
+        Authentication cached = provider.authenticate(login("password"));
+
+        assertNotSame(authenticated, cached);
+        assertEquals("username", cached.getPrincipal());
+        assertTrue(cached.isAuthenticated());
+        verify(delegate, times(1)).authenticate(any());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Should not let a different password hit the cache")
+    void shouldVerifyOtherPassword() {
+
+        Authentication authenticated = UsernamePasswordAuthenticationToken.authenticated("username", null, List.of());
+        doReturn(authenticated).when(delegate).authenticate(any());
+        provider.authenticate(login("password"));
+
+        doThrow(new BadCredentialsException("Bad credentials")).when(delegate).authenticate(any());
+
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(login("wrong")));
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(login("wrong")));
+        verify(delegate, times(3)).authenticate(any());
+    }
+
+    @Test
+    @DisplayName("Should verify again after the password changed")
+    void shouldForgetOnInvalidate() {
+
+        Authentication authenticated = UsernamePasswordAuthenticationToken.authenticated("username", null, List.of());
+        doReturn(authenticated).when(delegate).authenticate(any());
+        provider.authenticate(login("password"));
+
+        provider.invalidate("username");
+        provider.authenticate(login("password"));
+
+        verify(delegate, times(2)).authenticate(any());
+        verify(redisTemplate).convertAndSend("credential-invalidation", "username");
+    }
+
+    @Test
+    @DisplayName("Should hand every request its own authentication")
+    void shouldNotShareDetails() {
+
+        UsernamePasswordAuthenticationToken authenticated =
+                UsernamePasswordAuthenticationToken.authenticated("username", null, List.of());
+        doReturn(authenticated).when(delegate).authenticate(any());
+        provider.authenticate(login("password"));
+        authenticated.setDetails("first request");
+
+        UsernamePasswordAuthenticationToken second = (UsernamePasswordAuthenticationToken) provider.authenticate(login("password"));
+        second.setDetails("second request");
+
+        assertNull(provider.authenticate(login("password")).getDetails());
+    }
+}
@@ -0,0 +1,60 @@
+package br.com.vss.resell_platform.config;
+
+import br.com.vss.resell_platform.model.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClaimsAuthenticationConverterTest {
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @InjectMocks
+    private ClaimsAuthenticationConverter converter;
+
+    private static Jwt.Builder token() {
+        return Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("username")
+                .claim("scope", "read")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(60));
+    }
+
+    @Test
+    @DisplayName("Should build the principal from the token claims without loading the user")
+    void shouldReadPrincipalFromClaims() {
+
+        var authentication = converter.convert(token().claim(ClaimsAuthenticationConverter.USER_ID_CLAIM, 7L).build());
+
+        assertEquals(new AuthenticatedUser(7L, "username"), authentication.getPrincipal());
+        assertEquals("username", authentication.getName());
+        assertTrue(authentication.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("SCOPE_read")));
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    @DisplayName("Should load the user id for tokens issued without it")
+    void shouldLoadUserForLegacyTokens() {
+
+        User user = new User("username", "password", "email");
+        user.setId(7L);
+        doReturn(new UserPrincipal(user)).when(userDetailsService).loadUserByUsername("username");
+
+        var authentication = converter.convert(token().build());
+
+        assertEquals(new AuthenticatedUser(7L, "username"), authentication.getPrincipal());
+    }
+}
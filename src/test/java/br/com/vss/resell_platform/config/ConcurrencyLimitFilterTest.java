@@ -0,0 +1,83 @@
+package br.com.vss.resell_platform.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, Duration.ofMillis(50), new ObjectMapper(),
+            new SimpleMeterRegistry());
+
+    @Test
+    @DisplayName("Should reject requests over the limit with 503 and let them in once a slot frees up")
+    void shouldRejectRequestsOverTheLimit() throws Exception {
+
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain blocking = (request, response) -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/feed"), new MockHttpServletResponse(), blocking);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        entered.await();
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/feed"), rejected, new MockFilterChain());
+
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("Too many concurrent requests"));
+
+        release.countDown();
+        first.join();
+
+        MockHttpServletResponse accepted = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/feed"), accepted, new MockFilterChain());
+
+        assertEquals(200, accepted.getStatus());
+    }
+
+    @Test
+    @DisplayName("Should hold the slot of an async request until the async work completes")
+    void shouldHoldSlotUntilAsyncCompletes() throws Exception {
+
+        MockHttpServletRequest streaming = new MockHttpServletRequest("GET", "/users/me/listings");
+        streaming.setAsyncSupported(true);
+        filter.doFilter(streaming, new MockHttpServletResponse(), (request, response) -> request.startAsync());
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/feed"), rejected, new MockFilterChain());
+
+        assertEquals(503, rejected.getStatus());
+
+        streaming.getAsyncContext().complete();
+
+        MockHttpServletResponse accepted = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/feed"), accepted, new MockFilterChain());
+
+        assertEquals(200, accepted.getStatus());
+    }
+}
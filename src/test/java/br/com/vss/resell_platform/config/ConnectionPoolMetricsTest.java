@@ -0,0 +1,46 @@
+package br.com.vss.resell_platform.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionPoolMetricsTest {
+
+    private HikariDataSource dataSource;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:pool-metrics");
+        dataSource.setPoolName("test-pool");
+        dataSource.setMaximumPoolSize(4);
+
+        registry = new SimpleMeterRegistry();
+        new ConnectionPoolMetrics(dataSource).bindTo(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    @DisplayName("Should report the share of the pool lent out")
+    void shouldReportSaturation() throws Exception {
+
+        try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+            assertEquals(0.5, registry.get("hikaricp.connections.saturation").tag("pool", "test-pool").gauge().value());
+            assertEquals(0.0, registry.get("hikaricp.connections.queue").gauge().value());
+        }
+
+        assertEquals(0.0, registry.get("hikaricp.connections.saturation").gauge().value());
+    }
+}
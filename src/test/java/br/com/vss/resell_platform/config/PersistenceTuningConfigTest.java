@@ -0,0 +1,82 @@
+package br.com.vss.resell_platform.config;
+
+import br.com.vss.resell_platform.model.User;
+import br.com.vss.resell_platform.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.show-sql=false"
+})
+@Import(PersistenceTuningConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PersistenceTuningConfigTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User("username", "password", "email"));
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAllInBatch();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    @DisplayName("Should serve repeated user loads from the second-level cache")
+    void shouldServeRepeatedUserLoadsFromCache() {
+
+        userRepository.findById(user.getId()).orElseThrow();
+        User cached = userRepository.findById(user.getId()).orElseThrow();
+
+        assertEquals("username", cached.getUsername());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    @DisplayName("Should drop cached users when their balance is updated in bulk")
+    void shouldEvictUsersOnBulkUpdate() {
+
+        userRepository.findById(user.getId()).orElseThrow();
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> userRepository.addToBalance(user.getId(), new BigDecimal("10")));
+
+        assertEquals(0, new BigDecimal("10").compareTo(userRepository.findById(user.getId()).orElseThrow().getBalance()));
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+    }
+}
@@ -1,13 +1,21 @@
 package br.com.vss.resell_platform.controller;
 
+import br.com.vss.resell_platform.config.AuthenticatedUser;
 import br.com.vss.resell_platform.controller.dto.FeedDto;
 import br.com.vss.resell_platform.controller.dto.FeedItemDto;
 import br.com.vss.resell_platform.controller.dto.ItemRequest;
+import br.com.vss.resell_platform.controller.dto.ItemSummaryDto;
+import br.com.vss.resell_platform.controller.dto.SuggestionDto;
 import br.com.vss.resell_platform.exceptions.InvalidOwnerException;
 import br.com.vss.resell_platform.mapper.ItemMapper;
+import br.com.vss.resell_platform.model.Brand;
 import br.com.vss.resell_platform.model.Item;
+import br.com.vss.resell_platform.model.Size;
 import br.com.vss.resell_platform.model.User;
+import br.com.vss.resell_platform.service.IdempotencyService;
+import br.com.vss.resell_platform.service.ItemImportService;
 import br.com.vss.resell_platform.service.ItemService;
+import br.com.vss.resell_platform.service.SuggestService;
 import br.com.vss.resell_platform.service.TransactionService;
 import br.com.vss.resell_platform.service.UserService;
 import br.com.vss.resell_platform.util.Category;
@@ -48,6 +56,15 @@ class ItemControllerTest {
     @Mock
     private TransactionService transactionService;
 
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private ItemImportService itemImportService;
+
+    @Mock
+    private SuggestService suggestService;
+
     @InjectMocks
     private ItemController itemController;
 
@@ -62,13 +79,14 @@ class ItemControllerTest {
 
 
             User user = new User("username", "password", "email");
+            user.setId(1L);
             ItemRequest itemRequest = new ItemRequest("name", "brand", Category.BOTTOMS, SubCategory.TROUSERS, Condition.NEW, new BigDecimal("1000"), "size");
-            Item item = new Item("name", "brand", Category.BOTTOMS, SubCategory.TROUSERS, Condition.NEW, new BigDecimal("1000"), "size",  user);
+            Item item = new Item("name", new Brand("brand"), Category.BOTTOMS, SubCategory.TROUSERS, Condition.NEW, new BigDecimal("1000"), new Size("size"),  user);
 
             var authentication = Mockito.mock(Authentication.class);
 
-            Mockito.doReturn(user.getUsername()).when(authentication).getName();
-            Mockito.doReturn(Optional.of(user)).when(userService).findByUsername(user.getUsername());
+            Mockito.doReturn(new AuthenticatedUser(user.getId(), user.getUsername())).when(authentication).getPrincipal();
+            Mockito.doReturn(user).when(userService).getReference(user.getId());
             Mockito.doReturn(item).when(itemMapper).toItem(itemRequest, user);
             Mockito.doReturn(item).when(itemService).save(item);
 
@@ -87,13 +105,14 @@ class ItemControllerTest {
         void shouldDeleteItem() {
 
             User user = new User("username", "password", "email");
-            Item item = new Item("name", "brand", Category.BOTTOMS, SubCategory.TROUSERS, Condition.NEW, new BigDecimal("1000"), "size",  user);
+            user.setId(1L);
+            Item item = new Item("name", new Brand("brand"), Category.BOTTOMS, SubCategory.TROUSERS, Condition.NEW, new BigDecimal("1000"), new Size("size"),  user);
             item.setId(1L);
 
             var authentication = Mockito.mock(Authentication.class);
 
-            Mockito.doReturn(Optional.of(item)).when(itemService).findById(item.getId());
-            Mockito.doReturn(user.getUsername()).when(authentication).getName();
+            Mockito.doReturn(ItemSummaryDto.of(item)).when(itemService).findSummary(item.getId());
+            Mockito.doReturn(new AuthenticatedUser(user.getId(), user.getUsername())).when(authentication).getPrincipal();
 
             var response = itemController.deleteItem(authentication, item.getId());
 
@@ -105,13 +124,14 @@ class ItemControllerTest {
         void shouldThrowInvalidOwnerException() {
 
             User user = new User("username", "password", "email");
-            Item item = new Item("name", "brand", Category.BOTTOMS, SubCategory.TROUSERS, Condition.NEW, new BigDecimal("1000"), "size",  user);
+            user.setId(1L);
+            Item item = new Item("name", new Brand("brand"), Category.BOTTOMS, SubCategory.TROUSERS, Condition.NEW, new BigDecimal("1000"), new Size("size"),  user);
             item.setId(1L);
 
             var authentication = Mockito.mock(Authentication.class);
 
-            Mockito.doReturn(Optional.of(item)).when(itemService).findById(item.getId());
-            Mockito.doReturn("new username").when(authentication).getName();
+            Mockito.doReturn(ItemSummaryDto.of(item)).when(itemService).findSummary(item.getId());
+            Mockito.doReturn(new AuthenticatedUser(2L, "new username")).when(authentication).getPrincipal();
 
             InvalidOwnerException exception = assertThrows(InvalidOwnerException.class, () -> itemController.deleteItem(authentication, item.getId()));
 
@@ -128,21 +148,26 @@ class ItemControllerTest {
         void shouldPurchaseItem() {
 
             User user = new User("username", "password", "email");
+            user.setId(1L);
             User user2 = new User("username2", "password2", "email2");
-            Item item = new Item("name", "brand", Category.BOTTOMS, SubCategory.TROUSERS, Condition.NEW, new BigDecimal("1000"), "size",  user);
+            user2.setId(2L);
+            Item item = new Item("name", new Brand("brand"), Category.BOTTOMS, SubCategory.TROUSERS, Condition.NEW, new BigDecimal("1000"), new Size("size"),  user);
 
             item.setId(1L);
 
             var authentication = Mockito.mock(Authentication.class);
 
-            Mockito.doReturn(Optional.of(item)).when(itemService).findById(item.getId());
-            Mockito.doReturn(user.getUsername()).when(authentication).getName();
-            Mockito.doReturn(Optional.of(user)).when(userService).findByUsername(user.getUsername());
-            Mockito.lenient().doNothing().when(transactionService).purchaseItem(user, user2, item);
+            Mockito.doReturn(new AuthenticatedUser(user2.getId(), user2.getUsername())).when(authentication).getPrincipal();
+            Mockito.doReturn(user2).when(userService).getReference(user2.getId());
+            Mockito.doAnswer(invocation -> {
+                invocation.<Runnable>getArgument(2).run();
+                return null;
+            }).when(idempotencyService).execute(Mockito.eq("buy:2:1"), Mockito.eq("key"), any());
 
-            var response = itemController.purchaseItem(authentication, item.getId());
+            var response = itemController.purchaseItem(authentication, item.getId(), "key");
 
             assertEquals(HttpStatus.OK, response.getStatusCode());
+            Mockito.verify(transactionService).purchaseItem(user2, item.getId());
 
         }
 
@@ -156,23 +181,27 @@ class ItemControllerTest {
         void shouldEditItem() {
 
             User user = new User("username", "password", "email");
-            Item item = new Item("name", "brand", Category.BOTTOMS, SubCategory.TROUSERS, Condition.NEW, new BigDecimal("1000"), "size",  user);
+            user.setId(1L);
+            Item item = new Item("name", new Brand("brand"), Category.BOTTOMS, SubCategory.TROUSERS, Condition.NEW, new BigDecimal("1000"), new Size("size"),  user);
             ItemRequest editedItem = new ItemRequest("new name", "new brand", Category.BOTTOMS, SubCategory.TROUSERS, Condition.WORN, new BigDecimal("500"), "new size");
             item.setId(1L);
 
             var authentication = Mockito.mock(Authentication.class);
 
+            Mockito.doReturn(ItemSummaryDto.of(item)).when(itemService).findSummary(item.getId());
             Mockito.doReturn(Optional.of(item)).when(itemService).findById(item.getId());
-            Mockito.doReturn(user.getUsername()).when(authentication).getName();
+            Mockito.doReturn(new AuthenticatedUser(user.getId(), user.getUsername())).when(authentication).getPrincipal();
+            Mockito.doReturn(new Brand(editedItem.brand())).when(itemMapper).toBrand(editedItem);
+            Mockito.doReturn(new Size(editedItem.size())).when(itemMapper).toSize(editedItem);
             Mockito.doReturn(item).when(itemService).save(item);
 
             var response = itemController.editItem(authentication, editedItem, item.getId());
 
             assertEquals(editedItem.name(), item.getName());
-            assertEquals(editedItem.brand(), item.getBrand());
+            assertEquals(editedItem.brand(), item.getBrand().getName());
             assertEquals(editedItem.condition(), item.getCondition());
             assertEquals(editedItem.price(), item.getPrice());
-            assertEquals(editedItem.size(), item.getSize());
+            assertEquals("NEW SIZE", item.getSize().getLabel());
 
             assertEquals(HttpStatus.OK, response.getStatusCode());
 
@@ -183,14 +212,15 @@ class ItemControllerTest {
         void shouldThrowInvalidUserException() {
 
             User user = new User("username", "password", "email");
-            Item item = new Item("name", "brand", Category.BOTTOMS, SubCategory.TROUSERS, Condition.NEW, new BigDecimal("1000"), "size",  user);
+            user.setId(1L);
+            Item item = new Item("name", new Brand("brand"), Category.BOTTOMS, SubCategory.TROUSERS, Condition.NEW, new BigDecimal("1000"), new Size("size"),  user);
             ItemRequest editedItem = new ItemRequest("new name", "new brand", Category.BOTTOMS, SubCategory.TROUSERS, Condition.WORN, new BigDecimal("500"), "new size");
             item.setId(1L);
 
             var authentication = Mockito.mock(Authentication.class);
 
-            Mockito.doReturn(Optional.of(item)).when(itemService).findById(item.getId());
-            Mockito.doReturn("new username").when(authentication).getName();
+            Mockito.doReturn(ItemSummaryDto.of(item)).when(itemService).findSummary(item.getId());
+            Mockito.doReturn(new AuthenticatedUser(2L, "new username")).when(authentication).getPrincipal();
 
             InvalidOwnerException exception = assertThrows(InvalidOwnerException.class, () -> itemController.editItem(authentication, editedItem, item.getId()));
 
@@ -201,6 +231,23 @@ class ItemControllerTest {
 
     }
 
+    @Nested
+    class suggest {
+
+        @Test
+        @DisplayName("Should return the suggestions for the prefix")
+        void shouldSuggest() {
+
+            var suggestions = List.of(new SuggestionDto("nike", 3));
+            Mockito.doReturn(suggestions).when(suggestService).suggest("ni", 10);
+
+            var response = itemController.suggest("ni", 10);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(suggestions, response.getBody());
+        }
+    }
+
 //    @Nested
 //    class itemFeed {
 //
@@ -0,0 +1,50 @@
+package br.com.vss.resell_platform.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DictionaryMigrationTest {
+
+    private final DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:dictionary-migration;DB_CLOSE_DELAY=-1");
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+    private void migrate(String target) {
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration/common").target(target).load().migrate();
+    }
+
+    @Test
+    @DisplayName("Should move the brand and size text of existing items into the dictionaries")
+    void shouldBackfillDictionaries() {
+
+        migrate("6");
+        jdbcTemplate.update("INSERT INTO tb_users (id, username) VALUES (1, 'seller')");
+        List<Object[]> items = List.of(
+                new Object[]{1, "Nike", "M"},
+                new Object[]{2, "NIKE", "m"},
+                new Object[]{3, "Nike", "Medium"},
+                new Object[]{4, "Levi's", "42,0"},
+                new Object[]{5, "  ", null});
+        jdbcTemplate.batchUpdate("INSERT INTO tb_items (id, brand, size, user_id) VALUES (?, ?, ?, 1)", items);
+
+        migrate("latest");
+
+        assertEquals(List.of("Nike", "Levi's"), jdbcTemplate.queryForList("SELECT name FROM tb_brands ORDER BY id", String.class));
+        assertEquals(List.of("42", "M"), jdbcTemplate.queryForList("SELECT label FROM tb_sizes ORDER BY id", String.class));
+        assertEquals(Arrays.asList(1, 1, 1, 2, null),
+                jdbcTemplate.queryForList("SELECT brand_id FROM tb_items ORDER BY id", Integer.class));
+        assertEquals(Arrays.asList(2, 2, 2, 1, null),
+                jdbcTemplate.queryForList("SELECT size_id FROM tb_items ORDER BY id", Integer.class));
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR tb_brands_seq", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.columns "
+                + "WHERE table_name = 'TB_ITEMS' AND column_name IN ('BRAND', 'SIZE')", Integer.class));
+    }
+}
@@ -0,0 +1,210 @@
+package br.com.vss.resell_platform.repository;
+
+import br.com.vss.resell_platform.controller.dto.PriceFacetDto;
+import br.com.vss.resell_platform.model.Brand;
+import br.com.vss.resell_platform.model.Item;
+import br.com.vss.resell_platform.model.Size;
+import br.com.vss.resell_platform.model.User;
+import br.com.vss.resell_platform.search.FeedFilter;
+import br.com.vss.resell_platform.service.ItemService;
+import br.com.vss.resell_platform.util.Category;
+import br.com.vss.resell_platform.util.Condition;
+import br.com.vss.resell_platform.util.FeedCursor;
+import br.com.vss.resell_platform.util.ItemStatus;
+import br.com.vss.resell_platform.util.SubCategory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=none",
+    "spring.jpa.show-sql=false"
+})
+class ItemRepositoryTest {
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BrandRepository brandRepository;
+
+    @Autowired
+    private SizeRepository sizeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User seller;
+
+    @BeforeEach
+    void setUp() {
+        seller = userRepository.save(new User("username", "password", "email"));
+    }
+
+    private Item item(String name, String brand) {
+        return itemRepository.save(new Item(name, brand(brand), Category.FOOTWEAR, SubCategory.SNEAKERS, Condition.NEW,
+                new BigDecimal("100"), size("42"), seller));
+    }
+
+    private Brand brand(String name) {
+        return brandRepository.findByNormalized(Brand.normalize(name))
+                .orElseGet(() -> brandRepository.save(new Brand(name)));
+    }
+
+    private Size size(String size) {
+        return sizeRepository.findByLabel(Size.canonical(size)).orElseGet(() -> sizeRepository.save(new Size(size)));
+    }
+
+    private List<Item> feed(String name, String brand) {
+        return itemRepository.findAll(ItemSpecification.feedFilter(name, brand, null, null, null,
+                BigDecimal.ZERO, new BigDecimal("999999"), null));
+    }
+
+    @Test
+    @DisplayName("Should create the feed indexes through migrations")
+    void shouldCreateFeedIndexes() {
+
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT index_name FROM information_schema.indexes WHERE table_name = 'TB_ITEMS'", String.class);
+
+        assertTrue(indexes.contains("IDX_ITEMS_FEED"));
+        assertTrue(indexes.contains("IDX_ITEMS_FEED_CATEGORY"));
+    }
+
+    @Test
+    @DisplayName("Should match name and brand ignoring case")
+    void shouldMatchIgnoringCase() {
+
+        item("Air Max 90", "Nike");
+        item("Gazelle", "adidas");
+
+        assertEquals(1, feed("air max", null).size());
+        assertEquals(1, feed(null, "NIKE").size());
+        assertEquals(1, feed(null, "Adi").size());
+    }
+
+    @Test
+    @DisplayName("Should share one dictionary entry between spellings of a brand or size")
+    void shouldFilterSpellingsAsOneEntry() {
+
+        item("Air Max 90", "Nike");
+        Item tee = itemRepository.save(new Item("Tee", brand("NIKE"), Category.TOPS, SubCategory.TSHIRTS, Condition.NEW,
+                new BigDecimal("50"), size("Medium"), seller));
+
+        var sized = itemRepository.findAll(ItemSpecification.feedFilter(null, "nike", null, null, null,
+                BigDecimal.ZERO, new BigDecimal("999999"), size("m").getId()));
+
+        assertEquals(List.of(tee), sized);
+        assertEquals("Nike", tee.getBrand().getName());
+        assertEquals("M", tee.getSize().getLabel());
+        assertEquals(2, feed(null, "nike").size());
+    }
+
+    @Test
+    @DisplayName("Should treat wildcard characters in the search term literally")
+    void shouldEscapeWildcards() {
+
+        item("100% cotton tee", "brand");
+        item("1000 cotton tee", "brand");
+
+        assertEquals(1, feed("100%", null).size());
+    }
+
+    @Test
+    @DisplayName("Should leave sold items out of the feed")
+    void shouldSkipSoldItems() {
+
+        item("Air Max 90", "Nike");
+        Item sold = item("Air Max 1", "Nike");
+        sold.setStatus(ItemStatus.SOLD);
+        itemRepository.save(sold);
+
+        assertEquals(1, feed("air max", null).size());
+    }
+
+    @Test
+    @DisplayName("Should continue after the cursor without repeating rows")
+    void shouldSeekAfterCursor() {
+
+        for (int i = 0; i < 5; i++) {
+            item("item " + i, "brand");
+        }
+
+        var spec = ItemSpecification.feedFilter(null, null, null, null, null,
+                BigDecimal.ZERO, new BigDecimal("999999"), null);
+        var first = itemRepository.findFeedSlice(spec, PageRequest.of(0, 3, ItemService.FEED_SORT));
+        var cursor = FeedCursor.of(first.getContent().getLast(), FeedCursor.Order.FEED);
+        var second = itemRepository.findFeedSlice(spec.and(ItemSpecification.seekAfter(cursor)), PageRequest.of(0, 3, ItemService.FEED_SORT));
+
+        assertTrue(first.hasNext());
+        assertEquals(3, first.getContent().size());
+        assertFalse(second.hasNext());
+        assertEquals(2, second.getContent().size());
+        assertTrue(second.getContent().stream().noneMatch(first.getContent()::contains));
+    }
+
+    @Test
+    @DisplayName("Should project feed rows with the seller username in one query")
+    void shouldProjectFeedRows() {
+
+        Item item = item("Air Max 90", "Nike");
+
+        var spec = ItemSpecification.feedFilter(null, null, null, null, null,
+                BigDecimal.ZERO, new BigDecimal("999999"), null);
+        var output = itemRepository.findFeedSlice(spec, PageRequest.of(0, 10, ItemService.FEED_SORT)).getContent();
+
+        assertEquals(1, output.size());
+        assertEquals(item.getId(), output.getFirst().id());
+        assertEquals("Air Max 90", output.getFirst().name());
+        assertEquals(seller.getUsername(), output.getFirst().sellerUsername());
+        assertEquals(item.getListedAt(), output.getFirst().listedAt());
+    }
+
+    @Test
+    @DisplayName("Should count each facet with every filter but its own")
+    void shouldCountFacets() {
+
+        item("Air Max 90", "Nike");
+        itemRepository.save(new Item("Samba", brand("adidas"), Category.FOOTWEAR, SubCategory.SNEAKERS, Condition.WORN,
+                new BigDecimal("60"), size("41"), seller));
+        itemRepository.save(new Item("501", brand("Levi's"), Category.BOTTOMS, SubCategory.JEANS, Condition.NEW,
+                new BigDecimal("250"), size("32"), seller));
+
+        var output = itemRepository.findFeedFacets(ItemSpecification.byStatus(ItemStatus.AVAILABLE),
+                new FeedFilter(Category.FOOTWEAR, null, Condition.NEW, null, BigDecimal.ZERO, new BigDecimal("999999")))
+                .toDto(id -> sizeRepository.findById(id).orElseThrow().getLabel());
+
+        assertEquals(Map.of(Category.FOOTWEAR, 1L, Category.BOTTOMS, 1L), output.categories());
+        assertEquals(Map.of(Condition.NEW, 1L, Condition.WORN, 1L), output.conditions());
+        assertEquals(Map.of("42", 1L), output.sizes());
+        assertEquals(List.of(0L, 0L, 1L, 0L, 0L, 0L), output.prices().stream().map(PriceFacetDto::count).toList());
+    }
+
+    @Test
+    @DisplayName("Should load an item summary or nothing for unknown ids")
+    void shouldFindSummary() {
+
+        Item item = item("Air Max 90", "Nike");
+
+        var output = itemRepository.findSummaryById(item.getId()).orElseThrow();
+
+        assertEquals(seller.getId(), output.sellerId());
+        assertEquals(ItemStatus.AVAILABLE, output.status());
+        assertTrue(itemRepository.findSummaryById(item.getId() + 1000).isEmpty());
+    }
+
+}
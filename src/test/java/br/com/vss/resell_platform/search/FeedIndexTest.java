@@ -0,0 +1,193 @@
+package br.com.vss.resell_platform.search;
+
+import br.com.vss.resell_platform.controller.dto.PriceFacetDto;
+import br.com.vss.resell_platform.util.Category;
+import br.com.vss.resell_platform.util.Condition;
+import br.com.vss.resell_platform.util.FeedCursor;
+import br.com.vss.resell_platform.util.SubCategory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeedIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 10, 12, 0);
+    // dictionary ids, XXL is known but nothing is listed in it
+    private static final int S = 1, M = 2, L = 3, XXL = 4;
+    private static final Map<Integer, String> LABELS = Map.of(S, "S", M, "M", L, "L", XXL, "XXL");
+    private static final FeedFilter ALL = new FeedFilter(null, null, null, null, BigDecimal.ZERO, new BigDecimal("999999"));
+
+    private FeedIndex feedIndex;
+
+    @BeforeEach
+    void setUp() {
+        feedIndex = new FeedIndex(2);
+        feedIndex.upsert(item(1L, Category.TOPS, SubCategory.TSHIRTS, Condition.NEW, "10.00", M, 1));
+        feedIndex.upsert(item(2L, Category.BOTTOMS, SubCategory.JEANS, Condition.WORN, "20.00", L, 2));
+        feedIndex.upsert(item(3L, Category.TOPS, SubCategory.HOODIES, Condition.NEW, "30.00", M, 3));
+        feedIndex.upsert(item(4L, Category.TOPS, SubCategory.TSHIRTS, Condition.BRANDNEW, "40.00", S, 4));
+    }
+
+    @Nested
+    class search {
+
+        @Test
+        @DisplayName("Should return the matching ids newest first")
+        void shouldReturnMatchesNewestFirst() {
+
+            var hits = feedIndex.search(new FeedFilter(Category.TOPS, null, null, null, null, null), null, 0, 10);
+
+            assertEquals(List.of(4L, 3L, 1L), hits.ids());
+            assertFalse(hits.hasNext());
+        }
+
+        @Test
+        @DisplayName("Should intersect every filter given")
+        void shouldIntersectFilters() {
+
+            var hits = feedIndex.search(new FeedFilter(Category.TOPS, null, Condition.NEW, M, null, null), null, 0, 10);
+
+            assertEquals(List.of(3L, 1L), hits.ids());
+            assertEquals(0, feedIndex.count(new FeedFilter(null, null, null, XXL, null, null)));
+            assertEquals(0, feedIndex.count(new FeedFilter(null, null, null, FeedFilter.UNKNOWN_SIZE, null, null)));
+        }
+
+        @Test
+        @DisplayName("Should include both price bounds")
+        void shouldIncludePriceBounds() {
+
+            assertEquals(List.of(3L, 2L), feedIndex.search(price("20.00", "30.00"), null, 0, 10).ids());
+            assertEquals(List.of(4L, 3L, 2L), feedIndex.search(price("19.999", "45"), null, 0, 10).ids());
+            assertEquals(List.of(), feedIndex.search(price("40.01", "39.99"), null, 0, 10).ids());
+
+            feedIndex.upsert(item(5L, Category.TOPS, SubCategory.TSHIRTS, Condition.NEW, "20.05", M, 5));
+
+            assertEquals(List.of(2L), feedIndex.search(price("20.00", "20.04"), null, 0, 10).ids());
+        }
+
+        @Test
+        @DisplayName("Should page by offset and report a next page")
+        void shouldPageByOffset() {
+
+            var first = feedIndex.search(ALL, null, 0, 3);
+            var second = feedIndex.search(ALL, null, 3, 3);
+
+            assertEquals(List.of(4L, 3L, 2L), first.ids());
+            assertTrue(first.hasNext());
+            assertEquals(List.of(1L), second.ids());
+            assertFalse(second.hasNext());
+        }
+
+        @Test
+        @DisplayName("Should continue after the cursor")
+        void shouldContinueAfterCursor() {
+
+            var hits = feedIndex.search(ALL, new FeedCursor(NOW.plusMinutes(3), 3L), 0, 10);
+
+            assertEquals(List.of(2L, 1L), hits.ids());
+        }
+    }
+
+    @Nested
+    class facets {
+
+        @Test
+        @DisplayName("Should count each facet with every filter but its own")
+        void shouldCountFacets() {
+
+            var output = feedIndex.facets(new FeedFilter(Category.TOPS, null, Condition.NEW, null, null, null)).toDto(LABELS::get);
+
+            assertEquals(Map.of(Category.TOPS, 2L), output.categories());
+            assertEquals(Map.of(SubCategory.TSHIRTS, 1L, SubCategory.HOODIES, 1L), output.subCategories());
+            assertEquals(Map.of(Condition.NEW, 2L, Condition.BRANDNEW, 1L), output.conditions());
+            assertEquals(Map.of("M", 2L), output.sizes());
+        }
+
+        @Test
+        @DisplayName("Should split prices at the range bounds")
+        void shouldCountPriceRanges() {
+
+            feedIndex.upsert(item(5L, Category.TOPS, SubCategory.TSHIRTS, Condition.NEW, "49.99", M, 5));
+            feedIndex.upsert(item(6L, Category.TOPS, SubCategory.TSHIRTS, Condition.NEW, "50.00", M, 6));
+            feedIndex.upsert(item(7L, Category.TOPS, SubCategory.TSHIRTS, Condition.NEW, "1500.00", M, 7));
+
+            var output = feedIndex.facets(price("30.00", "30.00")).toDto(LABELS::get);
+
+            assertEquals(List.of(5L, 1L, 0L, 0L, 0L, 1L), output.prices().stream().map(PriceFacetDto::count).toList());
+            assertNull(output.prices().getLast().to());
+            assertEquals(Map.of(Condition.NEW, 1L), output.conditions());
+        }
+
+        @Test
+        @DisplayName("Should count only the given candidates when a text search narrowed them")
+        void shouldCountCandidates() {
+
+            var output = feedIndex.facets(price("0", "35.00"), new long[]{3L, 4L, 2L, 99L}).toDto(LABELS::get);
+
+            assertEquals(Map.of(Category.TOPS, 1L, Category.BOTTOMS, 1L), output.categories());
+            assertEquals(Map.of("M", 1L, "L", 1L), output.sizes());
+            assertEquals(List.of(3L, 0L, 0L, 0L, 0L, 0L), output.prices().stream().map(PriceFacetDto::count).toList());
+        }
+    }
+
+    @Nested
+    class update {
+
+        @Test
+        @DisplayName("Should merge an item listed behind the newest one into the feed order")
+        void shouldMergeLateItems() {
+
+            feedIndex.upsert(item(5L, Category.TOPS, SubCategory.TSHIRTS, Condition.NEW, "15.00", M, 2));
+
+            assertEquals(1, feedIndex.lateSize());
+            assertEquals(List.of(4L, 3L, 5L, 2L, 1L), feedIndex.search(ALL, null, 0, 10).ids());
+            assertEquals(List.of(5L, 2L), feedIndex.search(ALL, null, 2, 2).ids());
+            assertEquals(List.of(5L, 2L, 1L), feedIndex.search(ALL, new FeedCursor(NOW.plusMinutes(3), 3L), 0, 10).ids());
+
+            feedIndex.compact();
+
+            assertEquals(0, feedIndex.lateSize());
+            assertEquals(List.of(4L, 3L, 5L, 2L, 1L), feedIndex.search(ALL, null, 0, 10).ids());
+        }
+
+        @Test
+        @DisplayName("Should move an edited item to its new bitmaps")
+        void shouldReindexEditedItem() {
+
+            feedIndex.upsert(item(3L, Category.TOPS, SubCategory.HOODIES, Condition.WORN, "35.00", L, 3));
+
+            assertEquals(List.of(3L, 2L), feedIndex.search(new FeedFilter(null, null, Condition.WORN, null, null, null), null, 0, 10).ids());
+            assertEquals(List.of(), feedIndex.search(price("30.00", "30.00"), null, 0, 10).ids());
+            assertEquals(4, feedIndex.size());
+        }
+
+        @Test
+        @DisplayName("Should stop returning removed items")
+        void shouldRemoveItems() {
+
+            feedIndex.remove(4L);
+            feedIndex.remove(2L);
+            feedIndex.remove(99L);
+
+            assertEquals(List.of(3L, 1L), feedIndex.search(ALL, null, 0, 10).ids());
+            assertEquals(2, feedIndex.count(ALL));
+        }
+    }
+
+    private static FeedFilter price(String lowest, String highest) {
+        return new FeedFilter(null, null, null, null, new BigDecimal(lowest), new BigDecimal(highest));
+    }
+
+    private static IndexedItem item(Long id, Category category, SubCategory subCategory, Condition condition, String price,
+                                    Integer size, int minutes) {
+        return new IndexedItem(id, category, subCategory, condition, new BigDecimal(price), size, NOW.plusMinutes(minutes));
+    }
+}
@@ -0,0 +1,135 @@
+package br.com.vss.resell_platform.search;
+
+import br.com.vss.resell_platform.controller.dto.SuggestionDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SuggestIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 10, 12, 0);
+
+    private SuggestIndex suggestIndex;
+
+    @BeforeEach
+    void setUp() {
+        suggestIndex = new SuggestIndex(100);
+        suggestIndex.upsert(item(1L, "Camiseta Básica", "Hering"));
+        suggestIndex.upsert(item(2L, "camiseta basica", "Hering"));
+        suggestIndex.upsert(item(3L, "Camisa Social", "Hering"));
+        suggestIndex.upsert(item(4L, "Nike", "Nike"));
+        suggestIndex.upsert(item(5L, "Nikelab Tênis", "Nike"));
+        suggestIndex.compact();
+    }
+
+    @Nested
+    class suggest {
+
+        @Test
+        @DisplayName("Should suggest the most listed phrases first")
+        void shouldRankByListings() {
+
+            var output = suggestIndex.suggest("CAMI", 10);
+
+            assertEquals(List.of(new SuggestionDto("camiseta basica", 2), new SuggestionDto("camisa social", 1)), output);
+            assertEquals(List.of(new SuggestionDto("hering", 3)), suggestIndex.suggest("her", 10));
+        }
+
+        @Test
+        @DisplayName("Should count a name equal to its brand once and only complete words after a space")
+        void shouldCompleteWords() {
+
+            assertEquals(List.of(new SuggestionDto("nike", 2), new SuggestionDto("nikelab tenis", 1)),
+                    suggestIndex.suggest("nike", 10));
+            assertEquals(List.of(new SuggestionDto("nike", 2)), suggestIndex.suggest("nike ", 10));
+            assertEquals(List.of(), suggestIndex.suggest("nikelab  x", 10));
+        }
+
+        @Test
+        @DisplayName("Should stop at the limit and ignore blank prefixes")
+        void shouldLimit() {
+
+            assertEquals(List.of(new SuggestionDto("hering", 3)), suggestIndex.suggest("h", 1));
+            assertEquals(List.of(), suggestIndex.suggest(" - ", 10));
+            assertEquals(List.of(), suggestIndex.suggest("zara", 10));
+        }
+    }
+
+    @Nested
+    class update {
+
+        @Test
+        @DisplayName("Should move the weights as items are edited and removed")
+        void shouldFollowUpdates() {
+
+            suggestIndex.upsert(item(2L, "Camisa Social", "Hering"));
+            suggestIndex.remove(4L);
+            suggestIndex.remove(99L);
+
+            assertEquals(List.of(new SuggestionDto("camisa social", 2), new SuggestionDto("camiseta basica", 1)),
+                    suggestIndex.suggest("cami", 10));
+            assertEquals(List.of(new SuggestionDto("nike", 1), new SuggestionDto("nikelab tenis", 1)),
+                    suggestIndex.suggest("nike", 10));
+        }
+
+        @Test
+        @DisplayName("Should serve new phrases after compaction and drop the ones nobody lists")
+        void shouldTakeInNewPhrasesOnCompaction() {
+
+            suggestIndex.upsert(item(6L, "Calça Jeans", "Levi's"));
+            suggestIndex.remove(3L);
+
+            assertEquals(List.of(new SuggestionDto("camiseta basica", 2)), suggestIndex.suggest("ca", 10));
+
+            suggestIndex.compact();
+
+            assertEquals(List.of(new SuggestionDto("camiseta basica", 2), new SuggestionDto("calca jeans", 1)),
+                    suggestIndex.suggest("ca", 10));
+            assertEquals(6, suggestIndex.size());
+        }
+
+        @Test
+        @DisplayName("Should keep the heaviest phrases past the cap, the newer ones on equal weights")
+        void shouldCapPhrasesByWeight() {
+
+            SuggestIndex capped = new SuggestIndex(2);
+            capped.upsert(item(1L, "Camiseta", "Hering"));
+            capped.upsert(item(2L, "Camisa", "Hering"));
+            capped.compact();
+
+            assertEquals(List.of(new SuggestionDto("camisa", 1)), capped.suggest("c", 10));
+            assertEquals(List.of(new SuggestionDto("hering", 2)), capped.suggest("h", 10));
+            assertEquals(2, capped.size());
+
+            capped.upsert(item(3L, "Calça", "Hering"));
+            capped.upsert(item(4L, "Calça", "Hering"));
+            capped.compact();
+
+            assertEquals(List.of(new SuggestionDto("calca", 2)), capped.suggest("c", 10));
+            assertEquals(List.of(new SuggestionDto("hering", 4)), capped.suggest("h", 10));
+        }
+
+        @Test
+        @DisplayName("Should compact on its own past twice the cap")
+        void shouldBoundPhrasesBetweenCompactions() {
+
+            SuggestIndex capped = new SuggestIndex(2);
+            for (long id = 1; id <= 10; id++) {
+                capped.upsert(item(id, "Modelo " + id, "Hering"));
+            }
+
+            assertTrue(capped.size() < 4);
+            assertEquals(List.of(new SuggestionDto("hering", 10)), capped.suggest("h", 10));
+        }
+    }
+
+    private static IndexedText item(Long id, String name, String brand) {
+        return new IndexedText(id, 0L, name, brand, NOW);
+    }
+}
@@ -0,0 +1,195 @@
+package br.com.vss.resell_platform.search;
+
+import br.com.vss.resell_platform.util.FeedCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 10, 12, 0);
+
+    private TextIndex textIndex;
+
+    @BeforeEach
+    void setUp() {
+        textIndex = new TextIndex(2);
+        textIndex.upsert(item(1L, "Camiseta Básica Branca", "Hering", 1));
+        textIndex.upsert(item(2L, "Tênis de corrida", "Nike", 2));
+        textIndex.upsert(item(3L, "Camiseta estampada com bolso e gola redonda", "Nike", 3));
+        textIndex.upsert(item(4L, "Jaqueta jeans", "Levi's", 4));
+    }
+
+    @Nested
+    class match {
+
+        @Test
+        @DisplayName("Should match every word regardless of case and accents")
+        void shouldMatchNormalizedWords() {
+
+            assertEquals(List.of(1L), matches("CAMISETA basica", null));
+            assertEquals(List.of(2L), matches("tenis", null));
+            assertEquals(List.of(), matches("camiseta jeans", null));
+        }
+
+        @Test
+        @DisplayName("Should match the name and the brand each in its own field")
+        void shouldMatchFields() {
+
+            assertEquals(List.of(2L, 3L), matches(null, "nike"));
+            assertEquals(List.of(3L), matches("camiseta", "nike"));
+            assertEquals(List.of(), matches("nike", null));
+        }
+
+        @Test
+        @DisplayName("Should complete the last word and forgive one typo")
+        void shouldMatchPrefixesAndTypos() {
+
+            assertEquals(List.of(1L, 3L), matches("cami", null));
+            assertEquals(List.of(), matches("cami branca", null));
+            assertEquals(List.of(4L), matches("jaquta", null));
+            assertEquals(List.of(2L), matches("corirda", null));
+            assertEquals(List.of(), matches("xaqueta", null));
+        }
+
+        @Test
+        @DisplayName("Should accept one edit at most")
+        void shouldMeasureOneEdit() {
+
+            assertTrue(TextIndex.withinOneEdit("jaqueta", "jaquta"));
+            assertTrue(TextIndex.withinOneEdit("corrida", "corirda"));
+            assertTrue(TextIndex.withinOneEdit("bolso", "bolsa"));
+            assertFalse(TextIndex.withinOneEdit("bolso", "balsa"));
+            assertFalse(TextIndex.withinOneEdit("jeans", "jeanses"));
+        }
+    }
+
+    @Nested
+    class rank {
+
+        @Test
+        @DisplayName("Should rank the exact word and shorter names first")
+        void shouldRankByRelevance() {
+
+            textIndex.upsert(item(5L, "Camisetas polo kit", "Hering", 5));
+
+            var hits = textIndex.rank("camiseta", null, new long[]{1L, 3L, 5L, 99L}, null, 0, 10);
+
+            assertEquals(List.of(1L, 5L, 3L), hits.ids());
+            assertFalse(hits.hasNext());
+        }
+
+        @Test
+        @DisplayName("Should break ties by feed order and page by offset")
+        void shouldBreakTiesByFeedOrder() {
+
+            textIndex.upsert(item(5L, "Boné", "Nike", 5));
+            long[] nike = textIndex.match(null, "nike");
+
+            var first = textIndex.rank(null, "nike", nike, null, 0, 2);
+            var second = textIndex.rank(null, "nike", nike, null, 2, 2);
+
+            assertEquals(List.of(5L, 3L), first.ids());
+            assertTrue(first.hasNext());
+            assertEquals(List.of(2L), second.ids());
+            assertFalse(second.hasNext());
+        }
+
+        @Test
+        @DisplayName("Should continue after the cursor even when its item is gone")
+        void shouldContinueAfterCursor() {
+
+            textIndex.upsert(item(5L, "Boné", "Nike", 5));
+            long[] nike = textIndex.match(null, "nike");
+            textIndex.remove(5L);
+
+            var hits = textIndex.rank(null, "nike", nike, new FeedCursor(NOW.plusMinutes(5), 5L), 0, 10);
+
+            assertEquals(List.of(3L, 2L), hits.ids());
+        }
+    }
+
+    @Nested
+    class update {
+
+        @Test
+        @DisplayName("Should index the new words of an edited item and forget removed ones")
+        void shouldReindexAndRemove() {
+
+            textIndex.upsert(item(1L, "Regata branca", "Hering", 1));
+            textIndex.remove(4L);
+            textIndex.remove(99L);
+
+            assertEquals(List.of(), matches("camiseta basica", null));
+            assertEquals(List.of(1L), matches("regata", null));
+            assertEquals(List.of(), matches("jaqueta", null));
+            assertEquals(3, textIndex.size());
+            assertArrayEquals(new long[]{1L, 2L, 3L}, textIndex.ids());
+        }
+
+        @Test
+        @DisplayName("Should tell whether the indexed version is current")
+        void shouldCompareVersions() {
+
+            assertTrue(textIndex.isCurrent(1L, 0L));
+            assertFalse(textIndex.isCurrent(1L, 1L));
+            assertFalse(textIndex.isCurrent(99L, 0L));
+        }
+    }
+
+    @Nested
+    class snapshot {
+
+        @Test
+        @DisplayName("Should read back what it wrote")
+        void shouldRoundTrip(@TempDir Path directory) throws IOException {
+
+            textIndex.remove(2L);
+            Path file = directory.resolve("items.idx");
+            textIndex.writeTo(file);
+
+            TextIndex restored = new TextIndex(2);
+            restored.readFrom(file);
+
+            assertEquals(3, restored.size());
+            assertEquals(List.of(1L, 3L), Arrays.stream(restored.match("camis", null)).sorted().boxed().toList());
+            assertEquals(List.of(), Arrays.stream(restored.match("tenis", null)).boxed().toList());
+            assertTrue(restored.isCurrent(4L, 0L));
+        }
+
+        @Test
+        @DisplayName("Should refuse a corrupt file and stay empty")
+        void shouldRejectCorruptFile(@TempDir Path directory) throws IOException {
+
+            Path file = directory.resolve("items.idx");
+            textIndex.writeTo(file);
+            byte[] bytes = Files.readAllBytes(file);
+            bytes[bytes.length / 2] ^= 1;
+            Files.write(file, bytes);
+
+            TextIndex restored = new TextIndex(2);
+
+            assertThrows(IOException.class, () -> restored.readFrom(file));
+            assertEquals(0, restored.size());
+        }
+    }
+
+    private List<Long> matches(String name, String brand) {
+        return Arrays.stream(textIndex.match(name, brand)).sorted().boxed().toList();
+    }
+
+    private static IndexedText item(Long id, String name, String brand, int minutes) {
+        return new IndexedText(id, 0L, name, brand, NOW.plusMinutes(minutes));
+    }
+}
@@ -1,6 +1,8 @@
 package br.com.vss.resell_platform.service;
 
+import br.com.vss.resell_platform.model.Brand;
 import br.com.vss.resell_platform.model.Item;
+import br.com.vss.resell_platform.model.Size;
 import br.com.vss.resell_platform.model.User;
 import br.com.vss.resell_platform.util.Category;
 import br.com.vss.resell_platform.util.Condition;
@@ -26,7 +28,7 @@ class CommissionServiceTest {
     void shouldCalculateCommission() {
 
         User seller = new User("username", "password", "email");
-        Item item = new Item("name", "brand", Category.BOTTOMS, SubCategory.TROUSERS, Condition.NEW, new BigDecimal("1000"), "size", seller);
+        Item item = new Item("name", new Brand("brand"), Category.BOTTOMS, SubCategory.TROUSERS, Condition.NEW, new BigDecimal("1000"), new Size("size"), seller);
 
         BigDecimal commissionPercentage = new BigDecimal("0.10");
 
@@ -0,0 +1,112 @@
+package br.com.vss.resell_platform.service;
+
+import br.com.vss.resell_platform.model.Brand;
+import br.com.vss.resell_platform.model.Item;
+import br.com.vss.resell_platform.model.Size;
+import br.com.vss.resell_platform.model.Transaction;
+import br.com.vss.resell_platform.model.User;
+import br.com.vss.resell_platform.repository.BrandRepository;
+import br.com.vss.resell_platform.repository.ItemRepository;
+import br.com.vss.resell_platform.repository.SizeRepository;
+import br.com.vss.resell_platform.repository.TransactionRepository;
+import br.com.vss.resell_platform.repository.UserRepository;
+import br.com.vss.resell_platform.util.Category;
+import br.com.vss.resell_platform.util.Condition;
+import br.com.vss.resell_platform.util.ExportFormat;
+import br.com.vss.resell_platform.util.SubCategory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.show-sql=false"
+})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(ExportService.class)
+class ExportServiceTest {
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private BrandRepository brandRepository;
+
+    @Autowired
+    private SizeRepository sizeRepository;
+
+    private User seller;
+    private Item sold;
+
+    @BeforeEach
+    void setUp() {
+        seller = userRepository.save(new User("seller", "password", "seller@email"));
+        User buyer = userRepository.save(new User("buyer", "password", "buyer@email"));
+        User other = userRepository.save(new User("other", "password", "other@email"));
+
+        Brand nike = brandRepository.save(new Brand("Nike"));
+        Size size = sizeRepository.save(new Size("42"));
+
+        sold = itemRepository.save(new Item("Air Max, \"OG\"", nike, Category.FOOTWEAR, SubCategory.SNEAKERS, Condition.NEW,
+                new BigDecimal("100"), size, seller));
+        itemRepository.save(new Item("Dunk", nike, Category.FOOTWEAR, SubCategory.SNEAKERS, Condition.WORN,
+                new BigDecimal("50"), null, seller));
+        itemRepository.save(new Item("Samba", brandRepository.save(new Brand("Adidas")), Category.FOOTWEAR,
+                SubCategory.SNEAKERS, Condition.NEW, new BigDecimal("80"), size, other));
+
+        transactionRepository.save(new Transaction(seller, buyer, sold));
+    }
+
+    @Test
+    @DisplayName("Should export only the seller listings as CSV with quoted fields")
+    void shouldExportListingsAsCsv() throws IOException {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportListings(seller.getId(), ExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+
+        assertEquals(3, lines.length);
+        assertEquals("id,name,brand,category,subCategory,condition,price,size,status,listedAt", lines[0]);
+        assertTrue(lines[1].startsWith(sold.getId() + ",\"Air Max, \"\"OG\"\"\",Nike,FOOTWEAR,SNEAKERS,NEW,100"));
+        assertTrue(lines[1].contains(",100.00,42,"));
+        assertTrue(lines[2].contains(",Dunk,Nike,"));
+    }
+
+    @Test
+    @DisplayName("Should export the seller sales as NDJSON")
+    void shouldExportSalesAsNdjson() throws IOException {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportSales(seller.getId(), ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+
+        assertEquals(1, lines.length);
+        assertTrue(lines[0].contains("\"itemId\":" + sold.getId()));
+        assertTrue(lines[0].contains("\"buyer\":\"buyer\""));
+        assertTrue(lines[0].contains("\"amount\":100"));
+    }
+}
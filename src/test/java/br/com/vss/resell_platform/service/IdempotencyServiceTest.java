@@ -0,0 +1,91 @@
+package br.com.vss.resell_platform.service;
+
+import br.com.vss.resell_platform.cache.IdempotencyStore;
+import br.com.vss.resell_platform.exceptions.IdempotencyConflictException;
+import br.com.vss.resell_platform.exceptions.ItemNotAvailableException;
+import br.com.vss.resell_platform.exceptions.PurchaseConflictException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    private IdempotencyService idempotencyService;
+
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        // Redis is down for every test here, so the in-memory fallback is what gets exercised
+        when(redisTemplate.opsForValue()).thenThrow(new RedisConnectionFailureException("down"));
+        lenient().when(redisTemplate.delete(anyString())).thenThrow(new RedisConnectionFailureException("down"));
+
+        idempotencyService = new IdempotencyService(new IdempotencyStore(redisTemplate, 100, Duration.ofHours(1)));
+        ReflectionTestUtils.setField(idempotencyService, "ttl", Duration.ofHours(1));
+        ReflectionTestUtils.setField(idempotencyService, "pendingTtl", Duration.ofSeconds(30));
+    }
+
+    @Test
+    @DisplayName("Should run a purchase once and replay its success to retries")
+    void shouldReplaySuccess() {
+
+        idempotencyService.execute("buy:1:1", "key", attempts::incrementAndGet);
+        idempotencyService.execute("buy:1:1", "key", attempts::incrementAndGet);
+
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Should replay a final failure without running the purchase again")
+    void shouldReplayFailure() {
+
+        Runnable soldOut = () -> {
+            attempts.incrementAndGet();
+            throw new ItemNotAvailableException();
+        };
+
+        assertThrows(ItemNotAvailableException.class, () -> idempotencyService.execute("buy:1:1", "key", soldOut));
+        assertThrows(ItemNotAvailableException.class, () -> idempotencyService.execute("buy:1:1", "key", soldOut));
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Should let a retry through after a transient failure")
+    void shouldReleaseKeyOnTransientFailure() {
+
+        assertThrows(PurchaseConflictException.class, () -> idempotencyService.execute("buy:1:1", "key", () -> {
+            throw new PurchaseConflictException();
+        }));
+
+        idempotencyService.execute("buy:1:1", "key", attempts::incrementAndGet);
+
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Should reject a retry while the first attempt is still running")
+    void shouldRejectConcurrentRetry() {
+
+        idempotencyService.execute("buy:1:1", "key", () ->
+                assertThrows(IdempotencyConflictException.class,
+                        () -> idempotencyService.execute("buy:1:1", "key", attempts::incrementAndGet)));
+
+        assertEquals(0, attempts.get());
+    }
+}
@@ -0,0 +1,274 @@
+package br.com.vss.resell_platform.service;
+
+import br.com.vss.resell_platform.cache.FeedGeneration;
+import br.com.vss.resell_platform.model.Item;
+import br.com.vss.resell_platform.search.FeedIndexChange;
+import br.com.vss.resell_platform.search.IndexSink;
+import br.com.vss.resell_platform.util.ItemStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IndexSyncServiceTest {
+
+    private static final String CHANNEL = "feed-index";
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private FeedGeneration feedGeneration;
+
+    private FakeSink sink;
+    private IndexSyncService indexSyncService;
+
+    @BeforeEach
+    void setUp() {
+        sink = new FakeSink();
+        indexSyncService = new IndexSyncService(List.of(sink), redisTemplate, feedGeneration, CHANNEL);
+    }
+
+    @Nested
+    class load {
+
+        @Test
+        @DisplayName("Should hold back the changes made while loading and read them once the index is loaded")
+        void shouldReplayChangesDeferredWhileLoading() {
+
+            sink.table.addAll(List.of(1L, 2L, 3L));
+            sink.onLoad = () -> {
+                sink.index.addAll(sink.table);
+                // this node lists 7 and another node sells 2 while the rows are being read
+                sink.table.add(7L);
+                indexSyncService.saved(List.of(item(7L, ItemStatus.AVAILABLE)));
+                sink.table.remove(2L);
+                indexSyncService.onMessage(message(new FeedIndexChange("other", false, List.of(2L))), null);
+
+                assertFalse(sink.index.contains(7L));
+                assertTrue(sink.index.contains(2L));
+            };
+
+            indexSyncService.load();
+
+            assertEquals(Set.of(1L, 3L, 7L), sink.index);
+            assertEquals(List.of(List.of(7L, 2L)), sink.reads);
+            assertEquals(1, sink.loadedCalls);
+        }
+
+        @Test
+        @DisplayName("Should read the ids left by the load in chunks and drop the ones no longer available")
+        void shouldReadInChunks() {
+
+            LongStream.rangeClosed(1, 2500).filter(id -> id % 2 == 0).forEach(sink.table::add);
+            LongStream.rangeClosed(1, 2500).forEach(sink.index::add);
+            sink.stale = LongStream.rangeClosed(1, 2500).boxed().toList();
+
+            indexSyncService.load();
+
+            assertEquals(List.of(1000, 1000, 500), sink.reads.stream().map(List::size).toList());
+            assertEquals(sink.table, sink.index);
+        }
+
+        @Test
+        @DisplayName("Should apply changes as they come once loaded")
+        void shouldApplyChangesAfterLoad() {
+
+            indexSyncService.load();
+            indexSyncService.saved(List.of(item(4L, ItemStatus.AVAILABLE), item(5L, ItemStatus.SOLD)));
+
+            assertEquals(Set.of(4L), sink.index);
+            assertTrue(sink.reads.isEmpty());
+        }
+    }
+
+    @Nested
+    class onMessage {
+
+        @BeforeEach
+        void setUp() {
+            indexSyncService.load();
+        }
+
+        @Test
+        @DisplayName("Should skip the changes this node published itself")
+        void shouldSkipOwnMessages() {
+
+            sink.table.add(9L);
+            indexSyncService.saved(List.of(item(9L, ItemStatus.AVAILABLE)));
+            ArgumentCaptor<Object> published = ArgumentCaptor.forClass(Object.class);
+            verify(redisTemplate).convertAndSend(eq(CHANNEL), published.capture());
+            // were the message read back, 9 would leave the index
+            sink.table.remove(9L);
+
+            indexSyncService.onMessage(message((String) published.getValue()), null);
+
+            assertEquals(Set.of(9L), sink.index);
+            assertTrue(sink.reads.isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should read back the ids another node changed")
+        void shouldRefreshOtherNodes() {
+
+            sink.table.addAll(List.of(1L, 2L));
+            sink.index.add(3L);
+
+            indexSyncService.onMessage(message(new FeedIndexChange("other", false, List.of(1L, 3L))), null);
+            indexSyncService.onMessage(message(new FeedIndexChange("other", true, List.of(2L))), null);
+
+            assertEquals(Set.of(1L), sink.index);
+            assertEquals(List.of(List.of(1L, 3L)), sink.reads);
+        }
+    }
+
+    @Nested
+    class reconcile {
+
+        @BeforeEach
+        void setUp() {
+            indexSyncService.load();
+        }
+
+        @Test
+        @DisplayName("Should read the drifted ids again and bump the generation")
+        void shouldReadDriftedIds() {
+
+            // 4 was listed and 5 sold by another node while its messages were lost
+            sink.table.add(4L);
+            sink.index.add(5L);
+            sink.drifted = List.of(4L, 5L);
+
+            indexSyncService.reconcile();
+
+            assertEquals(Set.of(4L), sink.index);
+            verify(feedGeneration).bump();
+        }
+
+        @Test
+        @DisplayName("Should leave the indexes and the generation alone when nothing drifted")
+        void shouldSkipWithoutDrift() {
+
+            sink.drifted = List.of();
+            indexSyncService.reconcile();
+
+            sink.drifted = null;
+            indexSyncService.reconcile();
+
+            assertTrue(sink.reads.isEmpty());
+            verifyNoInteractions(feedGeneration);
+        }
+    }
+
+    private static Item item(Long id, ItemStatus status) {
+        Item item = new Item();
+        item.setId(id);
+        item.setStatus(status);
+        return item;
+    }
+
+    private static DefaultMessage message(FeedIndexChange change) {
+        return message(change.encode());
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // indexes item ids, the rows are the ids still available in the table
+    private static final class FakeSink implements IndexSink<Long> {
+
+        private final Set<Long> table = new TreeSet<>();
+        private final Set<Long> index = new TreeSet<>();
+        private final List<List<Long>> reads = new ArrayList<>();
+        private Collection<Long> stale = List.of();
+        private Collection<Long> drifted;
+        private Runnable onLoad = () -> { };
+        private int loadedCalls;
+
+        @Override
+        public String name() {
+            return "fake";
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return true;
+        }
+
+        @Override
+        public Collection<Long> load() {
+            onLoad.run();
+            return stale;
+        }
+
+        @Override
+        public void loaded() {
+            loadedCalls++;
+        }
+
+        @Override
+        public void clear() {
+            index.clear();
+        }
+
+        @Override
+        public Collection<Long> drifted() {
+            return drifted;
+        }
+
+        @Override
+        public List<Long> find(List<Long> ids) {
+            reads.add(List.copyOf(ids));
+            return ids.stream().filter(table::contains).toList();
+        }
+
+        @Override
+        public Long idOf(Long row) {
+            return row;
+        }
+
+        @Override
+        public Long of(Item item) {
+            return item.getId();
+        }
+
+        @Override
+        public void upsert(Long row) {
+            index.add(row);
+        }
+
+        @Override
+        public void remove(Long id) {
+            index.remove(id);
+        }
+
+        @Override
+        public long size() {
+            return index.size();
+        }
+
+        @Override
+        public long memoryBytes() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package br.com.vss.resell_platform.service;
+
+import br.com.vss.resell_platform.cache.FeedGeneration;
+import br.com.vss.resell_platform.controller.dto.ImportReportDto;
+import br.com.vss.resell_platform.controller.dto.ImportRowErrorDto;
+import br.com.vss.resell_platform.mapper.ItemMapper;
+import br.com.vss.resell_platform.model.User;
+import br.com.vss.resell_platform.repository.ItemRepository;
+import br.com.vss.resell_platform.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.show-sql=false",
+        "items.import.chunk-size=2"
+})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Import({ItemImportService.class, ItemMapper.class, DictionaryService.class})
+class ItemImportServiceTest {
+
+    @Autowired
+    private ItemImportService itemImportService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private FeedGeneration feedGeneration;
+
+    @MockitoBean
+    private IndexSyncService indexSyncService;
+
+    @MockitoSpyBean
+    private ItemMapper itemMapper;
+
+    private User seller;
+
+    @BeforeEach
+    void setUp() {
+        seller = userRepository.save(new User("username", "password", "email"));
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String row(String name, String condition, int price) {
+        return "{\"name\":\"" + name + "\",\"brand\":\"Nike\",\"category\":\"FOOTWEAR\",\"subCategory\":\"SNEAKERS\","
+                + "\"condition\":\"" + condition + "\",\"price\":" + price + ",\"size\":\"42\"}";
+    }
+
+    @Test
+    @DisplayName("Should import valid NDJSON rows and report the invalid ones")
+    void shouldImportNdjsonAndReportRowErrors() throws IOException {
+
+        String ndjson = String.join("\n",
+                row("Air Max", "NEW", 100),
+                row("Dunk", "NEW", 0),
+                row("Jordan", "BROKEN", 100),
+                row(" ", "NEW", 100),
+                row("Cortez", "WORN", 80),
+                row("Blazer", "NEW", 90));
+
+        ImportReportDto report = itemImportService.importItems(body(ndjson), seller.getId());
+
+        assertEquals(6, report.received());
+        assertEquals(3, report.imported());
+        assertEquals(3, report.failed());
+        assertEquals(List.of(
+                new ImportRowErrorDto(2, List.of("Price must be above 0.")),
+                new ImportRowErrorDto(3, List.of("Invalid value for condition.")),
+                new ImportRowErrorDto(4, List.of("Title cant be blank."))), report.errors());
+        assertEquals(3, itemRepository.count());
+        verify(indexSyncService, times(2)).saved(anyCollection());
+        verify(feedGeneration, times(1)).bump();
+    }
+
+    @Test
+    @DisplayName("Should reject only the rows that fail to save, keeping the rest of their chunk")
+    void shouldRejectOnlyRowsThatFailToSave() throws IOException {
+
+        doThrow(new DataIntegrityViolationException("value too long"))
+                .when(itemMapper).toItem(argThat(request -> request != null && "Dunk".equals(request.name())), any());
+        String ndjson = String.join("\n",
+                row("Air Max", "NEW", 100),
+                row("Dunk", "NEW", 100),
+                row("a".repeat(256), "NEW", 100),
+                row("Cortez", "WORN", 80));
+
+        ImportReportDto report = itemImportService.importItems(body(ndjson), seller.getId());
+
+        assertEquals(2, report.imported());
+        assertEquals(List.of(
+                new ImportRowErrorDto(2, List.of("Item could not be saved.")),
+                new ImportRowErrorDto(3, List.of("Title cant be longer than 255 characters."))), report.errors());
+        assertEquals(2, itemRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should import the elements of a JSON array")
+    void shouldImportJsonArray() throws IOException {
+
+        String array = "[" + row("Air Max", "NEW", 100) + "," + row("Dunk", "WORN", 50) + "]";
+
+        ImportReportDto report = itemImportService.importItems(body(array), seller.getId());
+
+        assertEquals(2, report.imported());
+        assertTrue(report.errors().isEmpty());
+        assertEquals(2, itemRepository.count());
+    }
+}
@@ -1,11 +1,19 @@
 package br.com.vss.resell_platform.service;
 
+import br.com.vss.resell_platform.cache.FeedGeneration;
+import br.com.vss.resell_platform.controller.dto.FeedItemDto;
+import br.com.vss.resell_platform.exceptions.InvalidCursorException;
 import br.com.vss.resell_platform.exceptions.ItemNotFoundException;
+import br.com.vss.resell_platform.model.Brand;
 import br.com.vss.resell_platform.model.Item;
+import br.com.vss.resell_platform.model.Size;
 import br.com.vss.resell_platform.model.User;
 import br.com.vss.resell_platform.repository.ItemRepository;
+import br.com.vss.resell_platform.search.FeedFilter;
+import br.com.vss.resell_platform.search.TextIndex;
 import br.com.vss.resell_platform.util.Category;
 import br.com.vss.resell_platform.util.Condition;
+import br.com.vss.resell_platform.util.FeedCursor;
 import br.com.vss.resell_platform.util.SubCategory;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -14,8 +22,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,6 +39,30 @@ class ItemServiceTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private FeedCountService feedCountService;
+
+    @Mock
+    private ItemSummaryService itemSummaryService;
+
+    @Mock
+    private FeedGeneration feedGeneration;
+
+    @Mock
+    private IndexSyncService indexSyncService;
+
+    @Mock
+    private FeedIndexService feedIndexService;
+
+    @Mock
+    private FeedFacetService feedFacetService;
+
+    @Mock
+    private TextIndexService textIndexService;
+
+    @Mock
+    private DictionaryService dictionaryService;
+
     @InjectMocks
     private ItemService itemService;
 
@@ -46,7 +80,7 @@ class ItemServiceTest {
         void shouldCreateItem(){
 
             User seller = new User("username", "password", "email");
-            Item item = new Item("name", "brand", Category.BOTTOMS, SubCategory.TROUSERS, Condition.NEW, new BigDecimal("1000"), "size", seller);
+            Item item = new Item("name", new Brand("brand"), Category.BOTTOMS, SubCategory.TROUSERS, Condition.NEW, new BigDecimal("1000"), new Size("size"), seller);
 
             doReturn(item).when(itemRepository).save(itemArgumentCaptor.capture());
 
@@ -66,7 +100,7 @@ class ItemServiceTest {
         void shouldReturnItemById() {
 
             User seller = new User("username", "password", "email");
-            Item item = new Item("name", "brand", Category.BOTTOMS, SubCategory.TROUSERS, Condition.NEW, new BigDecimal("1000"), "size", seller);
+            Item item = new Item("name", new Brand("brand"), Category.BOTTOMS, SubCategory.TROUSERS, Condition.NEW, new BigDecimal("1000"), new Size("size"), seller);
 
             doReturn(Optional.of(item)).when(itemRepository).findById(longArgumentCaptor.capture());
 
@@ -81,7 +115,7 @@ class ItemServiceTest {
         void shouldThrowExceptionWhenItemIsNotFound() {
 
             User seller = new User("username", "password", "email");
-            Item item = new Item("name", "brand", Category.BOTTOMS, SubCategory.TROUSERS, Condition.NEW, new BigDecimal("1000"), "size", seller);
+            Item item = new Item("name", new Brand("brand"), Category.BOTTOMS, SubCategory.TROUSERS, Condition.NEW, new BigDecimal("1000"), new Size("size"), seller);
 
             doReturn(Optional.empty()).when(itemRepository).findById(longArgumentCaptor.capture());
 
@@ -99,7 +133,7 @@ class ItemServiceTest {
         void shouldDeleteUser() {
 
             User seller = new User("username", "password", "email");
-            Item item = new Item("name", "brand", Category.BOTTOMS, SubCategory.TROUSERS, Condition.NEW, new BigDecimal("1000"), "size", seller);
+            Item item = new Item("name", new Brand("brand"), Category.BOTTOMS, SubCategory.TROUSERS, Condition.NEW, new BigDecimal("1000"), new Size("size"), seller);
 
             doNothing().when(itemRepository).deleteById(longArgumentCaptor.capture());
 
@@ -122,7 +156,7 @@ class ItemServiceTest {
         void shouldFindAllItems() {
 
             User seller = new User("username", "password", "email");
-            Item item = new Item("name", "brand", Category.BOTTOMS, SubCategory.TROUSERS, Condition.NEW, new BigDecimal("1000"), "size", seller);
+            Item item = new Item("name", new Brand("brand"), Category.BOTTOMS, SubCategory.TROUSERS, Condition.NEW, new BigDecimal("1000"), new Size("size"), seller);
             Pageable pageable = PageRequest.of(0, 10);
             Page<Item> itemPage = new PageImpl<>(List.of(item), pageable, 0);
 
@@ -137,4 +171,153 @@ class ItemServiceTest {
 
     }
 
+    @Nested
+    class findFilteredAfter {
+
+        @Test
+        @DisplayName("Should seek from the cursor without counting")
+        void shouldSeekFromCursor() {
+
+            FeedItemDto item = new FeedItemDto(1L, "name", "brand", Category.BOTTOMS, SubCategory.TROUSERS, Condition.NEW,
+                    new BigDecimal("1000"), "size", "username", LocalDateTime.now());
+            FeedCursor cursor = new FeedCursor(LocalDateTime.now(), 10L);
+            ArgumentCaptor<Pageable> pageableArgumentCaptor = ArgumentCaptor.forClass(Pageable.class);
+
+            doReturn(new SliceImpl<>(List.of(item), PageRequest.of(0, 1), true))
+                    .when(itemRepository).findFeedSlice(any(Specification.class), pageableArgumentCaptor.capture());
+
+            var output = itemService.findFilteredAfter(cursor, 1, null, null, null, null, null,
+                    BigDecimal.ZERO, new BigDecimal("999999"), null);
+
+            assertEquals(1, output.getContent().size());
+            assertTrue(output.isHasNext());
+            assertFalse(output.isCounted());
+            assertEquals(0, pageableArgumentCaptor.getValue().getOffset());
+            assertEquals(ItemService.FEED_SORT, pageableArgumentCaptor.getValue().getSort());
+            verify(itemRepository, never()).count(any(Specification.class));
+        }
+
+        @Test
+        @DisplayName("Should continue a ranked search from a ranked cursor")
+        void shouldContinueRankedSearch() {
+
+            FeedCursor cursor = new FeedCursor(LocalDateTime.now(), 10L, FeedCursor.Order.RELEVANCE);
+            doReturn(true).when(textIndexService).isReady();
+            doReturn(true).when(feedIndexService).isReady();
+            doReturn(new TextIndex.Hits(List.of(4L), true, 2)).when(textIndexService)
+                    .search(eq("nike"), isNull(), any(), eq(cursor), eq(0L), eq(1));
+
+            var output = itemService.findFilteredAfter(cursor, 1, "nike", null, null, null, null,
+                    BigDecimal.ZERO, new BigDecimal("999999"), null);
+
+            assertTrue(output.isRanked());
+            assertTrue(output.isHasNext());
+            verifyNoInteractions(itemRepository);
+        }
+
+        @Test
+        @DisplayName("Should throw InvalidCursorException when the cursor was listed in the other order")
+        void shouldRejectCursorFromOtherOrder() {
+
+            FeedCursor feed = new FeedCursor(LocalDateTime.now(), 10L);
+            FeedCursor ranked = new FeedCursor(LocalDateTime.now(), 10L, FeedCursor.Order.RELEVANCE);
+            doReturn(true).when(textIndexService).isReady();
+            doReturn(true).when(feedIndexService).isReady();
+
+            assertThrows(InvalidCursorException.class, () -> itemService.findFilteredAfter(feed, 1, "nike", null, null,
+                    null, null, BigDecimal.ZERO, new BigDecimal("999999"), null));
+            // the text index is still loading, so the search is back in feed order
+            doReturn(false).when(textIndexService).isReady();
+            assertThrows(InvalidCursorException.class, () -> itemService.findFilteredAfter(ranked, 1, "nike", null, null,
+                    null, null, BigDecimal.ZERO, new BigDecimal("999999"), null));
+            verifyNoInteractions(itemRepository);
+        }
+    }
+
+    @Nested
+    class isCacheable {
+
+        @Test
+        @DisplayName("Should not cache name and brand searches the database answers while the text index loads")
+        void shouldSkipSearchesWhileTextIndexLoads() {
+
+            doReturn(true).when(textIndexService).isEnabled();
+            doReturn(true).when(feedIndexService).isEnabled();
+
+            assertTrue(itemService.isCacheable(null, null));
+            assertFalse(itemService.isCacheable("nike", null));
+
+            doReturn(true).when(textIndexService).isReady();
+            doReturn(true).when(feedIndexService).isReady();
+
+            assertTrue(itemService.isCacheable("nike", null));
+        }
+
+        @Test
+        @DisplayName("Should cache name and brand searches when the database is the only way to answer them")
+        void shouldCacheSearchesWithoutTextIndex() {
+
+            doReturn(false).when(textIndexService).isEnabled();
+
+            assertTrue(itemService.isCacheable(null, "nike"));
+        }
+    }
+
+    @Nested
+    class findFiltered {
+
+        @Test
+        @DisplayName("Should report the total count of every match, not the page size")
+        void shouldReportTotalCount() {
+
+            FeedItemDto item = new FeedItemDto(1L, "name", "brand", Category.BOTTOMS, SubCategory.TROUSERS, Condition.NEW,
+                    new BigDecimal("1000"), "size", "username", LocalDateTime.now());
+            Pageable pageable = PageRequest.of(0, 1, ItemService.FEED_SORT);
+
+            doReturn(new SliceImpl<>(List.of(item), pageable, true)).when(itemRepository).findFeedSlice(any(Specification.class), eq(pageable));
+            doReturn(25L).when(feedCountService).count(null, null, null, null, null, BigDecimal.ZERO, new BigDecimal("999999"), null);
+
+            var output = itemService.findFiltered(pageable, null, null, null, null, null,
+                    BigDecimal.ZERO, new BigDecimal("999999"), null);
+
+            assertEquals(25L, output.getTotalElements());
+            assertEquals(25, output.getTotalPages());
+            assertTrue(output.isCounted());
+        }
+
+        @Test
+        @DisplayName("Should not count when a slice is requested")
+        void shouldNotCountSlice() {
+
+            FeedItemDto item = new FeedItemDto(1L, "name", "brand", Category.BOTTOMS, SubCategory.TROUSERS, Condition.NEW,
+                    new BigDecimal("1000"), "size", "username", LocalDateTime.now());
+            Pageable pageable = PageRequest.of(3, 1, ItemService.FEED_SORT);
+
+            doReturn(new SliceImpl<>(List.of(item), pageable, false)).when(itemRepository).findFeedSlice(any(Specification.class), eq(pageable));
+
+            var output = itemService.findFilteredSlice(pageable, null, null, null, null, null,
+                    BigDecimal.ZERO, new BigDecimal("999999"), null);
+
+            assertFalse(output.isCounted());
+            assertFalse(output.isHasNext());
+            verifyNoInteractions(feedCountService);
+        }
+
+        @Test
+        @DisplayName("Should answer an empty slice for a size nobody listed without querying")
+        void shouldSkipUnknownSize() {
+
+            Pageable pageable = PageRequest.of(0, 10, ItemService.FEED_SORT);
+
+            doReturn(FeedFilter.UNKNOWN_SIZE).when(dictionaryService).findSizeId("XXXL");
+
+            var output = itemService.findFilteredSlice(pageable, null, null, null, null, null,
+                    BigDecimal.ZERO, new BigDecimal("999999"), "XXXL");
+
+            assertTrue(output.getContent().isEmpty());
+            assertFalse(output.isHasNext());
+            verifyNoInteractions(itemRepository);
+        }
+    }
+
 }
@@ -0,0 +1,140 @@
+package br.com.vss.resell_platform.service;
+
+import br.com.vss.resell_platform.model.Item;
+import br.com.vss.resell_platform.model.LedgerEntry;
+import br.com.vss.resell_platform.model.User;
+import br.com.vss.resell_platform.repository.ItemRepository;
+import br.com.vss.resell_platform.repository.LedgerEntryRepository;
+import br.com.vss.resell_platform.repository.UserRepository;
+import br.com.vss.resell_platform.util.Category;
+import br.com.vss.resell_platform.util.Condition;
+import br.com.vss.resell_platform.util.SubCategory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.show-sql=false"
+})
+@Import(LedgerService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LedgerServiceTest {
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private User seller;
+    private User otherSeller;
+    private User buyer;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(ledgerService, "batchSize", 2);
+        seller = userRepository.save(new User("seller", "password", "seller@email.com"));
+        otherSeller = userRepository.save(new User("other", "password", "other@email.com"));
+        buyer = userRepository.save(new User("buyer", "password", "buyer@email.com"));
+        item = itemRepository.save(new Item("name", null, Category.BOTTOMS, SubCategory.TROUSERS, Condition.NEW,
+                new BigDecimal("100"), null, seller));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ledgerEntryRepository.deleteAllInBatch();
+        itemRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    private LedgerEntry sale(User seller, String amount) {
+        return ledgerEntryRepository.save(new LedgerEntry(item.getId(), seller.getId(), buyer.getId(),
+                new BigDecimal(amount), BigDecimal.ONE));
+    }
+
+    private List<LedgerEntry> entries() {
+        return ledgerEntryRepository.findAll(Sort.by("id"));
+    }
+
+    private User reload(User user) {
+        return userRepository.findById(user.getId()).orElseThrow();
+    }
+
+    @Test
+    @DisplayName("Should settle the oldest unsettled entries first, one batch at a time")
+    void shouldSettleInOrder() {
+
+        sale(seller, "11");
+        sale(otherSeller, "21");
+        sale(seller, "31");
+
+        assertEquals(2, ledgerService.settleBatch());
+
+        List<LedgerEntry> entries = entries();
+        assertNotNull(entries.get(0).getSettledAt());
+        assertNotNull(entries.get(1).getSettledAt());
+        assertNull(entries.get(2).getSettledAt());
+        assertEquals(0, new BigDecimal("10").compareTo(reload(seller).getBalance()));
+        assertEquals(0, new BigDecimal("20").compareTo(reload(otherSeller).getBalance()));
+    }
+
+    @Test
+    @DisplayName("Should drain every batch, crediting each seller once per batch")
+    void shouldDrainEveryBatch() {
+
+        long sellerVersion = reload(seller).getVersion();
+        long otherVersion = reload(otherSeller).getVersion();
+        sale(seller, "11");
+        sale(seller, "21");
+        sale(otherSeller, "31");
+        sale(seller, "41");
+        sale(seller, "51");
+
+        ledgerService.settle();
+
+        assertTrue(entries().stream().allMatch(entry -> entry.getSettledAt() != null));
+        assertEquals(0, new BigDecimal("120").compareTo(reload(seller).getBalance()));
+        assertEquals(0, new BigDecimal("30").compareTo(reload(otherSeller).getBalance()));
+        // one credit per batch the seller had entries in: {11, 21}, {31, 41} and {51}
+        assertEquals(sellerVersion + 3, reload(seller).getVersion());
+        assertEquals(otherVersion + 1, reload(otherSeller).getVersion());
+        assertEquals(0, BigDecimal.ZERO.compareTo(ledgerService.balance(seller.getId()).pending()));
+    }
+
+    @Test
+    @DisplayName("Should leave balances alone when nothing is left to settle")
+    void shouldNotSettleTwice() {
+
+        sale(seller, "11");
+        ledgerService.settle();
+        User settled = reload(seller);
+
+        ledgerService.settle();
+
+        assertEquals(0, ledgerService.settleBatch());
+        assertEquals(0, settled.getBalance().compareTo(reload(seller).getBalance()));
+        assertEquals(settled.getVersion(), reload(seller).getVersion());
+    }
+}
@@ -0,0 +1,118 @@
+package br.com.vss.resell_platform.service;
+
+import br.com.vss.resell_platform.repository.ItemRepository;
+import br.com.vss.resell_platform.search.FeedIndex;
+import br.com.vss.resell_platform.search.IndexedText;
+import br.com.vss.resell_platform.search.IndexedVersion;
+import br.com.vss.resell_platform.search.TextIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TextIndexServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 10, 12, 0);
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path directory;
+
+    private TextIndex textIndex;
+    private TextIndexService textIndexService;
+
+    @BeforeEach
+    void setUp() {
+        textIndex = new TextIndex(2);
+        textIndexService = service(textIndex);
+        doReturn(Stream.of(text(1L, 0L), text(2L, 0L), text(3L, 0L))).when(itemRepository).streamIndexedTexts();
+        load(textIndexService);
+    }
+
+    @Nested
+    class restore {
+
+        @Test
+        @DisplayName("Should read back the snapshot, drop the items gone since and return the stale ones")
+        void shouldReconcileSnapshot() {
+
+            // the rebuilt index was snapshotted once loaded, 2 changed, 3 was sold and 4 listed since
+            TextIndex restored = new TextIndex(2);
+            doReturn(Stream.of(version(1L, 0L), version(2L, 1L), version(4L, 0L))).when(itemRepository).streamIndexedVersions();
+
+            assertEquals(List.of(2L, 4L), List.copyOf(service(restored).load()));
+            assertArrayEquals(new long[]{1L, 2L}, restored.ids());
+            assertTrue(restored.isCurrent(1L, 0L));
+            verify(itemRepository, times(1)).streamIndexedTexts();
+        }
+
+        @Test
+        @DisplayName("Should rebuild from the table when there is no snapshot")
+        void shouldRebuildWithoutSnapshot() {
+
+            assertArrayEquals(new long[]{1L, 2L, 3L}, textIndex.ids());
+            assertTrue(textIndexService.isReady());
+            verify(itemRepository, never()).streamIndexedVersions();
+        }
+    }
+
+    @Nested
+    class drifted {
+
+        @Test
+        @DisplayName("Should list the items whose version moved, the new ones and the ones no longer available")
+        void shouldListDriftedItems() {
+
+            doReturn(Stream.of(version(1L, 0L), version(2L, 1L), version(4L, 0L))).when(itemRepository).streamIndexedVersions();
+
+            assertEquals(List.of(2L, 4L, 3L), List.copyOf(textIndexService.drifted()));
+            // only compared, the sync service reads them again
+            assertArrayEquals(new long[]{1L, 2L, 3L}, textIndex.ids());
+        }
+
+        @Test
+        @DisplayName("Should not compare an index that is not loaded")
+        void shouldSkipUnloadedIndex() {
+
+            assertNull(service(new TextIndex(2)).drifted());
+            verify(itemRepository, never()).streamIndexedVersions();
+        }
+    }
+
+    private TextIndexService service(TextIndex textIndex) {
+        return new TextIndexService(textIndex, new FeedIndex(2), itemRepository, transactionManager, true,
+                directory.toString());
+    }
+
+    private static void load(TextIndexService textIndexService) {
+        textIndexService.load();
+        textIndexService.loaded();
+    }
+
+    private static IndexedText text(Long id, Long version) {
+        return new IndexedText(id, version, "Camiseta " + id, "Hering", NOW.plusMinutes(id));
+    }
+
+    private static IndexedVersion version(Long id, Long version) {
+        return new IndexedVersion(id, version);
+    }
+}
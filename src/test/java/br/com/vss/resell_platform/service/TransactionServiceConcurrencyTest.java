@@ -0,0 +1,149 @@
+package br.com.vss.resell_platform.service;
+
+import br.com.vss.resell_platform.cache.FeedGeneration;
+import br.com.vss.resell_platform.exceptions.ItemNotAvailableException;
+import br.com.vss.resell_platform.exceptions.PurchaseConflictException;
+import br.com.vss.resell_platform.model.Item;
+import br.com.vss.resell_platform.model.User;
+import br.com.vss.resell_platform.repository.ItemRepository;
+import br.com.vss.resell_platform.repository.LedgerEntryRepository;
+import br.com.vss.resell_platform.repository.TransactionRepository;
+import br.com.vss.resell_platform.repository.UserRepository;
+import br.com.vss.resell_platform.util.Category;
+import br.com.vss.resell_platform.util.Condition;
+import br.com.vss.resell_platform.util.ItemStatus;
+import br.com.vss.resell_platform.util.PurchaseLockingStrategy;
+import br.com.vss.resell_platform.util.SubCategory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.show-sql=false"
+})
+@Import({TransactionService.class, CommissionService.class, ItemSummaryService.class, LedgerService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionServiceConcurrencyTest {
+
+    private static final int PURCHASES = 2000;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @MockitoBean
+    private FeedGeneration feedGeneration;
+
+    @MockitoBean
+    private IndexSyncService indexSyncService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @AfterEach
+    void tearDown() {
+        ledgerEntryRepository.deleteAllInBatch();
+        transactionRepository.deleteAllInBatch();
+        itemRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Should sell a hot item exactly once with optimistic locking")
+    void shouldSellOnceWithOptimisticLocking() throws Exception {
+        assertSoldExactlyOnce(PurchaseLockingStrategy.OPTIMISTIC);
+    }
+
+    @Test
+    @DisplayName("Should sell a hot item exactly once with pessimistic locking")
+    void shouldSellOnceWithPessimisticLocking() throws Exception {
+        assertSoldExactlyOnce(PurchaseLockingStrategy.PESSIMISTIC);
+    }
+
+    private void assertSoldExactlyOnce(PurchaseLockingStrategy strategy) throws Exception {
+
+        TransactionService target = AopTestUtils.getTargetObject(transactionService);
+        ReflectionTestUtils.setField(target, "lockingStrategy", strategy);
+
+        User seller = userRepository.save(new User("seller", "password", "seller@email.com"));
+        List<User> buyers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            buyers.add(userRepository.save(new User("buyer" + i, "password", "buyer" + i + "@email.com")));
+        }
+        Item item = itemRepository.save(new Item("name", null, Category.BOTTOMS, SubCategory.TROUSERS, Condition.NEW,
+                new BigDecimal("1000"), null, seller));
+
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < PURCHASES; i++) {
+            User buyer = buyers.get(i % THREADS);
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    transactionService.purchaseItem(buyer, item.getId());
+                    sold.incrementAndGet();
+                } catch (ItemNotAvailableException | PurchaseConflictException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(1, sold.get());
+        assertEquals(PURCHASES - 1, rejected.get());
+        assertEquals(1, transactionRepository.count());
+        assertEquals(ItemStatus.SOLD, itemRepository.findById(item.getId()).orElseThrow().getStatus());
+        assertEquals(0, new BigDecimal("900").compareTo(ledgerService.balance(seller.getId()).pending()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(userRepository.findById(seller.getId()).orElseThrow().getBalance()));
+
+        ledgerService.settle();
+
+        assertEquals(0, new BigDecimal("900").compareTo(userRepository.findById(seller.getId()).orElseThrow().getBalance()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(ledgerService.balance(seller.getId()).pending()));
+        assertEquals(0, new BigDecimal("900").compareTo(ledgerService.balance(seller.getId()).total()));
+    }
+
+}
@@ -1,9 +1,14 @@
 package br.com.vss.resell_platform.service;
 
+import br.com.vss.resell_platform.cache.FeedGeneration;
+import br.com.vss.resell_platform.controller.dto.ItemSummaryDto;
 import br.com.vss.resell_platform.exceptions.ItemNotAvailableException;
+import br.com.vss.resell_platform.model.Brand;
 import br.com.vss.resell_platform.model.Item;
+import br.com.vss.resell_platform.model.Size;
 import br.com.vss.resell_platform.model.Transaction;
 import br.com.vss.resell_platform.model.User;
+import br.com.vss.resell_platform.repository.ItemRepository;
 import br.com.vss.resell_platform.repository.TransactionRepository;
 import br.com.vss.resell_platform.util.Category;
 import br.com.vss.resell_platform.util.Condition;
@@ -18,8 +23,10 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -33,6 +40,24 @@ class TransactionServiceTest {
     @Mock
     private CommissionService commissionService;
 
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ItemSummaryService itemSummaryService;
+
+    @Mock
+    private FeedGeneration feedGeneration;
+
+    @Mock
+    private IndexSyncService indexSyncService;
+
     @InjectMocks
     private TransactionService transactionService;
 
@@ -51,7 +76,7 @@ class TransactionServiceTest {
             User user2 = new User("username2", "password2", "email2");
 
 
-            Item item = new Item("name", "brand", Category.BOTTOMS, SubCategory.TROUSERS, Condition.NEW, new BigDecimal("1000"), "size", user);;
+            Item item = new Item("name", new Brand("brand"), Category.BOTTOMS, SubCategory.TROUSERS, Condition.NEW, new BigDecimal("1000"), new Size("size"), user2);
 
 
             Transaction transaction = new Transaction(user, user2, item);
@@ -59,13 +84,19 @@ class TransactionServiceTest {
             doReturn(item.getPrice().multiply(commissionRate)).when(commissionService).calculateCommission(item);
             doReturn(transaction).when(transactionRepository).save(transactionArgumentCaptor.capture());
 
-            var payout = item.getPrice().subtract(item.getPrice().multiply(commissionRate));
+            var commission = item.getPrice().multiply(commissionRate);
+
+            doReturn(Optional.of(new ItemSummaryDto(1L, 2L, ItemStatus.AVAILABLE))).when(itemSummaryService).findById(1L);
+            doReturn(Optional.of(item)).when(itemRepository).findById(1L);
 
-            transactionService.purchaseItem(user, user2, item);
+            transactionService.purchaseItem(user, 1L);
 
-            assertEquals(user2.getBalance(), payout);
+            assertEquals(BigDecimal.ZERO, user2.getBalance());
             assertEquals(item.getStatus(), ItemStatus.SOLD);
+            verify(ledgerService).recordSale(item, user2, user, commission);
             verify(transactionRepository, times(1)).save(transactionArgumentCaptor.capture());
+            verify(indexSyncService).removed(1L);
+            verify(feedGeneration).bump();
 
         }
 
@@ -78,13 +109,17 @@ class TransactionServiceTest {
             User user2 = new User("username2", "password2", "email2");
 
 
-            Item item = new Item("name", "brand", Category.BOTTOMS, SubCategory.TROUSERS, Condition.NEW, new BigDecimal(1000), "size", user);
+            Item item = new Item("name", new Brand("brand"), Category.BOTTOMS, SubCategory.TROUSERS, Condition.NEW, new BigDecimal(1000), new Size("size"), user);
 
             item.setStatus(ItemStatus.SOLD);
 
             doReturn(item.getPrice().multiply(commissionRate)).when(commissionService).calculateCommission(item);
+            // the item cache still says available, the row read inside the transaction does not
+            doReturn(Optional.of(new ItemSummaryDto(1L, 1L, ItemStatus.AVAILABLE))).when(itemSummaryService).findById(1L);
+            doReturn(Optional.of(item)).when(itemRepository).findById(1L);
 
-            assertThrows(ItemNotAvailableException.class, () -> transactionService.purchaseItem(user, user, item));
+            assertThrows(ItemNotAvailableException.class, () -> transactionService.purchaseItem(user, 1L));
+            verify(transactionRepository, never()).save(any());
         }
 
     }
@@ -1,5 +1,6 @@
 package br.com.vss.resell_platform.service;
 
+import br.com.vss.resell_platform.config.CachingAuthenticationProvider;
 import br.com.vss.resell_platform.exceptions.EmailAlreadyTakenException;
 import br.com.vss.resell_platform.exceptions.UsernameAlreadyTakenException;
 import br.com.vss.resell_platform.model.User;
@@ -26,6 +27,9 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private CachingAuthenticationProvider authenticationProvider;
+
     @InjectMocks
     private UserService userService;
 
@@ -115,4 +119,22 @@ class UserServiceTest {
 
     }
 
-}
\ No newline at end of file
+    @Nested
+    class changePassword {
+
+        @Test
+        @DisplayName("Should store the new password and drop cached logins")
+        void shouldChangePassword() {
+
+            User user = new User("username", "password", "email@email.com");
+
+            doReturn(Optional.of(user)).when(userRepository).findByUsername(user.getUsername());
+
+            userService.changePassword(user.getUsername(), "new password");
+
+            assertEquals("new password", user.getPassword());
+            verify(userRepository).save(user);
+            verify(authenticationProvider).invalidate(user.getUsername());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package br.com.vss.resell_platform.util;
+
+import br.com.vss.resell_platform.exceptions.InvalidCursorException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeedCursorTest {
+
+    @Test
+    @DisplayName("Should decode an encoded cursor back to the same position")
+    void shouldRoundTripCursor() {
+
+        FeedCursor cursor = new FeedCursor(LocalDateTime.of(2025, 1, 10, 12, 30, 15, 123456000), 42L);
+        FeedCursor ranked = new FeedCursor(cursor.listedAt(), 42L, FeedCursor.Order.RELEVANCE);
+
+        assertEquals(cursor, FeedCursor.decode(cursor.encode()));
+        assertEquals(ranked, FeedCursor.decode(ranked.encode()));
+    }
+
+    @Test
+    @DisplayName("Should throw InvalidCursorException when cursor does not say which order it continues")
+    void shouldRejectCursorWithoutOrder() {
+
+        String token = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("2025-01-10T12:30:15|42".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(InvalidCursorException.class, () -> FeedCursor.decode(token));
+    }
+
+    @Test
+    @DisplayName("Should throw InvalidCursorException when cursor is malformed")
+    void shouldThrowExceptionWhenCursorIsMalformed() {
+
+        assertThrows(InvalidCursorException.class, () -> FeedCursor.decode("not-a-cursor"));
+    }
+
+}